@@ -0,0 +1,365 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for audit rows moved out of the audit_trail table, one pair of files per month:
+ *
+ *   audit-YYYY-MM.seg  append-only sequence of independently gzip'd blocks of rows, in id order
+ *   audit-YYYY-MM.idx  one fixed-size entry per block: offset, length, row count, id range and time range
+ *
+ * The index is the sparse time index: a search reads it, skips every block whose time range cannot match,
+ * and only decompresses the rest. A block is written and forced to disk before its index entry, so the index
+ * never points at a partial block; bytes past the last indexed block are leftovers of an interrupted append
+ * and are truncated before the next one.
+ */
+@Component
+public class AuditArchive {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{4}-\\d{2})\\.seg");
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    // Version 1 blocks hold only the message columns; version 2 adds the structured event columns, version 3 the search text
+    private static final int BLOCK_FORMAT_VERSION = 3;
+    // offset, length, count, minId, maxId, minTime (seconds + nanos), maxTime (seconds + nanos)
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES
+            + 2 * (Long.BYTES + Integer.BYTES);
+
+    private static final Comparator<AuditTrail> NEWEST_FIRST = Comparator
+            .comparing(AuditTrail::getDateTriggered, Comparator.reverseOrder())
+            .thenComparing(AuditTrail::getId, Comparator.reverseOrder());
+
+    private final Path root;
+
+    public AuditArchive(@Value("${app.audit.archive.dir:audit-archive}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    // Highest audit id already archived for the month, 0 when nothing is
+    public long lastArchivedId(YearMonth month) {
+        return readIndex(month).stream().mapToLong(BlockEntry::maxId).max().orElse(0L);
+    }
+
+    /**
+     * Appends the rows (ascending id, all within the month, all newer than lastArchivedId) as one block.
+     * Returns once both the block and its index entry are on disk.
+     */
+    public synchronized void append(YearMonth month, List<AuditTrail> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(root);
+            List<BlockEntry> index = readIndex(month);
+            long end = index.isEmpty() ? 0L : index.get(index.size() - 1).end();
+            byte[] block = encodeBlock(rows);
+
+            try (FileChannel segment = FileChannel.open(segmentPath(month),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                segment.truncate(end);
+                writeFully(segment, ByteBuffer.wrap(block), end);
+                segment.force(true);
+            }
+
+            BlockEntry entry = BlockEntry.of(end, block.length, rows);
+            try (FileChannel indexFile = FileChannel.open(indexPath(month),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long indexEnd = (long) index.size() * INDEX_ENTRY_BYTES;
+                indexFile.truncate(indexEnd);
+                writeFully(indexFile, entry.toBytes(), indexEnd);
+                indexFile.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive audit rows for " + month, e);
+        }
+    }
+
+    /**
+     * Archived rows matching the filter that sort strictly after the seek key in newest-first order
+     * (a null seek date starts from the newest row), at most limit of them.
+     */
+    public List<AuditTrail> search(AuditFilter filter, LocalDateTime beforeDate, Long beforeId, int limit) {
+        List<AuditTrail> results = new ArrayList<>();
+        for (YearMonth month : monthsNewestFirst()) {
+            // Months are disjoint in time, so once the page is full older months cannot contribute
+            if (results.size() >= limit) {
+                break;
+            }
+            if (!monthMayMatch(month, filter, beforeDate)) {
+                continue;
+            }
+            List<BlockEntry> index = readIndex(month);
+            for (int i = index.size() - 1; i >= 0; i--) {
+                BlockEntry entry = index.get(i);
+                if (!entry.mayMatch(filter, beforeDate)) {
+                    continue;
+                }
+                // Blocks follow id order, not strictly time order, so a full page only rules out blocks that are entirely older
+                if (results.size() >= limit && entry.maxTime().isBefore(results.get(limit - 1).getDateTriggered())) {
+                    continue;
+                }
+                for (AuditTrail row : readBlock(month, entry)) {
+                    if (isAfterSeek(row, beforeDate, beforeId) && filter.matches(row)) {
+                        results.add(row);
+                    }
+                }
+                results.sort(NEWEST_FIRST);
+                if (results.size() > limit) {
+                    results.subList(limit, results.size()).clear();
+                }
+            }
+        }
+        return results;
+    }
+
+    // Streams every archived row matching the filter, oldest month first and in id order within a month
+    public void forEach(AuditFilter filter, Consumer<AuditTrail> action) {
+        List<YearMonth> months = new ArrayList<>(monthsNewestFirst());
+        Collections.reverse(months);
+        for (YearMonth month : months) {
+            if (!monthMayMatch(month, filter, null)) {
+                continue;
+            }
+            for (BlockEntry entry : readIndex(month)) {
+                if (!entry.mayMatch(filter, null)) {
+                    continue;
+                }
+                for (AuditTrail row : readBlock(month, entry)) {
+                    if (filter.matches(row)) {
+                        action.accept(row);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isAfterSeek(AuditTrail row, LocalDateTime beforeDate, Long beforeId) {
+        if (beforeDate == null) {
+            return true;
+        }
+        int cmp = row.getDateTriggered().compareTo(beforeDate);
+        return cmp < 0 || (cmp == 0 && row.getId() < beforeId);
+    }
+
+    private static boolean monthMayMatch(YearMonth month, AuditFilter filter, LocalDateTime beforeDate) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        if (beforeDate != null && beforeDate.isBefore(start)) {
+            return false;
+        }
+        if (filter.from() != null && !filter.from().isBefore(end)) {
+            return false;
+        }
+        return filter.to() == null || filter.to().isAfter(start);
+    }
+
+    private List<YearMonth> monthsNewestFirst() {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> YearMonth.parse(matcher.group(1)))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list audit archive", e);
+        }
+    }
+
+    // Only whole entries count; a torn trailing entry from an interrupted append is ignored
+    private List<BlockEntry> readIndex(YearMonth month) {
+        Path path = indexPath(month);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            List<BlockEntry> entries = new ArrayList<>();
+            while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+                entries.add(BlockEntry.from(buffer));
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit archive index for " + month, e);
+        }
+    }
+
+    private List<AuditTrail> readBlock(YearMonth month, BlockEntry entry) {
+        ByteBuffer block = ByteBuffer.allocate(entry.length());
+        try (FileChannel segment = FileChannel.open(segmentPath(month), StandardOpenOption.READ)) {
+            while (block.hasRemaining()) {
+                if (segment.read(block, entry.offset() + block.position()) < 0) {
+                    throw new IOException("Unexpected end of segment");
+                }
+            }
+            return decodeBlock(block.array(), entry.count());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit archive block for " + month, e);
+        }
+    }
+
+    private static byte[] encodeBlock(List<AuditTrail> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(BLOCK_FORMAT_VERSION);
+            for (AuditTrail row : rows) {
+                out.writeLong(row.getId());
+                out.writeLong(row.getDateTriggered().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(row.getDateTriggered().getNano());
+                writeString(out, row.getPerformedBy());
+                writeString(out, row.getActionMessage());
+                writeString(out, row.getEntityType() != null ? row.getEntityType().name() : null);
+                writeLong(out, row.getEntityId());
+                writeString(out, row.getAction() != null ? row.getAction().name() : null);
+                writeLong(out, row.getParentId());
+                writeString(out, row.getPayload());
+                writeString(out, row.getSearchText());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<AuditTrail> decodeBlock(byte[] block, int count) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(block)))) {
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > BLOCK_FORMAT_VERSION) {
+                throw new IOException("Unsupported audit block format " + version);
+            }
+            List<AuditTrail> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                AuditTrail row = new AuditTrail();
+                row.setId(in.readLong());
+                row.setDateTriggered(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+                row.setPerformedBy(readString(in));
+                row.setActionMessage(readString(in));
+                if (version >= 2) {
+                    String entityType = readString(in);
+                    row.setEntityType(entityType != null ? AuditTrail.EntityType.valueOf(entityType) : null);
+                    row.setEntityId(readLong(in));
+                    String action = readString(in);
+                    row.setAction(action != null ? AuditTrail.Action.valueOf(action) : null);
+                    row.setParentId(readLong(in));
+                    row.setPayload(readString(in));
+                }
+                if (version >= 3) {
+                    row.setSearchText(readString(in));
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return root.resolve("audit-" + month + SEGMENT_SUFFIX);
+    }
+
+    private Path indexPath(YearMonth month) {
+        return root.resolve("audit-" + month + INDEX_SUFFIX);
+    }
+
+    private record BlockEntry(long offset, int length, int count, long minId, long maxId,
+                              LocalDateTime minTime, LocalDateTime maxTime) {
+
+        static BlockEntry of(long offset, int length, List<AuditTrail> rows) {
+            LocalDateTime minTime = rows.stream().map(AuditTrail::getDateTriggered).min(Comparator.naturalOrder()).orElseThrow();
+            LocalDateTime maxTime = rows.stream().map(AuditTrail::getDateTriggered).max(Comparator.naturalOrder()).orElseThrow();
+            return new BlockEntry(offset, length, rows.size(), rows.get(0).getId(), rows.get(rows.size() - 1).getId(),
+                    minTime, maxTime);
+        }
+
+        static BlockEntry from(ByteBuffer buffer) {
+            return new BlockEntry(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong(),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC));
+        }
+
+        ByteBuffer toBytes() {
+            return ByteBuffer.allocate(INDEX_ENTRY_BYTES)
+                    .putLong(offset).putInt(length).putInt(count).putLong(minId).putLong(maxId)
+                    .putLong(minTime.toEpochSecond(ZoneOffset.UTC)).putInt(minTime.getNano())
+                    .putLong(maxTime.toEpochSecond(ZoneOffset.UTC)).putInt(maxTime.getNano())
+                    .flip();
+        }
+
+        long end() {
+            return offset + length;
+        }
+
+        boolean mayMatch(AuditFilter filter, LocalDateTime beforeDate) {
+            if (beforeDate != null && minTime.isAfter(beforeDate)) {
+                return false;
+            }
+            if (filter.from() != null && maxTime.isBefore(filter.from())) {
+                return false;
+            }
+            return filter.to() == null || minTime.isBefore(filter.to());
+        }
+    }
+}
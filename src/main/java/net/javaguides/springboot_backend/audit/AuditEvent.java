@@ -0,0 +1,10 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+
+import java.time.LocalDateTime;
+
+// One audit row waiting to be written
+public record AuditEvent(AuditTrail.Action action, AuditTrail.EntityType entityType, Long entityId, Long parentId,
+                         String payload, String performedBy, LocalDateTime dateTriggered) {
+}
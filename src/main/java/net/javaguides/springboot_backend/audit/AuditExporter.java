@@ -0,0 +1,240 @@
+package net.javaguides.springboot_backend.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Writes the full audit trail (archived months first, then the audit_trail table, each in id order) as NDJSON
+ * or CSV in constant memory. Table rows come through a forward-only, read-only cursor with a driver fetch size,
+ * so they are written as they arrive instead of being collected. With MySQL Connector/J a fetch size of
+ * Integer.MIN_VALUE streams row by row. Structured events are rendered a chunk of rows at a time, so message
+ * name lookups cost one query per chunk rather than one per row.
+ */
+@Component
+public class AuditExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + ", expected ndjson or csv");
+            }
+        }
+    }
+
+    private static final String[] CSV_HEADER = {"id", "dateTriggered", "performedBy", "action", "entityType", "entityId",
+            "parentId", "payload", "actionMessage"};
+    private static final int RENDER_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchive auditArchive;
+    private final AuditMessageRenderer auditMessageRenderer;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public AuditExporter(JdbcTemplate jdbcTemplate,
+                         AuditArchive auditArchive,
+                         AuditMessageRenderer auditMessageRenderer,
+                         @Value("${app.audit.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditArchive = auditArchive;
+        this.auditMessageRenderer = auditMessageRenderer;
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(AuditFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(jsonFactory.createGenerator(writer));
+        List<AuditTrail> chunk = new ArrayList<>(RENDER_CHUNK_SIZE);
+        Consumer<AuditTrail> buffer = row -> {
+            chunk.add(row);
+            if (chunk.size() == RENDER_CHUNK_SIZE) {
+                writeChunk(rows, chunk);
+            }
+        };
+        try {
+            auditArchive.forEach(filter, buffer);
+            streamTable(filter, buffer);
+            writeChunk(rows, chunk);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.finish();
+    }
+
+    private void streamTable(AuditFilter filter, Consumer<AuditTrail> action) {
+        StringBuilder sql = new StringBuilder("SELECT " + AuditTrailRowMapper.COLUMNS + " FROM audit_trail WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (filter.username() != null && !filter.username().isBlank()) {
+            sql.append(" AND performed_by = ?");
+            params.add(filter.username());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND date_triggered >= ?");
+            params.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND date_triggered < ?");
+            params.add(Timestamp.valueOf(filter.to()));
+        }
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> action.accept(AuditTrailRowMapper.INSTANCE.mapRow(rs, rs.getRow())));
+    }
+
+    private void writeChunk(RowWriter rows, List<AuditTrail> chunk) {
+        auditMessageRenderer.render(chunk);
+        try {
+            for (AuditTrail row : chunk) {
+                rows.write(row);
+            }
+            chunk.clear();
+        } catch (IOException e) {
+            // Usually the client went away; abort the cursor instead of reading the rest of the table
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(AuditTrail row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(JsonGenerator json) {
+            this.json = json;
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(AuditTrail row) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", row.getId());
+            json.writeStringField("dateTriggered", row.getDateTriggered() != null ? row.getDateTriggered().toString() : null);
+            json.writeStringField("performedBy", row.getPerformedBy());
+            json.writeStringField("action", row.getAction() != null ? row.getAction().name() : null);
+            json.writeStringField("entityType", row.getEntityType() != null ? row.getEntityType().name() : null);
+            writeNumberField("entityId", row.getEntityId());
+            writeNumberField("parentId", row.getParentId());
+            json.writeStringField("payload", row.getPayload());
+            json.writeStringField("actionMessage", row.getActionMessage());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+
+        private void writeNumberField(String name, Long value) throws IOException {
+            if (value != null) {
+                json.writeNumberField(name, value);
+            } else {
+                json.writeNullField(name);
+            }
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writeLine(CSV_HEADER);
+        }
+
+        @Override
+        public void write(AuditTrail row) throws IOException {
+            writeLine(new String[] {
+                    String.valueOf(row.getId()),
+                    row.getDateTriggered() != null ? row.getDateTriggered().toString() : "",
+                    row.getPerformedBy(),
+                    row.getAction() != null ? row.getAction().name() : "",
+                    row.getEntityType() != null ? row.getEntityType().name() : "",
+                    row.getEntityId() != null ? row.getEntityId().toString() : "",
+                    row.getParentId() != null ? row.getParentId().toString() : "",
+                    row.getPayload(),
+                    row.getActionMessage()
+            });
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(String[] fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(fields[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks and double embedded quotes
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
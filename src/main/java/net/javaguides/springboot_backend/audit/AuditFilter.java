@@ -0,0 +1,51 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+// Optional audit search criteria; null fields match everything. The range is [from, to).
+// An entity selects its own events plus those of its children (e.g. a task's posts, comments and files).
+public record AuditFilter(String username, LocalDateTime from, LocalDateTime to, String keyword,
+                          AuditTrail.EntityType entityType, Long entityId) {
+
+    public AuditFilter(String username, LocalDateTime from, LocalDateTime to, String keyword) {
+        this(username, from, to, keyword, null, null);
+    }
+
+    // In-memory equivalent of the SQL filter, used for archived rows (keyword match is case-insensitive like MySQL's collation)
+    public boolean matches(AuditTrail audit) {
+        LocalDateTime triggered = audit.getDateTriggered();
+        if (username != null && !username.isBlank() && !username.equals(audit.getPerformedBy())) {
+            return false;
+        }
+        if (from != null && (triggered == null || triggered.isBefore(from))) {
+            return false;
+        }
+        if (to != null && (triggered == null || !triggered.isBefore(to))) {
+            return false;
+        }
+        if (entityType != null && !concerns(audit)) {
+            return false;
+        }
+        if (keyword != null && !keyword.isBlank()) {
+            String needle = keyword.toLowerCase(Locale.ROOT);
+            return contains(audit.getSearchText(), needle) || contains(audit.getActionMessage(), needle)
+                    || contains(audit.getPayload(), needle);
+        }
+        return true;
+    }
+
+    private boolean concerns(AuditTrail audit) {
+        if (audit.getEntityType() == entityType) {
+            return entityId.equals(audit.getEntityId());
+        }
+        return audit.getEntityType() != null && audit.getEntityType().getParentType() == entityType
+                && entityId.equals(audit.getParentId());
+    }
+
+    private static boolean contains(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
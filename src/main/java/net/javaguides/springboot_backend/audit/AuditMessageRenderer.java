@@ -0,0 +1,130 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
+import net.javaguides.springboot_backend.repositories.AuditTrailRepository;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Turns structured audit events into the human-readable actionMessage when they are read. Names that the writer
+ * no longer looks up (the task of a post, the employee of a document, the title of a meeting) are resolved for a
+ * whole page at once, one query per referenced entity type. An entity that has since been deleted is shown by id.
+ * Rows written before structured events keep their stored message. AuditWriter also renders each batch as it
+ * writes it and stores the text for keyword search, since the message column of a structured event stays empty.
+ */
+@Component
+public class AuditMessageRenderer {
+
+    private final Map<EntityType, Function<Collection<Long>, List<AuditTrailRepository.EntityName>>> nameLookups =
+            new EnumMap<>(EntityType.class);
+
+    public AuditMessageRenderer(AuditTrailRepository auditTrailRepository) {
+        nameLookups.put(EntityType.TASK, auditTrailRepository::findTaskNames);
+        nameLookups.put(EntityType.EMPLOYEE, auditTrailRepository::findEmployeeNames);
+        nameLookups.put(EntityType.MEETING, auditTrailRepository::findMeetingTitles);
+    }
+
+    public void render(List<AuditTrail> rows) {
+        Map<EntityType, Set<Long>> wanted = new EnumMap<>(EntityType.class);
+        for (AuditTrail row : rows) {
+            if (row.getActionMessage() == null && row.getAction() != null) {
+                EntityType type = referencedType(row);
+                Long id = referencedId(row);
+                if (type != null && id != null) {
+                    wanted.computeIfAbsent(type, key -> new HashSet<>()).add(id);
+                }
+            }
+        }
+
+        Map<EntityType, Map<Long, String>> names = new EnumMap<>(EntityType.class);
+        wanted.forEach((type, ids) -> {
+            Map<Long, String> byId = new HashMap<>();
+            for (AuditTrailRepository.EntityName name : nameLookups.get(type).apply(ids)) {
+                byId.put(name.getId(), name.getName());
+            }
+            names.put(type, byId);
+        });
+
+        for (AuditTrail row : rows) {
+            if (row.getActionMessage() == null && row.getAction() != null) {
+                EntityType type = referencedType(row);
+                String name = type == null ? null
+                        : names.getOrDefault(type, Map.of()).getOrDefault(referencedId(row), "#" + referencedId(row));
+                row.setActionMessage(message(row, name));
+            }
+        }
+    }
+
+    // Messages of events about to be written, rendered with the names as they are now
+    public Map<AuditEvent, String> messagesOf(List<AuditEvent> events) {
+        List<AuditTrail> rows = events.stream()
+                .map(event -> AuditTrail.builder()
+                        .action(event.action())
+                        .entityType(event.entityType())
+                        .entityId(event.entityId())
+                        .parentId(event.parentId())
+                        .payload(event.payload())
+                        .build())
+                .toList();
+        render(rows);
+        Map<AuditEvent, String> messages = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            messages.put(events.get(i), rows.get(i).getActionMessage());
+        }
+        return messages;
+    }
+
+    // The entity whose current name the message needs, if any
+    private static EntityType referencedType(AuditTrail row) {
+        if (row.getEntityType() == EntityType.MEETING) {
+            return row.getAction() == Action.STATUS_CHANGED ? EntityType.MEETING : null;
+        }
+        return row.getEntityType().getParentType();
+    }
+
+    private static Long referencedId(AuditTrail row) {
+        return row.getEntityType() == EntityType.MEETING ? row.getEntityId() : row.getParentId();
+    }
+
+    private static String message(AuditTrail row, String name) {
+        String verb = verb(row.getAction());
+        String payload = row.getPayload();
+        return switch (row.getEntityType()) {
+            case EMPLOYEE -> row.getAction() == Action.CREATED
+                    ? "New employee " + payload + " was added"
+                    : verb + " employee " + payload;
+            case DOCUMENT -> row.getAction() == Action.UPLOADED
+                    ? "Uploaded document for " + name + ": " + payload
+                    : verb + " " + payload + " for " + name;
+            case MEETING -> row.getAction() == Action.STATUS_CHANGED
+                    ? "Updated meeting status: " + name + " to " + MeetingStatus.valueOf(payload).getDisplayName()
+                    : verb + " meeting: " + payload;
+            case TASK_POST -> verb + " post in task: " + name
+                    + " (Task ID: " + row.getParentId() + ", Post ID: " + row.getEntityId() + ")";
+            case TASK_COMMENT -> verb + " comment on post in task: " + name
+                    + " (Task ID: " + row.getParentId() + ", Post ID: " + payload + ", Comment ID: " + row.getEntityId() + ")";
+            case TASK_FILE -> verb + " " + payload + " for task " + name;
+            case TASK -> verb + " task #" + row.getEntityId();
+        };
+    }
+
+    private static String verb(Action action) {
+        return switch (action) {
+            case CREATED -> "Created";
+            case UPDATED, STATUS_CHANGED -> "Updated";
+            case DELETED -> "Deleted";
+            case UPLOADED -> "Uploaded";
+        };
+    }
+}
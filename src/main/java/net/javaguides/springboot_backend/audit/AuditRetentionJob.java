@@ -0,0 +1,102 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the audit_trail table down to the last hot-months calendar months. Older months are copied block by
+ * block into the AuditArchive and each block's rows are deleted once the block is on disk. A block is always
+ * archived before its rows are deleted, and re-runs skip ids already archived, so an interrupted run neither
+ * loses nor duplicates rows.
+ */
+@Component
+public class AuditRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRetentionJob.class);
+
+    private static final String SELECT_BLOCK_SQL = "SELECT " + AuditTrailRowMapper.COLUMNS + " FROM audit_trail "
+            + "WHERE date_triggered >= ? AND date_triggered < ? AND id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditArchive auditArchive;
+    private final boolean enabled;
+    private final int hotMonths;
+    private final int blockSize;
+
+    public AuditRetentionJob(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             AuditArchive auditArchive,
+                             @Value("${app.audit.retention.enabled:true}") boolean enabled,
+                             @Value("${app.audit.retention.hot-months:3}") int hotMonths,
+                             @Value("${app.audit.retention.block-size:1000}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditArchive = auditArchive;
+        this.enabled = enabled;
+        this.hotMonths = hotMonths;
+        this.blockSize = blockSize;
+    }
+
+    @Scheduled(cron = "${app.audit.retention.cron:0 30 2 * * *}")
+    public void run() {
+        if (enabled) {
+            archiveBefore(YearMonth.now().minusMonths(hotMonths - 1L));
+        }
+    }
+
+    // Archives every month strictly before firstHotMonth
+    public void archiveBefore(YearMonth firstHotMonth) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(date_triggered) FROM audit_trail", LocalDateTime.class);
+        if (oldest == null) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(firstHotMonth); month = month.plusMonths(1)) {
+            archiveMonth(month);
+        }
+    }
+
+    private void archiveMonth(YearMonth month) {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        long archivedUpTo = auditArchive.lastArchivedId(month);
+
+        // Rows archived by a run that stopped before deleting them
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM audit_trail WHERE date_triggered >= ? AND date_triggered < ? AND id <= ?", start, end, archivedUpTo));
+
+        long lastId = archivedUpTo;
+
+        long archived = 0;
+        List<AuditTrail> block;
+        do {
+            block = jdbcTemplate.query(SELECT_BLOCK_SQL, AuditTrailRowMapper.INSTANCE, start, end, lastId, blockSize);
+            if (block.isEmpty()) {
+                break;
+            }
+
+            auditArchive.append(month, block);
+            List<Object[]> ids = block.stream().map(row -> new Object[] {row.getId()}).toList();
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("DELETE FROM audit_trail WHERE id = ?", ids));
+
+            lastId = block.get(block.size() - 1).getId();
+            archived += block.size();
+        } while (block.size() == blockSize);
+
+        if (archived > 0) {
+            log.info("Archived {} audit rows for {}", archived, month);
+        }
+    }
+}
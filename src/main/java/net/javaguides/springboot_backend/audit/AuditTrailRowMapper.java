@@ -0,0 +1,34 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Maps a raw audit_trail row (every column selected) for the JDBC paths that bypass JPA
+enum AuditTrailRowMapper implements RowMapper<AuditTrail> {
+    INSTANCE;
+
+    static final String COLUMNS = "id, action_message, performed_by, date_triggered, entity_type, entity_id, action, parent_id, payload, search_text";
+
+    @Override
+    public AuditTrail mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp triggered = rs.getTimestamp("date_triggered");
+        String entityType = rs.getString("entity_type");
+        String action = rs.getString("action");
+        return AuditTrail.builder()
+                .id(rs.getLong("id"))
+                .actionMessage(rs.getString("action_message"))
+                .performedBy(rs.getString("performed_by"))
+                .dateTriggered(triggered != null ? triggered.toLocalDateTime() : null)
+                .entityType(entityType != null ? AuditTrail.EntityType.valueOf(entityType) : null)
+                .entityId(rs.getObject("entity_id", Long.class))
+                .action(action != null ? AuditTrail.Action.valueOf(action) : null)
+                .parentId(rs.getObject("parent_id", Long.class))
+                .payload(rs.getString("payload"))
+                .searchText(rs.getString("search_text"))
+                .build();
+    }
+}
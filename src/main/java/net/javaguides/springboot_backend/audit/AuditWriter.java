@@ -0,0 +1,221 @@
+package net.javaguides.springboot_backend.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes audit rows off the request path. Events go into a bounded queue and a single background thread
+ * inserts them as one JDBC batch once batch-size events are waiting or flush-interval has passed since the
+ * first one, so many business transactions share one audit round trip. Each row also gets its rendered message
+ * as search text, with the names it mentions looked up once per batch.
+ *
+ * Back-pressure: when the queue stays full for offer-timeout the caller writes its event itself, which slows
+ * producers to the database's pace instead of dropping rows. On shutdown the queue is drained before the
+ * DataSource goes away; events submitted after that are written synchronously.
+ */
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_trail (action, entity_type, entity_id, parent_id, payload, performed_by, date_triggered, "
+                    + "search_text) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditMessageRenderer auditMessageRenderer;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter callerWriteCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       AuditMessageRenderer auditMessageRenderer,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.audit.writer.queue-capacity:10000}") int queueCapacity,
+                       @Value("${app.audit.writer.batch-size:500}") int batchSize,
+                       @Value("${app.audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+                       @Value("${app.audit.writer.offer-timeout-ms:50}") long offerTimeoutMillis,
+                       @Value("${app.audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Caller-thread writes happen in afterCommit callbacks, where the finished transaction is still bound
+        // and would swallow the insert, so every batch gets a transaction of its own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.auditMessageRenderer = auditMessageRenderer;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Time to write one audit batch")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.events.written").register(meterRegistry);
+        this.callerWriteCounter = Counter.builder("audit.writer.events.caller.written")
+                .description("Events written on the caller thread because the queue was full or the writer stopped")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.events.failed").register(meterRegistry);
+    }
+
+    public void submit(AuditEvent event) {
+        if (running) {
+            try {
+                if (queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        callerWriteCounter.increment();
+        flush(List.of(event));
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Audit writer did not drain within {} ms, {} events left", shutdownTimeoutMillis, queue.size());
+            return;
+        }
+        // Events offered just as the worker exited
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server (higher phase) so requests still in flight can enqueue, and before the DataSource closes
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits for a first event, then keeps taking events until the batch is full or the flush interval has passed
+    private void collect(List<AuditEvent> batch) throws InterruptedException {
+        AuditEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    Map<AuditEvent, String> searchTexts = auditMessageRenderer.messagesOf(batch);
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                        ps.setString(1, event.action().name());
+                        ps.setString(2, event.entityType().name());
+                        ps.setObject(3, event.entityId(), Types.BIGINT);
+                        ps.setObject(4, event.parentId(), Types.BIGINT);
+                        ps.setString(5, event.payload());
+                        ps.setString(6, event.performedBy());
+                        ps.setTimestamp(7, Timestamp.valueOf(event.dateTriggered()));
+                        ps.setString(8, truncate(searchTexts.get(event)));
+                    });
+                }));
+                writtenCounter.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Audit batch of {} failed (attempt {}/{}): {}", batch.size(), attempt, MAX_FLUSH_ATTEMPTS, e.getMessage());
+            }
+        }
+        // Keep the content in the application log so nothing is silently lost
+        failedCounter.increment(batch.size());
+        for (AuditEvent event : batch) {
+            log.error("Unwritten audit event: {}", event);
+        }
+    }
+
+    private static String truncate(String text) {
+        return text.length() > AuditTrail.SEARCH_TEXT_LENGTH ? text.substring(0, AuditTrail.SEARCH_TEXT_LENGTH) : text;
+    }
+}
@@ -0,0 +1,37 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.utils.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-employee change counters behind the calendar feed's ETag. MeetingService bumps the counter of every
+ * employee a meeting change touches once the change has committed, so a feed is never cached under a
+ * version that predates its data; comparing ETags needs no database access.
+ *
+ * Counters live in memory, so the ETag also carries the moment this instance started: after a restart,
+ * or on another instance, every ETag differs and clients simply download their feed once more.
+ */
+@Component
+public class CalendarVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public void changed(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = Set.copyOf(employeeIds);
+        TransactionUtils.afterCommit(() -> changed.forEach(id -> versions.merge(id, 1L, Long::sum)));
+    }
+
+    // Quoted strong ETag for the employee's feed
+    public String eTagOf(Long employeeId) {
+        return "\"" + epoch + "-" + versions.getOrDefault(employeeId, 0L) + "\"";
+    }
+}
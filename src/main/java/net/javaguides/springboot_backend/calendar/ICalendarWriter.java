@@ -0,0 +1,104 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes meetings as an RFC 5545 VCALENDAR, one VEVENT at a time, so a feed never holds more than the
+ * event being written. Times are floating (no TZID) because meetings are stored in the organisation's
+ * local time; a recurring series is one VEVENT with its RRULE and cancelled occurrences as EXDATEs.
+ */
+public class ICalendarWriter {
+
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    // Content lines are folded at 75 octets (RFC 5545 section 3.1)
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+
+    public ICalendarWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void begin(String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Springboot Backend//Meetings//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    public void event(Meeting meeting) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:meeting-" + meeting.getId() + "@springboot-backend");
+        // Stable across downloads, so an unchanged calendar serialises to the same bytes
+        line("DTSTAMP:" + UTC_DATE_TIME.format(meeting.getCreatedAt().atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)));
+        line("DTSTART:" + LOCAL_DATE_TIME.format(MeetingTimes.startOf(meeting)));
+        line("DTEND:" + LOCAL_DATE_TIME.format(MeetingTimes.endOf(meeting)));
+        line("SUMMARY:" + escape(meeting.getTitle()));
+        if (meeting.getNotes() != null && !meeting.getNotes().isBlank()) {
+            line("DESCRIPTION:" + escape(meeting.getNotes()));
+        }
+        if (MeetingOccurrences.isRecurring(meeting)) {
+            line("RRULE:" + RecurrenceRule.parse(meeting.getRecurrenceRule()).toICalendar());
+            for (LocalDate date : MeetingOccurrences.exceptionsOf(meeting).stream().sorted().toList()) {
+                line("EXDATE:" + LOCAL_DATE_TIME.format(LocalDateTime.of(date, meeting.getMeetingTime())));
+            }
+        }
+        line("STATUS:" + (meeting.getStatus() == MeetingStatus.CANCELLED ? "CANCELLED" : "CONFIRMED"));
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    // Pushes what has been written so far to the client
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // TEXT values escape backslashes, separators and line breaks (RFC 5545 section 3.3.11)
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    // Writes a content line, folding it without splitting a UTF-8 sequence
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                // The leading space of a continuation line counts towards its length
+                octets = 1;
+            }
+            out.write(content, i, Character.charCount(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,425 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.payload.MeetingConflict;
+import net.javaguides.springboot_backend.repositories.MeetingRepository;
+import net.javaguides.springboot_backend.repositories.MeetingRepository.InviteeBooking;
+import net.javaguides.springboot_backend.utils.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who is booked when, for the double-booking check on meeting create and update. Each employee has the
+ * [start, end) intervals of the meetings they are invited to in a set sorted by start, together with the
+ * longest of those intervals. Only an interval starting within that length before the requested start can
+ * reach into it, so an overlap query is one range scan from (start - longest) to end: O(log n) plus the
+ * handful of meetings in that window, rather than loading the employee's whole calendar.
+ *
+ * Each employee also has, per day, a bitmap of the quarter hours they are busy (see {@link SlotBitmap}), so
+ * finding a time when several employees are all free is OR-ing their days and scanning for a run of zero bits.
+ * Adding a meeting sets its bits; removing one redraws the days it touched from the remaining intervals.
+ *
+ * A recurring series is held as its occurrences from today to horizon-days ahead, and the nightly reload
+ * moves that horizon along; occurrences further out are not checked. Cancelled meetings and meetings without
+ * invitees are not held. The index is loaded from meeting_invitees once the application is ready; a reload
+ * replaces it with the table as read, with the bookings and releases made while it was reading replayed on top.
+ * A booking takes effect as soon as it is made, so two requests racing for the same slot cannot both pass, and
+ * is undone if the transaction rolls back; releases take effect on commit.
+ */
+@Component
+public class MeetingConflictIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MeetingConflictIndex.class);
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private static final Comparator<Slot> BY_START = Comparator.comparingLong(Slot::start)
+            .thenComparingLong(Slot::meetingId);
+
+    // Enough to show the user what is in the way, without listing every clash of two long series
+    private static final int MAX_REPORTED_CONFLICTS = 100;
+
+    private final MeetingRepository meetingRepository;
+    private final int horizonDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Booking> bookings = new HashMap<>();
+    private Map<Long, Schedule> schedules = new HashMap<>();
+    // Changes made while a reload is reading the table, replayed onto the reloaded bookings
+    private List<Runnable> changesDuringReload;
+
+    public MeetingConflictIndex(MeetingRepository meetingRepository,
+                                @Value("${app.meetings.recurrence.horizon-days:180}") int horizonDays) {
+        this.meetingRepository = meetingRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    private record Booking(Long meetingId, String title, List<Slot> slots, Set<Long> employeeIds) {
+    }
+
+    // Times as minutes on the local time line; only their order matters
+    private record Slot(long start, long end, long meetingId) {
+    }
+
+    private static class Schedule {
+        final NavigableSet<Slot> slots = new TreeSet<>(BY_START);
+        // Never shrinks, which only widens later scans a little
+        long longest;
+        // Busy quarter hours by epoch day, for availability searches; see SlotBitmap
+        final Map<Long, long[]> days = new HashMap<>();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // Nightly, so recurring series stay booked horizon-days ahead
+    @Scheduled(cron = "${app.meetings.recurrence.reload-cron:0 10 0 * * *}")
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Booking> loaded = new HashMap<>();
+        try {
+            loadBookings(loaded);
+        } catch (RuntimeException e) {
+            log.warn("Meeting conflict index reload failed, keeping the current index: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            bookings = new HashMap<>();
+            schedules = new HashMap<>();
+            loaded.values().forEach(this::add);
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Meeting conflict index loaded with {} meetings", loaded.size());
+    }
+
+    private void loadBookings(Map<Long, Booking> loaded) {
+        for (InviteeBooking row : meetingRepository.findInviteeBookings()) {
+            Booking booking = loaded.get(row.getMeetingId());
+            if (booking == null) {
+                Meeting meeting = Meeting.builder()
+                        .id(row.getMeetingId())
+                        .meetingDate(row.getMeetingDate())
+                        .meetingTime(row.getMeetingTime())
+                        .durationMinutes(row.getDurationMinutes())
+                        .recurrenceRule(row.getRecurrenceRule())
+                        .recurrenceEnd(row.getRecurrenceEnd())
+                        .recurrenceExceptions(row.getRecurrenceExceptions())
+                        .build();
+                booking = new Booking(row.getMeetingId(), row.getTitle(), slotsOf(meeting), new LinkedHashSet<>());
+                loaded.put(row.getMeetingId(), booking);
+            }
+            booking.employeeIds().add(row.getEmployeeId());
+        }
+    }
+
+    // The invitees' meetings overlapping the meeting (any occurrence within the horizon), other than itself
+    public List<MeetingConflict> findConflicts(Meeting meeting, Collection<Long> employeeIds) {
+        List<Slot> slots = slotsOf(meeting);
+        lock.readLock().lock();
+        try {
+            return conflicts(employeeIds, slots, meeting.getId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Start of the first block of {@code durationMinutes} within [from, to) when none of the employees is
+     * booked, looking only between earliest and latest on each day (latest null meaning midnight), or null.
+     * Works in whole quarter hours: meetings block every quarter hour they touch, and the answer starts on
+     * one. A block does not run past midnight.
+     */
+    public LocalDateTime findCommonFreeSlot(Collection<Long> employeeIds, LocalDateTime from, LocalDateTime to,
+                                            int durationMinutes, LocalTime earliest, LocalTime latest) {
+        int length = (int) ceilDiv(durationMinutes, SlotBitmap.SLOT_MINUTES);
+        int dayFrom = (int) ceilDiv(earliest.toSecondOfDay() / 60, SlotBitmap.SLOT_MINUTES);
+        int dayTo = latest == null ? SlotBitmap.SLOTS_PER_DAY : latest.toSecondOfDay() / 60 / SlotBitmap.SLOT_MINUTES;
+
+        lock.readLock().lock();
+        try {
+            for (LocalDate date = from.toLocalDate(); !date.isAfter(to.toLocalDate()); date = date.plusDays(1)) {
+                int windowFrom = dayFrom;
+                int windowTo = dayTo;
+                if (date.equals(from.toLocalDate())) {
+                    windowFrom = Math.max(windowFrom, (int) ceilDiv(from.toLocalTime().toSecondOfDay(), SlotBitmap.SLOT_MINUTES * 60));
+                }
+                if (date.equals(to.toLocalDate())) {
+                    windowTo = Math.min(windowTo, to.toLocalTime().toSecondOfDay() / 60 / SlotBitmap.SLOT_MINUTES);
+                }
+                if (windowTo - windowFrom < length) {
+                    continue;
+                }
+
+                long[] busy = SlotBitmap.empty();
+                SlotBitmap.set(busy, 0, windowFrom);
+                SlotBitmap.set(busy, windowTo, SlotBitmap.SLOTS_PER_DAY);
+                long day = date.toEpochDay();
+                for (Long employeeId : employeeIds) {
+                    Schedule schedule = schedules.get(employeeId);
+                    long[] booked = schedule == null ? null : schedule.days.get(day);
+                    if (booked != null) {
+                        SlotBitmap.or(busy, booked);
+                    }
+                }
+                int slot = SlotBitmap.firstFreeRun(busy, length);
+                if (slot >= 0) {
+                    return date.atStartOfDay().plusMinutes((long) slot * SlotBitmap.SLOT_MINUTES);
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books the invitees for the meeting's time (every occurrence within the horizon), replacing its previous
+     * booking, unless some of them are already booked then and conflicts are not allowed. Returns the conflicts
+     * either way; nothing is booked when they are returned and not allowed.
+     */
+    public List<MeetingConflict> book(Meeting meeting, Collection<Long> employeeIds, boolean allowConflicts) {
+        Long meetingId = meeting.getId();
+        Booking booking = new Booking(meetingId, meeting.getTitle(), slotsOf(meeting), new LinkedHashSet<>(employeeIds));
+        lock.writeLock().lock();
+        try {
+            List<MeetingConflict> conflicts = conflicts(booking.employeeIds(), booking.slots(), meetingId);
+            if (!conflicts.isEmpty() && !allowConflicts) {
+                return conflicts;
+            }
+            Booking previous = bookings.get(meetingId);
+            apply(() -> {
+                remove(meetingId);
+                add(booking);
+            });
+            TransactionUtils.afterRollback(() -> restore(meetingId, previous));
+            return conflicts;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Frees the meeting's slots once the surrounding transaction commits
+    public void release(Long meetingId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(() -> remove(meetingId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Drops deleted employees from every meeting, once the surrounding transaction commits
+    public void removeEmployees(Collection<Long> employeeIds) {
+        Set<Long> removed = Set.copyOf(employeeIds);
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(() -> {
+                    for (Long employeeId : removed) {
+                        Schedule schedule = schedules.remove(employeeId);
+                        if (schedule != null) {
+                            schedule.slots.forEach(slot -> bookings.get(slot.meetingId()).employeeIds().remove(employeeId));
+                        }
+                    }
+                    bookings.values().removeIf(booking -> booking.employeeIds().isEmpty());
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void restore(Long meetingId, Booking previous) {
+        lock.writeLock().lock();
+        try {
+            apply(() -> {
+                remove(meetingId);
+                if (previous != null) {
+                    add(previous);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Makes a change under the write lock; while a reload is reading the table, it is made again on the reloaded bookings
+    private void apply(Runnable change) {
+        change.run();
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+    }
+
+    private List<MeetingConflict> conflicts(Collection<Long> employeeIds, List<Slot> requested, Long meetingId) {
+        Set<MeetingConflict> conflicts = new LinkedHashSet<>();
+        for (Long employeeId : employeeIds) {
+            Schedule schedule = schedules.get(employeeId);
+            if (schedule == null) {
+                continue;
+            }
+            for (Slot wanted : requested) {
+                for (Slot slot : overlapping(schedule, wanted.start(), wanted.end())) {
+                    if (Long.valueOf(slot.meetingId()).equals(meetingId)) {
+                        continue;
+                    }
+                    conflicts.add(new MeetingConflict(employeeId, slot.meetingId(), bookings.get(slot.meetingId()).title(),
+                            MeetingTimes.fromMinutes(slot.start()), MeetingTimes.fromMinutes(slot.end())));
+                    if (conflicts.size() == MAX_REPORTED_CONFLICTS) {
+                        return new ArrayList<>(conflicts);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(conflicts);
+    }
+
+    private void add(Booking booking) {
+        if (booking.employeeIds().isEmpty() || booking.slots().isEmpty()) {
+            return;
+        }
+        bookings.put(booking.meetingId(), booking);
+        for (Long employeeId : booking.employeeIds()) {
+            Schedule schedule = schedules.computeIfAbsent(employeeId, id -> new Schedule());
+            for (Slot slot : booking.slots()) {
+                schedule.slots.add(slot);
+                schedule.longest = Math.max(schedule.longest, slot.end() - slot.start());
+                for (long day = firstDay(slot); day <= lastDay(slot); day++) {
+                    markDay(schedule, slot, day);
+                }
+            }
+        }
+    }
+
+    private Booking remove(Long meetingId) {
+        Booking booking = bookings.remove(meetingId);
+        if (booking == null) {
+            return null;
+        }
+        for (Long employeeId : booking.employeeIds()) {
+            Schedule schedule = schedules.get(employeeId);
+            if (schedule == null) {
+                continue;
+            }
+            booking.slots().forEach(schedule.slots::remove);
+            if (schedule.slots.isEmpty()) {
+                schedules.remove(employeeId);
+                continue;
+            }
+            // Another meeting may share the freed slots, so the days are redrawn from what is left
+            for (Slot slot : booking.slots()) {
+                for (long day = firstDay(slot); day <= lastDay(slot); day++) {
+                    schedule.days.remove(day);
+                    long dayStart = day * MINUTES_PER_DAY;
+                    for (Slot other : overlapping(schedule, dayStart, dayStart + MINUTES_PER_DAY)) {
+                        markDay(schedule, other, day);
+                    }
+                }
+            }
+        }
+        return booking;
+    }
+
+    // A single meeting as it is; a series as its occurrences from today up to the horizon
+    private List<Slot> slotsOf(Meeting meeting) {
+        List<TimeRange> ranges;
+        if (MeetingOccurrences.isRecurring(meeting)) {
+            LocalDate today = LocalDate.now();
+            ranges = MeetingOccurrences.rangesOf(meeting, today, today.plusDays(horizonDays));
+        } else {
+            ranges = List.of(new TimeRange(MeetingTimes.startOf(meeting), MeetingTimes.endOf(meeting)));
+        }
+        // A meeting not saved yet has no id; 0 is never issued, so it matches nothing
+        long meetingId = meeting.getId() != null ? meeting.getId() : 0;
+        return ranges.stream()
+                .map(range -> new Slot(MeetingTimes.toMinutes(range.start()), MeetingTimes.toMinutes(range.end()), meetingId))
+                .toList();
+    }
+
+    // The schedule's slots overlapping [from, to), in minutes
+    private static List<Slot> overlapping(Schedule schedule, long from, long to) {
+        Slot low = new Slot(from - schedule.longest, 0, Long.MIN_VALUE);
+        Slot high = new Slot(to, 0, Long.MIN_VALUE);
+        List<Slot> overlapping = new ArrayList<>();
+        for (Slot slot : schedule.slots.subSet(low, true, high, false)) {
+            if (slot.end() > from) {
+                overlapping.add(slot);
+            }
+        }
+        return overlapping;
+    }
+
+    // Marks the quarter hours the slot touches on one day as busy
+    private static void markDay(Schedule schedule, Slot slot, long day) {
+        long dayStart = day * MINUTES_PER_DAY;
+        int from = (int) Math.max(0, Math.floorDiv(slot.start() - dayStart, SlotBitmap.SLOT_MINUTES));
+        int to = (int) Math.min(SlotBitmap.SLOTS_PER_DAY,
+                ceilDiv(slot.end() - dayStart, SlotBitmap.SLOT_MINUTES));
+        if (from < to) {
+            SlotBitmap.set(schedule.days.computeIfAbsent(day, d -> SlotBitmap.empty()), from, to);
+        }
+    }
+
+    private static long firstDay(Slot slot) {
+        return Math.floorDiv(slot.start(), MINUTES_PER_DAY);
+    }
+
+    private static long lastDay(Slot slot) {
+        return Math.floorDiv(slot.end() - 1, MINUTES_PER_DAY);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
@@ -0,0 +1,74 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expands recurring meetings into their occurrences, only within the window asked for. A series is one
+ * Meeting row; its occurrences are the dates it falls on, all sharing the series' id, time and duration.
+ * A single meeting has one occurrence, on its own date.
+ */
+public final class MeetingOccurrences {
+
+    private MeetingOccurrences() {
+    }
+
+    public static boolean isRecurring(Meeting meeting) {
+        return meeting.getRecurrenceRule() != null;
+    }
+
+    // Occurrence dates of a series within [from, to], generated as the stream is consumed
+    public static Stream<LocalDate> dates(Meeting meeting, LocalDate from, LocalDate to) {
+        if (!isRecurring(meeting)) {
+            LocalDate date = meeting.getMeetingDate();
+            return date.isBefore(from) || date.isAfter(to) ? Stream.empty() : Stream.of(date);
+        }
+        LocalDate last = meeting.getRecurrenceEnd() != null && meeting.getRecurrenceEnd().isBefore(to)
+                ? meeting.getRecurrenceEnd() : to;
+        Set<LocalDate> exceptions = exceptionsOf(meeting);
+        Iterator<LocalDate> occurrences = RecurrenceRule.parse(meeting.getRecurrenceRule())
+                .occurrences(meeting.getMeetingDate(), from);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(occurrences, Spliterator.ORDERED), false)
+                .takeWhile(date -> !date.isAfter(last))
+                .filter(date -> !exceptions.contains(date));
+    }
+
+    public static boolean isOccurrence(Meeting meeting, LocalDate date) {
+        return dates(meeting, date, date).findAny().isPresent();
+    }
+
+    // [start, end) of every occurrence within [from, to]
+    public static List<TimeRange> rangesOf(Meeting meeting, LocalDate from, LocalDate to) {
+        long minutes = MeetingTimes.durationOf(meeting.getDurationMinutes());
+        return dates(meeting, from, to)
+                .map(date -> date.atTime(meeting.getMeetingTime()))
+                .map(start -> new TimeRange(start, start.plusMinutes(minutes)))
+                .toList();
+    }
+
+    public static Set<LocalDate> exceptionsOf(Meeting meeting) {
+        String exceptions = meeting.getRecurrenceExceptions();
+        if (exceptions == null || exceptions.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(exceptions.split(",")).map(String::trim).map(LocalDate::parse).collect(Collectors.toSet());
+    }
+
+    // The exception list with the date added, kept sorted
+    public static String withException(Meeting meeting, LocalDate date) {
+        Set<LocalDate> exceptions = new TreeSet<>(exceptionsOf(meeting));
+        exceptions.add(date);
+        return exceptions.stream().map(LocalDate::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,35 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.entity.Meeting;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Start and end of meetings; times are local to the organisation, as stored
+public final class MeetingTimes {
+
+    private MeetingTimes() {
+    }
+
+    public static int durationOf(Integer durationMinutes) {
+        return durationMinutes != null ? durationMinutes : AppConstants.DEFAULT_MEETING_DURATION_MINUTES;
+    }
+
+    public static LocalDateTime startOf(Meeting meeting) {
+        return LocalDateTime.of(meeting.getMeetingDate(), meeting.getMeetingTime());
+    }
+
+    public static LocalDateTime endOf(Meeting meeting) {
+        return startOf(meeting).plusMinutes(durationOf(meeting.getDurationMinutes()));
+    }
+
+    // Minutes on the local time line, for ordering and overlap arithmetic
+    static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
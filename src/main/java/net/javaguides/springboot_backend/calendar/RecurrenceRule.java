@@ -0,0 +1,313 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.config.AppConstants;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The subset of iCalendar RRULE that meetings support: FREQ=DAILY, WEEKLY or MONTHLY, INTERVAL, COUNT or
+ * UNTIL (a date, or the date part of a date-time), and BYDAY=MO,TU,... for weekly rules. Weeks start on
+ * Monday, a monthly rule repeats on the series' day of month and skips months that lack it, as RFC 5545 does.
+ *
+ * Occurrences are generated lazily from any date onwards: the iterator jumps straight to the period that
+ * contains that date, so listing a window far into a series costs the same as listing its first week.
+ */
+public final class RecurrenceRule {
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+    // Weekly rules only; empty means the weekday the series starts on
+    private final Set<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until, Set<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    // Parses a rule such as "FREQ=WEEKLY;BYDAY=MO,WE;COUNT=10"; anything outside the subset is rejected
+    public static RecurrenceRule parse(String rule) {
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+
+        String text = rule.trim().toUpperCase(Locale.ROOT);
+        if (text.startsWith("RRULE:")) {
+            text = text.substring("RRULE:".length());
+        }
+        for (String part : text.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, equals);
+            String value = part.substring(equals + 1);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = frequencyOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+                    case "BYDAY" -> {
+                        for (String day : value.split(",")) {
+                            byDay.add(dayOf(day));
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ=DAILY, WEEKLY or MONTHLY");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Recurrence INTERVAL must be at least 1");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("Recurrence rule cannot have both COUNT and UNTIL");
+        }
+        if (count != null && (count < 1 || count > AppConstants.MAX_RECURRENCE_COUNT)) {
+            throw new IllegalArgumentException("Recurrence COUNT must be between 1 and " + AppConstants.MAX_RECURRENCE_COUNT);
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported on weekly rules");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDay);
+    }
+
+    // Whether the series ends, through COUNT or UNTIL
+    public boolean isBounded() {
+        return count != null || until != null;
+    }
+
+    /**
+     * Date of the series' last occurrence, or null if it never ends. A COUNT rule is walked once, which
+     * is bounded by MAX_RECURRENCE_COUNT; storing the result lets range queries skip finished series.
+     */
+    public LocalDate lastOccurrence(LocalDate start) {
+        if (count == null) {
+            if (until == null) {
+                return null;
+            }
+            LocalDate last = null;
+            Iterator<LocalDate> occurrences = occurrences(start, until.minus(lookBack()));
+            while (occurrences.hasNext()) {
+                last = occurrences.next();
+            }
+            return last;
+        }
+        Iterator<LocalDate> occurrences = occurrences(start, start);
+        LocalDate last = null;
+        for (int i = 0; i < count && occurrences.hasNext(); i++) {
+            last = occurrences.next();
+        }
+        return last;
+    }
+
+    /**
+     * Occurrence dates on or after {@code from}, in order, for a series whose first occurrence is on or
+     * after {@code start}. Ends at UNTIL; a COUNT is not applied here, callers bound the series by
+     * {@link #lastOccurrence} instead.
+     */
+    public Iterator<LocalDate> occurrences(LocalDate start, LocalDate from) {
+        LocalDate first = from.isAfter(start) ? from : start;
+        return switch (frequency) {
+            case DAILY -> new DailyIterator(start, first);
+            case WEEKLY -> new WeeklyIterator(start, first);
+            case MONTHLY -> new MonthlyIterator(start, first);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return format("");
+    }
+
+    /**
+     * The rule as an RRULE value for a series that starts at a (floating) date-time: RFC 5545 wants UNTIL
+     * to have the same value type as DTSTART, so the UNTIL date becomes the last second of that day.
+     */
+    public String toICalendar() {
+        return format("T235959");
+    }
+
+    private String format(String untilTime) {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(String.join(",", byDay.stream().map(RecurrenceRule::codeOf).toList()));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_FORMAT)).append(untilTime);
+        }
+        return rule.toString();
+    }
+
+    // How far before UNTIL the last occurrence can be: a monthly rule on the 31st can skip months
+    private Period lookBack() {
+        return switch (frequency) {
+            case DAILY -> Period.ofDays(interval);
+            case WEEKLY -> Period.ofWeeks(interval + 1);
+            case MONTHLY -> Period.ofMonths(12 * interval);
+        };
+    }
+
+    private static Frequency frequencyOf(String value) {
+        for (Frequency frequency : Frequency.values()) {
+            if (frequency.name().equals(value)) {
+                return frequency;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported recurrence FREQ: " + value);
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (codeOf(day).equals(code)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Invalid BYDAY value: " + code);
+    }
+
+    private static String codeOf(DayOfWeek day) {
+        return day.name().substring(0, 2);
+    }
+
+    // Yields candidates from the skipped-to period onwards, dropping those before from and stopping after UNTIL
+    private abstract class OccurrenceIterator implements Iterator<LocalDate> {
+        private final LocalDate from;
+        private LocalDate next;
+
+        OccurrenceIterator(LocalDate from) {
+            this.from = from;
+        }
+
+        abstract LocalDate nextCandidate();
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                LocalDate candidate = nextCandidate();
+                if (until != null && candidate.isAfter(until)) {
+                    return false;
+                }
+                if (!candidate.isBefore(from)) {
+                    next = candidate;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public LocalDate next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LocalDate result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private class DailyIterator extends OccurrenceIterator {
+        private LocalDate date;
+
+        DailyIterator(LocalDate start, LocalDate from) {
+            super(from);
+            long periods = ChronoUnit.DAYS.between(start, from) / interval;
+            this.date = start.plusDays(periods * interval);
+        }
+
+        @Override
+        LocalDate nextCandidate() {
+            LocalDate candidate = date;
+            date = date.plusDays(interval);
+            return candidate;
+        }
+    }
+
+    private class WeeklyIterator extends OccurrenceIterator {
+        private final LocalDate start;
+        private final DayOfWeek[] days;
+        private LocalDate weekStart;
+        private int dayIndex;
+
+        WeeklyIterator(LocalDate start, LocalDate from) {
+            super(from);
+            this.start = start;
+            this.days = (byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay).toArray(new DayOfWeek[0]);
+            LocalDate firstWeek = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            long periods = ChronoUnit.WEEKS.between(firstWeek, from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))) / interval;
+            this.weekStart = firstWeek.plusWeeks(periods * interval);
+        }
+
+        @Override
+        LocalDate nextCandidate() {
+            while (true) {
+                if (dayIndex == days.length) {
+                    dayIndex = 0;
+                    weekStart = weekStart.plusWeeks(interval);
+                }
+                LocalDate candidate = weekStart.plusDays(days[dayIndex++].ordinal());
+                // The series' first week can have listed days before its start
+                if (!candidate.isBefore(start)) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    private class MonthlyIterator extends OccurrenceIterator {
+        private final int dayOfMonth;
+        private YearMonth month;
+
+        MonthlyIterator(LocalDate start, LocalDate from) {
+            super(from);
+            this.dayOfMonth = start.getDayOfMonth();
+            YearMonth firstMonth = YearMonth.from(start);
+            long periods = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(from)) / interval;
+            this.month = firstMonth.plusMonths(periods * interval);
+        }
+
+        @Override
+        LocalDate nextCandidate() {
+            while (!month.isValidDay(dayOfMonth)) {
+                month = month.plusMonths(interval);
+            }
+            LocalDate candidate = month.atDay(dayOfMonth);
+            month = month.plusMonths(interval);
+            return candidate;
+        }
+    }
+}
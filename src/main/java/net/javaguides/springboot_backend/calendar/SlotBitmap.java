@@ -0,0 +1,69 @@
+package net.javaguides.springboot_backend.calendar;
+
+/**
+ * A day as 96 quarter-hour slots in a long[2]: bit i of word 0 is slot i (00:00 + 15 * i minutes) for
+ * i < 64, and bit i - 64 of word 1 for the rest. Set bits are busy. Bits 96 to 127 are never set.
+ */
+public final class SlotBitmap {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final long HIGH_WORD_MASK = (1L << (SLOTS_PER_DAY - 64)) - 1;
+
+    private SlotBitmap() {
+    }
+
+    public static long[] empty() {
+        return new long[2];
+    }
+
+    // Marks slots [from, to) of the day busy
+    public static void set(long[] day, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        day[0] |= range(from, Math.min(to, 64));
+        day[1] |= range(Math.max(from, 64) - 64, to - 64);
+    }
+
+    public static void or(long[] into, long[] day) {
+        into[0] |= day[0];
+        into[1] |= day[1];
+    }
+
+    /**
+     * First slot from which {@code length} consecutive slots are free, or -1. Folds the free bits onto
+     * themselves with doubling shifts, so bit i survives only if slots i .. i + length - 1 are all free:
+     * about log2(length) shift-and steps over the 128-bit word pair.
+     */
+    public static int firstFreeRun(long[] busy, int length) {
+        if (length <= 0 || length > SLOTS_PER_DAY) {
+            return -1;
+        }
+        long low = ~busy[0];
+        long high = ~busy[1] & HIGH_WORD_MASK;
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            long shiftedLow = shift < 64 ? (low >>> shift) | (high << (64 - shift)) : high >>> (shift - 64);
+            long shiftedHigh = shift < 64 ? high >>> shift : 0;
+            low &= shiftedLow;
+            high &= shiftedHigh;
+            covered += shift;
+        }
+        if (low != 0) {
+            return Long.numberOfTrailingZeros(low);
+        }
+        return high != 0 ? 64 + Long.numberOfTrailingZeros(high) : -1;
+    }
+
+    // Bits [from, to) of one word, for 0 <= from and to <= 64
+    private static long range(int from, int to) {
+        if (from >= to || to <= 0) {
+            return 0;
+        }
+        long upTo = to == 64 ? -1L : (1L << to) - 1;
+        return upTo & (-1L << from);
+    }
+}
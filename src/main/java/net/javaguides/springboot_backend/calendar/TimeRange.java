@@ -0,0 +1,7 @@
+package net.javaguides.springboot_backend.calendar;
+
+import java.time.LocalDateTime;
+
+// [start, end) of one meeting occurrence
+public record TimeRange(LocalDateTime start, LocalDateTime end) {
+}
@@ -33,6 +33,14 @@ public class AppConstants {
     public static final int DEFAULT_PROJECT_PROGRESS = 0;
     public static final int DEFAULT_TEAM_SIZE = 1;
     public static final int MAX_TEAM_SIZE = 1000;
+    public static final int MAX_BULK_DELETE_SIZE = 1000;
+    public static final int DEFAULT_MEETING_DURATION_MINUTES = 60;
+    public static final int MAX_MEETING_DURATION_MINUTES = 24 * 60;
+    public static final int MAX_AVAILABILITY_EMPLOYEES = 200;
+    public static final int MAX_AVAILABILITY_RANGE_DAYS = 62;
+    public static final int MAX_RECURRENCE_COUNT = 1000;
+    public static final int MAX_MEETING_RANGE_DAYS = 366;
+    public static final int CALENDAR_FEED_PAGE_SIZE = 200;
     public static final double MIN_SALARY = 0.0;
     public static final double MAX_SALARY = 1000000.0;
     
@@ -1,10 +1,21 @@
 package net.javaguides.springboot_backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot_backend.ratelimit.RateLimitFilter;
+import net.javaguides.springboot_backend.ratelimit.RateLimitProperties;
+import net.javaguides.springboot_backend.ratelimit.RateLimiter;
+import net.javaguides.springboot_backend.session.SessionAuthenticationFilter;
+import net.javaguides.springboot_backend.session.SessionStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
@@ -18,14 +29,31 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           SessionStore sessionStore,
+                                           ObjectMapper objectMapper,
+                                           RateLimiter rateLimiter,
+                                           RateLimitProperties rateLimitProperties,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.session.required:false}") boolean sessionRequired) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource)) // ✅ Correct injection
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/login", "/api/logout").permitAll()
+                // Metrics describe sessions, rate limits and traffic; only health is public
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").authenticated()
                 .anyRequest().permitAll()
             )
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            // X-Session-Id is checked against the in-memory session store; see SessionAuthenticationFilter
+            .addFilterBefore(new SessionAuthenticationFilter(sessionStore, objectMapper, sessionRequired),
+                    AnonymousAuthenticationFilter.class)
+            // Per-route token buckets; after the session filter so they can be keyed by the session's user
+            .addFilterAfter(new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper, meterRegistry),
+                    SessionAuthenticationFilter.class)
             .formLogin(form -> form.disable())
             .httpBasic(httpBasic -> httpBasic.disable());
 
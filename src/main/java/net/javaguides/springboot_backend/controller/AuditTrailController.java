@@ -1,13 +1,17 @@
 package net.javaguides.springboot_backend.controller;
 
+import net.javaguides.springboot_backend.audit.AuditExporter;
 import net.javaguides.springboot_backend.entity.AuditTrail;
 import net.javaguides.springboot_backend.payload.ApiResponse;
+import net.javaguides.springboot_backend.payload.CursorPage;
 import net.javaguides.springboot_backend.service.AuditService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/audit")
@@ -16,20 +20,56 @@ public class AuditTrailController {
     @Autowired
     private AuditService auditService;
 
-    // Get all audit logs
+    // Search audit logs, newest first; from/to are ISO date-times and to is exclusive
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AuditTrail>>> getAllAuditLogs() {
-        List<AuditTrail> auditLogs = auditService.getAllAuditLogs();
+    public ResponseEntity<ApiResponse<CursorPage<AuditTrail>>> getAllAuditLogs(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AuditTrail> auditLogs = auditService.searchAuditLogs(user, from, to, keyword, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Audit logs retrieved successfully", auditLogs));
     }
 
     // Get audit logs by user
     @GetMapping("/user/{username}")
-    public ResponseEntity<ApiResponse<List<AuditTrail>>> getAuditLogsByUser(@PathVariable String username) {
-        List<AuditTrail> auditLogs = auditService.getAuditLogsByUser(username);
+    public ResponseEntity<ApiResponse<CursorPage<AuditTrail>>> getAuditLogsByUser(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AuditTrail> auditLogs = auditService.searchAuditLogs(username, null, null, null, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Audit logs by user retrieved successfully", auditLogs));
     }
 
+    // History of one entity, newest first, e.g. /history/task/42 also lists the task's posts, comments and files
+    @GetMapping("/history/{entityType}/{entityId}")
+    public ResponseEntity<ApiResponse<CursorPage<AuditTrail>>> getEntityHistory(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AuditTrail> auditLogs = auditService.getEntityHistory(entityType, entityId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Audit history retrieved successfully", auditLogs));
+    }
+
+    // Stream the audit trail (archive included) as NDJSON or CSV, optionally gzip'd
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        AuditExporter.Format exportFormat = AuditExporter.Format.parse(format);
+        String fileName = "audit-trail." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .header("Content-Type", gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8")
+                .body(auditService.exportAuditLogs(user, from, to, exportFormat, gzip));
+    }
+
     // (Optional) Add a manual audit log
     @PostMapping
     public ResponseEntity<ApiResponse<AuditTrail>> addAuditLog(@RequestBody AuditTrail auditTrail) {
@@ -2,17 +2,26 @@ package net.javaguides.springboot_backend.controller;
 
 import net.javaguides.springboot_backend.entity.*;
 import net.javaguides.springboot_backend.payload.ApiResponse;
+import net.javaguides.springboot_backend.payload.CursorPage;
 import net.javaguides.springboot_backend.payload.DocumentResponse;
+import net.javaguides.springboot_backend.payload.EmployeeImportResult;
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
 import net.javaguides.springboot_backend.service.EmployeeService;
+import net.javaguides.springboot_backend.service.ProfileRenditionService;
+import net.javaguides.springboot_backend.service.ProfileRenditionService.Rendition;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
 
 @RestController
@@ -22,6 +31,9 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private ProfileRenditionService profileRenditionService;
+
 
     @GetMapping("/employees")
     public ResponseEntity<ApiResponse<List<Employee>>> fetchEmployees() {
@@ -29,6 +41,16 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.success("Employees retrieved successfully", employees));
     }
 
+    // Directory search by name, email, department or position, e.g. /api/employees/search?q=jon smi
+    @GetMapping("/employees/search")
+    public ResponseEntity<ApiResponse<CursorPage<EmployeeSearchResult>>> searchEmployees(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<EmployeeSearchResult> results = employeeService.searchEmployees(q, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Employees found", results));
+    }
+
     @GetMapping("/employee/{id}")
     public ResponseEntity<ApiResponse<Employee>> getEmployee(@PathVariable Long id ) {
         Employee employee = employeeService.getEmployeeById(id);
@@ -49,9 +71,9 @@ public class EmployeeController {
 
 
     @DeleteMapping("/deleteEmployee/{id}")
-    public ResponseEntity<ApiResponse<String>> deleteEmployee(@PathVariable Long id, @RequestParam String username, @RequestParam String employeeName) {
+    public ResponseEntity<ApiResponse<String>> deleteEmployee(@PathVariable Long id, @RequestParam String username) {
         try {
-            employeeService.deleteEmployee(id, username, employeeName);
+            employeeService.deleteEmployee(id, username);
             return ResponseEntity.ok(ApiResponse.success("Employee deleted successfully", null));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -62,17 +84,47 @@ public class EmployeeController {
         }
     }
 
+    // Delete several employees in one transaction, e.g. DELETE /api/employees?ids=3,7,9&username=admin
+    @DeleteMapping("/employees")
+    public ResponseEntity<ApiResponse<Integer>> deleteEmployees(@RequestParam List<Long> ids, @RequestParam String username) {
+        int deleted = employeeService.deleteEmployees(ids, username);
+        return ResponseEntity.ok(ApiResponse.success("Employees deleted successfully", deleted));
+    }
+
     @PutMapping("/updateEmployee/{id}")
     public ResponseEntity<ApiResponse<Employee>> updateEmployee(@PathVariable Long id, @RequestBody Employee employee, @RequestParam String username) {
         Employee updated = employeeService.updateEmployee(id, employee, username);
         return ResponseEntity.ok(ApiResponse.success("Employee updated successfully", updated));
     }
 
+    // Bulk onboarding from a CSV (with header line) or a JSON array; invalid rows are reported, the rest imported.
+    // A file malformed part way through still answers with the result, since the rows before it are committed.
+    @PostMapping("/employees/import")
+    public ResponseEntity<ApiResponse<EmployeeImportResult>> importEmployees(@RequestParam("file") MultipartFile file, @RequestParam String username) {
+        try {
+            EmployeeImportResult result = employeeService.importEmployees(file, username);
+            String message = "Imported " + result.getImported() + " of " + result.getTotalRows() + " employees";
+            if (result.getFileError() != null) {
+                message += "; the file could not be read to the end";
+            }
+            return ResponseEntity.ok(ApiResponse.success(message, result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Employee import failed: " + e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Employee import failed: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/employees/{id}/upload")
     public ResponseEntity<ApiResponse<String>> uploadDocument(@PathVariable Long id, @RequestParam("file") MultipartFile file, @RequestParam String username) {
         try {
             String result = employeeService.uploadDocument(id, file, username);
             return ResponseEntity.ok(ApiResponse.success(result, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("File upload failed: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("File upload failed: " + e.getMessage()));
@@ -86,13 +138,14 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.success("Documents retrieved successfully", documents));
     }
 
+    // Streams the stored file; Range requests are answered with 206 partial content
     @GetMapping("/documents/{documentId}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long documentId) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long documentId) {
         Document doc = employeeService.getDocumentById(documentId);
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"" + doc.getFileName() + "\"")
                 .header("Content-Type", doc.getFileType())
-                .body(doc.getData());
+                .body(employeeService.getDocumentContent(doc));
     }
 
     // Delete a document by its document id
@@ -108,12 +161,18 @@ public class EmployeeController {
     public ResponseEntity<ApiResponse<Map<String, String>>> uploadProfile(@PathVariable Long id, @RequestParam("profileImage") MultipartFile file) {
         try {
             
-            employeeService.uploadProfileImage(id,file);
+            ProfileEmployee profile = employeeService.uploadProfileImage(id,file);
+            String version = "?v=" + profile.getContentHash();
             Map<String, String> response = new HashMap<>();
             response.put("message", "Profile image uploaded successfully");
-            response.put("imageUrl", "/api/employees/" + id + "/profile-image");
+            response.put("imageUrl", "/api/employees/" + id + "/profile-image" + version);
+            // Size-specific URLs follow the same pattern for every size in ProfileRenditionService.RENDITION_SIZES
+            response.put("thumbnailUrl", "/api/employees/" + id + "/profile-image/128" + version);
             
             return ResponseEntity.ok(ApiResponse.success("Profile image uploaded successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Profile upload failed: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Profile upload failed: " + e.getMessage()));
@@ -122,18 +181,17 @@ public class EmployeeController {
 
     // Retrieve profile for a specific employee
     @GetMapping("/employees/{id}/profile-image")
-    public ResponseEntity<?> getProfileEmployee(@PathVariable Long id) {
+    public ResponseEntity<?> getProfileEmployee(@PathVariable Long id, @RequestParam(name = "v", required = false) String version) {
         try {
             ProfileEmployee profileEmployee = employeeService.getProfileImage(id);
-            if (profileEmployee == null || profileEmployee.getData() == null) {
+            if (profileEmployee == null || profileEmployee.getContentHash() == null) {
                 return ResponseEntity.ok().body(Map.of("imageUrl", null));
             }
 
             // Return the actual image data directly
-            return ResponseEntity.ok()
-                    .header("Content-Type", profileEmployee.getFileType())
-                    .header("Cache-Control", "public, max-age=31536000") // Cache for 1 year
-                    .body(profileEmployee.getData());
+            return imageResponse(profileEmployee.getContentHash(), profileEmployee.getFileType(),
+                    employeeService.getProfileImageContent(profileEmployee),
+                    profileEmployee.getContentHash().equals(version));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Employee not found"));
@@ -143,18 +201,46 @@ public class EmployeeController {
         }
     }
 
+    // Fixed-size rendition of the profile image (48, 128 or 512 px)
+    @GetMapping("/employees/{id}/profile-image/{size:\\d+}")
+    public ResponseEntity<Resource> getProfileImageRendition(@PathVariable Long id, @PathVariable int size,
+                                                             @RequestParam(name = "v", required = false) String version) {
+        ProfileEmployee profile = employeeService.getProfileImage(id);
+        if (profile == null || profile.getContentHash() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Rendition rendition = profileRenditionService.getRendition(profile, size);
+        // The original stands in until the rendition is ready, so only cache for good once it is
+        boolean immutable = rendition.resized() && profile.getContentHash().equals(version);
+        return imageResponse(rendition.contentHash(), rendition.contentType(), rendition.content(), immutable);
+    }
+
+    // Strong ETag from the content hash; a matching If-None-Match gets 304 without a body.
+    // URLs carrying the current ?v= version never change content and may be cached for a year.
+    private ResponseEntity<Resource> imageResponse(String contentHash, String contentType, Resource content, boolean immutable) {
+        CacheControl cacheControl = immutable
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        return ResponseEntity.ok()
+                .eTag(contentHash)
+                .cacheControl(cacheControl)
+                .header("Content-Type", contentType)
+                .body(content);
+    }
+
     // Download profile image
     @GetMapping("/employees/{id}/profile-image/download")
-    public ResponseEntity<byte[]> downloadProfileImage(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadProfileImage(@PathVariable Long id) {
         ProfileEmployee profile = employeeService.getProfileImage(id);
-        if (profile == null || profile.getData() == null) {
+        if (profile == null || profile.getContentHash() == null) {
             return ResponseEntity.notFound().build();
         }
 
         return ResponseEntity.ok()
                 .header("Content-Disposition", "inline; filename=\"" + profile.getFileName() + "\"")
                 .header("Content-Type", profile.getFileType())
-                .body(profile.getData());
+                .body(employeeService.getProfileImageContent(profile));
     }
 
     // Delete profile image
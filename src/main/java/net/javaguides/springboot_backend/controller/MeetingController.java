@@ -2,15 +2,23 @@ package net.javaguides.springboot_backend.controller;
 
 import net.javaguides.springboot_backend.entity.Meeting;
 import net.javaguides.springboot_backend.payload.ApiResponse;
+import net.javaguides.springboot_backend.payload.AvailabilityRequest;
+import net.javaguides.springboot_backend.payload.AvailabilitySlot;
+import net.javaguides.springboot_backend.payload.CursorPage;
 import net.javaguides.springboot_backend.payload.MeetingRequest;
+import net.javaguides.springboot_backend.payload.MeetingSummary;
 import net.javaguides.springboot_backend.service.MeetingService;
 import net.javaguides.springboot_backend.status.MeetingStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api")
@@ -19,24 +27,33 @@ public class MeetingController {
     @Autowired
     private MeetingService meetingService;
 
-    // Get all meetings
+    // Meetings and occurrences of recurring series in a date range, a page at a time
     @GetMapping("/meetings")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getAllMeetings() {
-        List<Meeting> meetings = meetingService.getAllMeetings();
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getMeetings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getMeetings(from, to, null, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Meetings retrieved successfully", meetings));
     }
 
     // Get upcoming meetings
     @GetMapping("/meetings/upcoming")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getUpcomingMeetings() {
-        List<Meeting> meetings = meetingService.getUpcomingMeetings();
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getUpcomingMeetings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getUpcomingMeetings(cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Upcoming meetings retrieved successfully", meetings));
     }
 
     // Get meetings by date
     @GetMapping("/meetings/date/{date}")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getMeetingsByDate(@PathVariable String date) {
-        List<Meeting> meetings = meetingService.getMeetingsByDate(date);
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getMeetingsByDate(
+            @PathVariable String date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getMeetingsByDate(date, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Meetings for date retrieved successfully", meetings));
     }
 
@@ -55,6 +72,14 @@ public class MeetingController {
                 .body(ApiResponse.success("Meeting created successfully", savedMeeting));
     }
 
+    // First time in a range when all the given employees are free
+    @PostMapping("/meetings/availability")
+    public ResponseEntity<ApiResponse<AvailabilitySlot>> findCommonAvailability(@RequestBody AvailabilityRequest availabilityRequest) {
+        AvailabilitySlot slot = meetingService.findCommonAvailability(availabilityRequest);
+        String message = slot != null ? "Common free time found" : "No common free time in the given range";
+        return ResponseEntity.ok(ApiResponse.success(message, slot));
+    }
+
     // Update meeting
     @PutMapping("/meetings/{id}")
     public ResponseEntity<ApiResponse<Meeting>> updateMeeting(@PathVariable Long id, @RequestBody MeetingRequest meetingRequest, @RequestParam String username) {
@@ -76,24 +101,62 @@ public class MeetingController {
         return ResponseEntity.ok(ApiResponse.success("Meeting deleted successfully", null));
     }
 
+    // Cancel one occurrence of a recurring meeting
+    @DeleteMapping("/meetings/{id}/occurrences/{date}")
+    public ResponseEntity<ApiResponse<Meeting>> cancelOccurrence(@PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @RequestParam String username) {
+        Meeting updatedMeeting = meetingService.cancelOccurrence(id, date, username);
+        return ResponseEntity.ok(ApiResponse.success("Meeting occurrence cancelled successfully", updatedMeeting));
+    }
+
     // Get meetings by creator
     @GetMapping("/meetings/created-by/{username}")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getMeetingsByCreator(@PathVariable String username) {
-        List<Meeting> meetings = meetingService.getMeetingsByCreator(username);
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getMeetingsByCreator(
+            @PathVariable String username,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getMeetingsByCreator(username, from, to, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Meetings by creator retrieved successfully", meetings));
     }
 
     // Get meetings by status
     @GetMapping("/meetings/status/{status}")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getMeetingsByStatus(@PathVariable MeetingStatus status) {
-        List<Meeting> meetings = meetingService.getMeetingsByStatus(status);
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getMeetingsByStatus(
+            @PathVariable MeetingStatus status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getMeetingsByStatus(status, from, to, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Meetings by status retrieved successfully", meetings));
     }
 
+    // iCalendar feed of the employee's meetings for calendar apps; an unchanged feed gets 304 without reading meetings
+    @GetMapping("/meetings/employee/{employeeId}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getCalendarFeed(@PathVariable Long employeeId, WebRequest request) {
+        String eTag = meetingService.getCalendarETag(employeeId);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .header("Content-Type", "text/calendar;charset=UTF-8")
+                .header("Content-Disposition", "inline; filename=\"meetings-" + employeeId + ".ics\"")
+                .body(meetingService.exportCalendar(employeeId));
+    }
+
     // Get meetings by employee ID
     @GetMapping("/meetings/employee/{employeeId}")
-    public ResponseEntity<ApiResponse<List<Meeting>>> getMeetingsByEmployeeId(@PathVariable Long employeeId) {
-        List<Meeting> meetings = meetingService.getMeetingsByEmployeeId(employeeId);
+    public ResponseEntity<ApiResponse<CursorPage<MeetingSummary>>> getMeetingsByEmployeeId(
+            @PathVariable Long employeeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MeetingSummary> meetings = meetingService.getMeetingsByEmployeeId(employeeId, from, to, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Meetings for employee retrieved successfully", meetings));
     }
 
@@ -0,0 +1,31 @@
+package net.javaguides.springboot_backend.controller;
+
+import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import net.javaguides.springboot_backend.reminder.SseReminderSink;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/reminders")
+public class ReminderController {
+
+    // Only present when app.reminders.sink=sse
+    @Autowired
+    private ObjectProvider<SseReminderSink> sseReminderSink;
+
+    // Server-sent meeting-reminder events for the employee's meetings
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReminders(@RequestParam Long employeeId) {
+        SseReminderSink sink = sseReminderSink.getIfAvailable();
+        if (sink == null) {
+            throw new ResourceNotFoundException("Reminder streaming is not enabled");
+        }
+        return sink.subscribe(employeeId);
+    }
+}
@@ -5,9 +5,14 @@ import net.javaguides.springboot_backend.entity.Task.TaskPriority;
 import net.javaguides.springboot_backend.entity.Task.TaskStatus;
 import net.javaguides.springboot_backend.entity.Task.TaskStage;
 import net.javaguides.springboot_backend.payload.ApiResponse;
+import net.javaguides.springboot_backend.payload.CursorPage;
+import net.javaguides.springboot_backend.payload.TaskFileResponse;
+import net.javaguides.springboot_backend.payload.TaskStatistics;
+import net.javaguides.springboot_backend.payload.TaskSummaryResponse;
 
 import net.javaguides.springboot_backend.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,7 +21,6 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 import java.util.Map;
 import net.javaguides.springboot_backend.entity.TaskFile;
-import net.javaguides.springboot_backend.repositories.TaskFileRepository;
 
 
 @RestController
@@ -26,27 +30,55 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     
-    @Autowired
-    private TaskFileRepository taskFileRepository;
-    
     // Get all tasks
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Task>>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getAllTasks(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
+    }
+    
+    // Get tasks assigned to a person across all projects
+    @GetMapping("/assigned/{assignedTo}")
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByAssignedTo(
+            @PathVariable String assignedTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByAssignedTo(assignedTo, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
+    // Get overdue tasks across all projects
+    @GetMapping("/overdue")
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getOverdueTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getOverdueTasks(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Overdue tasks retrieved successfully", tasks));
+    }
+    
     // Get task by ID
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Task>> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<TaskSummaryResponse>> getTaskById(@PathVariable Long id) {
+        TaskSummaryResponse task = taskService.getTaskSummaryById(id);
+        return ResponseEntity.ok(ApiResponse.success("Task retrieved successfully", task));
+    }
+    
+    // Get task by ID with its files, posts and comments expanded
+    @GetMapping("/{id}/expanded")
+    public ResponseEntity<ApiResponse<Task>> getExpandedTaskById(@PathVariable Long id) {
         Task task = taskService.getTaskById(id);
         return ResponseEntity.ok(ApiResponse.success("Task retrieved successfully", task));
     }
     
     // Get all tasks by project ID
     @GetMapping("/project/{projectId}/all")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksByProjectId(@PathVariable Long projectId) {
-        List<Task> tasks = taskService.getTasksByProjectId(projectId);
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByProjectId(projectId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
@@ -74,58 +106,72 @@ public class TaskController {
     
     // Get tasks by status for a project
     @GetMapping("/project/{projectId}/status/{status}")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksByProjectIdAndStatus(
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByProjectIdAndStatus(
             @PathVariable Long projectId, 
-            @PathVariable TaskStatus status) {
-        List<Task> tasks = taskService.getTasksByProjectIdAndStatus(projectId, status);
+            @PathVariable TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByProjectIdAndStatus(projectId, status, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
     // Get tasks by priority for a project
     @GetMapping("/project/{projectId}/priority/{priority}")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksByProjectIdAndPriority(
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByProjectIdAndPriority(
             @PathVariable Long projectId, 
-            @PathVariable TaskPriority priority) {
-        List<Task> tasks = taskService.getTasksByProjectIdAndPriority(projectId, priority);
+            @PathVariable TaskPriority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByProjectIdAndPriority(projectId, priority, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
     // Get tasks by stage for a project
     @GetMapping("/project/{projectId}/stage/{stage}")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksByProjectIdAndStage(
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByProjectIdAndStage(
             @PathVariable Long projectId, 
-            @PathVariable TaskStage stage) {
-        List<Task> tasks = taskService.getTasksByProjectIdAndStage(projectId, stage);
+            @PathVariable TaskStage stage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByProjectIdAndStage(projectId, stage, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
     // Get tasks by assigned person for a project
     @GetMapping("/project/{projectId}/assigned/{assignedTo}")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksByProjectIdAndAssignedTo(
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksByProjectIdAndAssignedTo(
             @PathVariable Long projectId, 
-            @PathVariable String assignedTo) {
-        List<Task> tasks = taskService.getTasksByProjectIdAndAssignedTo(projectId, assignedTo);
+            @PathVariable String assignedTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksByProjectIdAndAssignedTo(projectId, assignedTo, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
     
     // Get overdue tasks for a project
     @GetMapping("/project/{projectId}/overdue")
-    public ResponseEntity<ApiResponse<List<Task>>> getOverdueTasksByProjectId(@PathVariable Long projectId) {
-        List<Task> tasks = taskService.getOverdueTasksByProjectId(projectId);
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getOverdueTasksByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getOverdueTasksByProjectId(projectId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Overdue tasks retrieved successfully", tasks));
     }
     
     // Get tasks due soon for a project
     @GetMapping("/project/{projectId}/due-soon")
-    public ResponseEntity<ApiResponse<List<Task>>> getTasksDueSoonByProjectId(@PathVariable Long projectId) {
-        List<Task> tasks = taskService.getTasksDueSoonByProjectId(projectId);
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryResponse>>> getTasksDueSoonByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskSummaryResponse> tasks = taskService.getTasksDueSoonByProjectId(projectId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success("Tasks due soon retrieved successfully", tasks));
     }
     
     // Get task statistics for a project
     @GetMapping("/project/{projectId}/statistics")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getTaskStatisticsByProjectId(@PathVariable Long projectId) {
-        Map<String, Object> statistics = taskService.getTaskStatisticsByProjectId(projectId);
+    public ResponseEntity<ApiResponse<TaskStatistics>> getTaskStatisticsByProjectId(@PathVariable Long projectId) {
+        TaskStatistics statistics = taskService.getTaskStatisticsByProjectId(projectId);
         return ResponseEntity.ok(ApiResponse.success("Task statistics retrieved successfully", statistics));
     }
     
@@ -207,6 +253,9 @@ public class TaskController {
         try {
             String result = taskService.uploadTaskFile(id, file, username);
             return ResponseEntity.ok(ApiResponse.success(result, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("File upload failed: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("File upload failed: " + e.getMessage()));
@@ -214,18 +263,19 @@ public class TaskController {
     }
 
     @GetMapping("/{id}/files")
-    public ResponseEntity<ApiResponse<List<TaskFile>>> getTaskFiles(@PathVariable Long id) {
-        List<TaskFile> files = taskFileRepository.findByTask_Id(id);
+    public ResponseEntity<ApiResponse<List<TaskFileResponse>>> getTaskFiles(@PathVariable Long id) {
+        List<TaskFileResponse> files = taskService.getTaskFileResponses(id);
         return ResponseEntity.ok(ApiResponse.success("Files retrieved successfully", files));
     }
 
+    // Streams the stored file; Range requests are answered with 206 partial content
     @GetMapping("/files/{fileId}/download")
-    public ResponseEntity<byte[]> downloadTaskFile(@PathVariable Long fileId) {
+    public ResponseEntity<Resource> downloadTaskFile(@PathVariable Long fileId) {
         TaskFile file = taskService.getTaskFileById(fileId);
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"")
                 .header("Content-Type", file.getFileType())
-                .body(file.getData());
+                .body(taskService.getTaskFileContent(file));
     }
 
     @DeleteMapping("/files/{fileId}")
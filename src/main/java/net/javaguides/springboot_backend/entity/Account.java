@@ -31,4 +31,7 @@ public class Account {
     private LocalDateTime lastLogin;
 
     private boolean authenticated;
+
+    // Last request seen on the current session, written behind by SessionStore so sessions survive a restart
+    private LocalDateTime sessionLastAccess;
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package net.javaguides.springboot_backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 
 @Getter
 @Setter
@@ -11,15 +15,84 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "audit_trail")
+@Table(name = "audit_trail", indexes = {
+        @Index(name = "idx_audit_performed_by_date", columnList = "performed_by, date_triggered, id"),
+        @Index(name = "idx_audit_date", columnList = "date_triggered, id"),
+        @Index(name = "idx_audit_entity_date", columnList = "entity_type, entity_id, date_triggered, id"),
+        @Index(name = "idx_audit_parent_date", columnList = "parent_id, entity_type, date_triggered, id")
+})
 public class AuditTrail {
+    public static final int SEARCH_TEXT_LENGTH = 512;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Set as stored for rows written before structured events; rendered from the columns below on read otherwise
     private String actionMessage;
 
     private LocalDateTime dateTriggered;
 
     private String performedBy; // username or user id
-}
\ No newline at end of file
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", length = 20)
+    private Action action;
+
+    // Owning entity (task of a post, comment or file, employee of a document), see EntityType.getParentType
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Detail that cannot be looked up at read time, e.g. the name of a deleted entity or a new status
+    @Column(name = "payload")
+    private String payload;
+
+    // Message rendered when the event was written, so a keyword search also sees the names it mentions
+    @JsonIgnore
+    @Column(name = "search_text", length = SEARCH_TEXT_LENGTH)
+    private String searchText;
+
+    public enum Action {
+        CREATED, UPDATED, DELETED, STATUS_CHANGED, UPLOADED
+    }
+
+    public enum EntityType {
+        EMPLOYEE(null),
+        DOCUMENT(EMPLOYEE),
+        MEETING(null),
+        TASK(null),
+        TASK_POST(TASK),
+        TASK_COMMENT(TASK),
+        TASK_FILE(TASK);
+
+        private final EntityType parentType;
+
+        EntityType(EntityType parentType) {
+            this.parentType = parentType;
+        }
+
+        public EntityType getParentType() {
+            return parentType;
+        }
+
+        // Types whose events carry an entity of this type as their parent
+        public List<EntityType> getChildTypes() {
+            return Arrays.stream(values()).filter(type -> type.parentType == this).toList();
+        }
+
+        public static EntityType parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported audit entity type: " + value);
+            }
+        }
+    }
+}
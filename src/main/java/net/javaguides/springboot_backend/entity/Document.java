@@ -1,10 +1,11 @@
 package net.javaguides.springboot_backend.entity;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,10 +26,18 @@ public class Document {
 	@Column(nullable = false)
 	private String fileType;
 
-	@JsonIgnore
-	@Lob
-	@Column(name = "data", columnDefinition = "LONGBLOB", nullable = false)
-	private byte[] data;
+	@Column(name = "file_size")
+	private Long fileSize;
+
+	// SHA-256 key of the payload in the BlobStore
+	@Column(name = "content_hash", length = 64)
+	private String contentHash;
+
+	@Column(name = "uploaded_by")
+	private String uploadedBy;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
 
 	// Foreign key to Employee
 	@ManyToOne(fetch = FetchType.LAZY)
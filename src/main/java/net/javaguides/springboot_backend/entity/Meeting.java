@@ -15,7 +15,13 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "meetings")
+// Windowed listings page single meetings by (date, time, id), optionally for one creator; series are found by
+// their end date
+@Table(name = "meetings", indexes = {
+    @Index(name = "idx_meetings_date_time", columnList = "meeting_date, meeting_time, id"),
+    @Index(name = "idx_meetings_created_by_date_time", columnList = "created_by, meeting_date, meeting_time, id"),
+    @Index(name = "idx_meetings_series_end", columnList = "recurrence_rule, recurrence_end")
+})
 public class Meeting {
 
     @Id
@@ -31,6 +37,23 @@ public class Meeting {
     @Column(name = "meeting_time", nullable = false)
     private LocalTime meetingTime;
 
+    // Null on meetings created before durations existed; read as AppConstants.DEFAULT_MEETING_DURATION_MINUTES
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+
+    // RRULE subset (see RecurrenceRule) for a series stored once; null for a single meeting. The date and
+    // time above are those of the first occurrence
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    // Date of the last occurrence, null while the series is open-ended; derived from the rule for range queries
+    @Column(name = "recurrence_end")
+    private LocalDate recurrenceEnd;
+
+    // Cancelled occurrences of the series, as comma-separated yyyy-MM-dd dates
+    @Column(name = "recurrence_exceptions", columnDefinition = "TEXT")
+    private String recurrenceExceptions;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
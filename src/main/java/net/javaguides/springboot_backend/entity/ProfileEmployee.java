@@ -3,6 +3,9 @@ package net.javaguides.springboot_backend.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,9 +25,20 @@ public class ProfileEmployee {
     @Column()
     private String fileType;
 
-    @Lob
-    @Column(name = "data", columnDefinition = "LONGBLOB")
-    private byte[] data;
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // SHA-256 key of the image in the BlobStore, null until an image is uploaded
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Resized JPEG renditions keyed by their bounding box in pixels, filled in asynchronously after upload
+    @ElementCollection
+    @CollectionTable(name = "profile_renditions", joinColumns = @JoinColumn(name = "profile_id"))
+    @MapKeyColumn(name = "size")
+    @Column(name = "content_hash", length = 64)
+    @Builder.Default
+    private Map<Integer, String> renditions = new HashMap<>();
 
     // Foreign key to Employee
     @ManyToOne(fetch = FetchType.LAZY)
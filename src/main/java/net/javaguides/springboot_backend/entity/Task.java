@@ -15,7 +15,12 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_project_id", columnList = "project_id, id"),
+    @Index(name = "idx_tasks_project_deadline", columnList = "project_id, deadline, id"),
+    @Index(name = "idx_tasks_deadline", columnList = "deadline, id"),
+    @Index(name = "idx_tasks_assigned_to", columnList = "assigned_to, id")
+})
 public class Task {
     
     @Id
@@ -7,6 +7,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,13 +31,16 @@ public class TaskFile {
     @Column(nullable = false)
     private Long fileSize;
 
-    @Lob
-    @Column(name = "data", columnDefinition = "LONGBLOB", nullable = false)
-    private byte[] data;
+    // SHA-256 key of the payload in the BlobStore
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
 
     @Column(nullable = false)
     private String uploadedBy;
 
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
     // Foreign key to Task
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
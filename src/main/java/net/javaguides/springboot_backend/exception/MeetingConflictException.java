@@ -0,0 +1,20 @@
+package net.javaguides.springboot_backend.exception;
+
+import net.javaguides.springboot_backend.payload.MeetingConflict;
+
+import java.util.List;
+
+// Invitees are already booked at the requested time; answered with 409 and the overlapping meetings
+public class MeetingConflictException extends RuntimeException {
+
+    private final List<MeetingConflict> conflicts;
+
+    public MeetingConflictException(String message, List<MeetingConflict> conflicts) {
+        super(message);
+        this.conflicts = conflicts;
+    }
+
+    public List<MeetingConflict> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,16 @@
+package net.javaguides.springboot_backend.exception;
+
+// The server is too busy to take the request right now; answered with 503 and a Retry-After hint
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package net.javaguides.springboot_backend.exception;
+
+// The client has made too many attempts for now; answered with 429 and a Retry-After hint
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
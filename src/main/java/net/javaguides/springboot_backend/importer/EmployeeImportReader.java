@@ -0,0 +1,153 @@
+package net.javaguides.springboot_backend.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads employee rows one at a time from a CSV file with a header line or from a JSON array of objects,
+ * so an import never holds more than the current row. Field names are matched case-insensitively;
+ * unknown fields are ignored. Rows are numbered from 1, not counting the CSV header.
+ */
+public class EmployeeImportReader {
+
+    public enum Format {
+        CSV, JSON;
+
+        // By file extension first, then by content type
+        public static Format detect(String fileName, String contentType) {
+            String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".json") || type.startsWith("application/json")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Unsupported import file, expected .csv or .json");
+        }
+    }
+
+    // One input row: its 1-based position and its fields keyed by lower-case name
+    public record Row(int number, Map<String, String> fields) {
+
+        public String get(String field) {
+            String value = fields.get(field.toLowerCase(Locale.ROOT));
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public static void read(InputStream in, Format format, Consumer<Row> action) throws IOException {
+        if (format == Format.CSV) {
+            readCsv(in, action);
+        } else {
+            readJson(in, action);
+        }
+    }
+
+    private static void readCsv(InputStream in, Consumer<Row> action) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        // Spreadsheet exports often start with a byte order mark
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        int number = 0;
+        List<String> values;
+        while ((values = readCsvRecord(reader)) != null) {
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i).trim().toLowerCase(Locale.ROOT), values.get(i));
+            }
+            action.accept(new Row(++number, fields));
+        }
+    }
+
+    // RFC 4180: quoted fields may contain separators, doubled quotes and line breaks; null at end of input
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    private static void readJson(InputStream in, Consumer<Row> action) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of employees");
+            }
+            int number = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected an employee object at row " + (number + 1));
+                }
+                Map<String, String> fields = new HashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName().toLowerCase(Locale.ROOT);
+                    JsonToken value = parser.nextToken();
+                    if (value.isScalarValue()) {
+                        fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                action.accept(new Row(++number, fields));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package net.javaguides.springboot_backend.importer;
+
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.payload.EmployeeImportResult;
+import net.javaguides.springboot_backend.search.EmployeeDirectoryIndex;
+import net.javaguides.springboot_backend.search.EmployeeDirectoryListener;
+import net.javaguides.springboot_backend.service.AuditService;
+import net.javaguides.springboot_backend.utils.RandomAlpaNumUtils;
+import net.javaguides.springboot_backend.utils.ValidationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bulk employee onboarding. Existing usernames and emails are loaded once into hash sets, so duplicate checks and
+ * username allocation happen in memory instead of a query per row (and per collision). Valid rows are inserted
+ * batch-size at a time with plain JDBC batches, one transaction per batch: accounts, then employees, then
+ * profiles, three statements per batch. Ids come back through the driver's generated keys, which keeps the
+ * IDENTITY columns the rest of the application relies on.
+ *
+ * Invalid rows are skipped and reported with their row number; a batch the database rejects (for instance an
+ * email inserted concurrently by someone else) is rolled back and reported row by row, and the import continues.
+ * A file that turns out to be malformed part way through ends the import there: earlier batches are already
+ * committed, so the rows read so far are imported too and the error is reported with the result.
+ */
+@Component
+public class EmployeeImporter {
+
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO account (username, password, default_password, authenticated) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_EMPLOYEE_SQL = "INSERT INTO employees (first_name, last_name, email, phone, "
+            + "department, position, hire_date, salary, notes, created_at, account_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PROFILE_SQL = "INSERT INTO profile (employee_id) VALUES (?)";
+    private static final int DEFAULT_PASSWORD_LENGTH = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditService auditService;
+    private final RandomAlpaNumUtils randomAlpaNumUtils;
+    private final EmployeeDirectoryIndex directoryIndex;
+    private final int batchSize;
+
+    public EmployeeImporter(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            AuditService auditService,
+                            RandomAlpaNumUtils randomAlpaNumUtils,
+                            EmployeeDirectoryIndex directoryIndex,
+                            @Value("${app.employees.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditService = auditService;
+        this.randomAlpaNumUtils = randomAlpaNumUtils;
+        this.directoryIndex = directoryIndex;
+        this.batchSize = batchSize;
+    }
+
+    public EmployeeImportResult importEmployees(InputStream in, EmployeeImportReader.Format format, String username)
+            throws IOException {
+        Set<String> takenUsernames = new HashSet<>();
+        jdbcTemplate.query("SELECT username FROM account", (RowCallbackHandler) rs -> takenUsernames.add(rs.getString(1)));
+        // Emails compare case-insensitively, like the unique index under MySQL's default collation
+        Set<String> takenEmails = new HashSet<>();
+        jdbcTemplate.query("SELECT email FROM employees",
+                (RowCallbackHandler) rs -> takenEmails.add(rs.getString(1).toLowerCase(Locale.ROOT)));
+
+        Batch batch = new Batch(new UsernameAllocator(takenUsernames), takenEmails, new EmployeeImportResult(), username);
+        try {
+            EmployeeImportReader.read(in, format, row -> {
+                batch.result.setTotalRows(batch.result.getTotalRows() + 1);
+                String error = batch.add(row);
+                if (error != null) {
+                    batch.result.addError(row.number(), row.get("email"), error);
+                } else if (batch.rows.size() == batchSize) {
+                    flush(batch);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            batch.result.setFileError("Reading stopped after row " + batch.result.getTotalRows() + ": " + e.getMessage());
+        }
+        flush(batch);
+        return batch.result;
+    }
+
+    private void flush(Batch batch) {
+        if (batch.rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insert(batch.rows);
+                for (PendingEmployee pending : batch.rows) {
+                    Employee employee = pending.employee();
+                    auditService.record(Action.CREATED, EntityType.EMPLOYEE, employee.getId(), null,
+                            employee.getFirstName() + " " + employee.getLastName(), batch.performedBy);
+                }
+            });
+            batch.result.setImported(batch.result.getImported() + batch.rows.size());
+            // Plain JDBC inserts skip the entity listener that keeps search current
+            batch.rows.forEach(pending -> directoryIndex.put(EmployeeDirectoryListener.toEntry(pending.employee())));
+        } catch (DataAccessException e) {
+            String reason = "Not imported, batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+            for (PendingEmployee pending : batch.rows) {
+                batch.usernames.release(pending.username());
+                batch.emails.remove(pending.employee().getEmail().toLowerCase(Locale.ROOT));
+                batch.result.addError(pending.row(), pending.employee().getEmail(), reason);
+            }
+        }
+        batch.rows.clear();
+    }
+
+    private void insert(List<PendingEmployee> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> accountIds = insertReturningKeys(INSERT_ACCOUNT_SQL, rows, (ps, pending) -> {
+            ps.setString(1, pending.username());
+            ps.setString(2, randomAlpaNumUtils.generateRandomAlphanumeric(DEFAULT_PASSWORD_LENGTH));
+            ps.setBoolean(3, true);
+            ps.setBoolean(4, false);
+        });
+        List<Long> employeeIds = insertReturningKeys(INSERT_EMPLOYEE_SQL, rows, new ParameterSetter() {
+            private int index;
+
+            @Override
+            public void set(PreparedStatement ps, PendingEmployee pending) throws SQLException {
+                Employee employee = pending.employee();
+                ps.setString(1, employee.getFirstName());
+                ps.setString(2, employee.getLastName());
+                ps.setString(3, employee.getEmail());
+                ps.setString(4, employee.getPhone());
+                ps.setString(5, employee.getDepartment());
+                ps.setString(6, employee.getPosition());
+                ps.setDate(7, employee.getHireDate() != null ? Date.valueOf(employee.getHireDate()) : null);
+                ps.setBigDecimal(8, employee.getSalary());
+                ps.setString(9, employee.getNotes());
+                ps.setTimestamp(10, Timestamp.valueOf(now));
+                ps.setLong(11, accountIds.get(index++));
+            }
+        });
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).employee().setId(employeeIds.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_PROFILE_SQL, employeeIds, employeeIds.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    private List<Long> insertReturningKeys(String sql, List<PendingEmployee> rows, ParameterSetter setter) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (PendingEmployee pending : rows) {
+                    setter.set(ps, pending);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> keys = new ArrayList<>(rows.size());
+                try (ResultSet generated = ps.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+                if (keys.size() != rows.size()) {
+                    throw new SQLException("Expected " + rows.size() + " generated keys, got " + keys.size());
+                }
+                return keys;
+            }
+        });
+    }
+
+    private interface ParameterSetter {
+        void set(PreparedStatement ps, PendingEmployee pending) throws SQLException;
+    }
+
+    private record PendingEmployee(int row, Employee employee, String username) {
+    }
+
+    // Rows waiting for the next flush plus the in-memory view of what is already taken
+    private final class Batch {
+        private final UsernameAllocator usernames;
+        private final Set<String> emails;
+        private final EmployeeImportResult result;
+        private final String performedBy;
+        private final List<PendingEmployee> rows = new ArrayList<>();
+
+        private Batch(UsernameAllocator usernames, Set<String> emails, EmployeeImportResult result, String performedBy) {
+            this.usernames = usernames;
+            this.emails = emails;
+            this.result = result;
+            this.performedBy = performedBy;
+        }
+
+        // Validates the row and queues it, or returns why it cannot be imported
+        private String add(EmployeeImportReader.Row row) {
+            Employee employee = new Employee();
+            employee.setFirstName(row.get("firstName"));
+            employee.setLastName(row.get("lastName"));
+            employee.setEmail(row.get("email"));
+            employee.setPhone(row.get("phone"));
+            employee.setDepartment(row.get("department"));
+            employee.setPosition(row.get("position"));
+            employee.setNotes(row.get("notes"));
+
+            if (!ValidationUtils.isValidName(employee.getFirstName())) {
+                return "firstName is required (2 to 100 characters)";
+            }
+            if (!ValidationUtils.isValidName(employee.getLastName())) {
+                return "lastName is required (2 to 100 characters)";
+            }
+            if (!ValidationUtils.isValidEmail(employee.getEmail())) {
+                return "email is missing or invalid";
+            }
+            try {
+                String hireDate = row.get("hireDate");
+                employee.setHireDate(hireDate != null ? LocalDate.parse(hireDate) : null);
+            } catch (DateTimeParseException e) {
+                return "hireDate must be a date like 2024-01-31";
+            }
+            try {
+                String salary = row.get("salary");
+                employee.setSalary(salary != null ? new BigDecimal(salary) : null);
+            } catch (NumberFormatException e) {
+                return "salary must be a number";
+            }
+            if (!emails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                return "Employee with email " + employee.getEmail() + " already exists";
+            }
+
+            String base = employee.getFirstName().toLowerCase() + "." + employee.getLastName().toLowerCase();
+            rows.add(new PendingEmployee(row.number(), employee, usernames.allocate(base)));
+            return null;
+        }
+    }
+}
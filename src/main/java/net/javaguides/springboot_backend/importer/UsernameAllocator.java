@@ -0,0 +1,37 @@
+package net.javaguides.springboot_backend.importer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hands out unique usernames without a database round trip per candidate. Seeded with every username already
+ * taken, it follows the same scheme as account creation (base, base1, base2, ...) and remembers the next
+ * suffix to try for each base, so a thousand "john.smith" rows do not rescan the suffixes already used.
+ */
+public class UsernameAllocator {
+
+    private final Set<String> taken;
+    private final Map<String, Integer> nextSuffix = new HashMap<>();
+
+    public UsernameAllocator(Set<String> taken) {
+        this.taken = taken;
+    }
+
+    public String allocate(String base) {
+        if (taken.add(base)) {
+            return base;
+        }
+        int suffix = nextSuffix.getOrDefault(base, 1);
+        while (!taken.add(base + suffix)) {
+            suffix++;
+        }
+        nextSuffix.put(base, suffix + 1);
+        return base + suffix;
+    }
+
+    // Returns a username whose insert was rolled back
+    public void release(String username) {
+        taken.remove(username);
+    }
+}
@@ -0,0 +1,21 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+// Find the first time in [from, to) when all the employees are free for durationMinutes
+@Data
+@NoArgsConstructor
+public class AvailabilityRequest {
+    private List<Long> employeeIds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Integer durationMinutes;
+    // Only consider this part of each day; defaults to the whole day
+    private LocalTime earliestTime;
+    private LocalTime latestTime;
+}
@@ -0,0 +1,16 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A time when every requested employee is free
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySlot {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
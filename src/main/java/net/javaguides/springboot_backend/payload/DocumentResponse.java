@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,5 +15,9 @@ public class DocumentResponse {
     private Long id;
     private String fileName;
     private String fileType;
+    private Long fileSize;
+    private String uploadedBy;
+    private String contentHash;
+    private LocalDateTime createdAt;
     // Add more fields if needed, but do NOT include the raw data or any entity references
 } 
\ No newline at end of file
@@ -0,0 +1,41 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class EmployeeImportResult {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    // Only the first MAX_REPORTED_ERRORS failures are listed; failed always counts all of them
+    private boolean errorsTruncated;
+    // Set when the file could not be read to the end; the rows before that point were still imported
+    private String fileError;
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public void addError(int row, String email, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, email, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String email;
+        private String message;
+    }
+}
@@ -0,0 +1,18 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Directory entry returned by employee search: just enough to render a result row and link to the employee
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchResult {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String department;
+    private String position;
+}
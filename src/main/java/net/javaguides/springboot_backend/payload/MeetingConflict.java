@@ -0,0 +1,19 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An invitee's existing meeting overlapping the requested time, returned with a 409
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingConflict {
+    private Long employeeId;
+    private Long meetingId;
+    private String title;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,15 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Invitee as shown on a meeting list: enough to render a name and avatar, nothing from the employee record
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingInvitee {
+    private Long id;
+    private String name;
+    private String avatarUrl; // null when the employee has no profile image
+}
@@ -8,8 +8,13 @@ public class MeetingRequest {
     private String title;
     private LocalDate date;
     private LocalTime time;
+    private Integer durationMinutes;
+    // RRULE such as FREQ=WEEKLY;BYDAY=MO,WE;COUNT=20; on update, null keeps the current rule and "" removes it
+    private String recurrenceRule;
     private String notes;
     private List<Long> inviteeIds;
+    // Save even if invitees are already booked at that time
+    private boolean allowConflicts;
 
     // Default constructor
     public MeetingRequest() {}
@@ -48,6 +53,22 @@ public class MeetingRequest {
         this.time = time; 
     }
 
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
     public String getNotes() { 
         return notes; 
     }
@@ -63,4 +84,12 @@ public class MeetingRequest {
     public void setInviteeIds(List<Long> inviteeIds) {
         this.inviteeIds = inviteeIds;
     }
-} 
\ No newline at end of file
+
+    public boolean isAllowConflicts() {
+        return allowConflicts;
+    }
+
+    public void setAllowConflicts(boolean allowConflicts) {
+        this.allowConflicts = allowConflicts;
+    }
+}
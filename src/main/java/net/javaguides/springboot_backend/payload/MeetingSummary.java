@@ -0,0 +1,29 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// A meeting, or one occurrence of a recurring series (same id, dated on the occurrence), in a meeting list
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingSummary {
+    private Long id;
+    private String title;
+    private LocalDate meetingDate;
+    private LocalTime meetingTime;
+    private Integer durationMinutes;
+    private String recurrenceRule;
+    private String createdBy;
+    private MeetingStatus status;
+    private String notes;
+    private List<MeetingInvitee> invitees;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +18,6 @@ public class TaskFileResponse {
     private Long fileSize;
     private String uploadedBy;
     private Long taskId;
+    private String contentHash;
+    private LocalDateTime createdAt;
 } 
\ No newline at end of file
@@ -0,0 +1,35 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatistics {
+    private long totalTasks;
+
+    // Tasks by status
+    private long pendingTasks;
+    private long inProgressTasks;
+    private long completedTasks;
+    private long onHoldTasks;
+
+    // Tasks by priority
+    private long highPriorityTasks;
+    private long mediumPriorityTasks;
+    private long lowPriorityTasks;
+
+    // Tasks by stage
+    private long developmentTasks;
+    private long testingTasks;
+    private long stagingTasks;
+    private long productionTasks;
+
+    private double averageProgress;
+    private long overdueTasks;
+    private long tasksDueSoon;
+}
@@ -0,0 +1,34 @@
+package net.javaguides.springboot_backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.javaguides.springboot_backend.entity.Task.TaskPriority;
+import net.javaguides.springboot_backend.entity.Task.TaskStage;
+import net.javaguides.springboot_backend.entity.Task.TaskStatus;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private String assignedTo;
+    private TaskPriority priority;
+    private TaskStatus status;
+    private Integer progress;
+    private LocalDate deadline;
+    private TaskStage stage;
+    private Long projectId;
+    private LocalDate createdAt;
+    private LocalDate updatedAt;
+    // Counts instead of the attachment/post/comment collections
+    private Long fileCount;
+    private Long postCount;
+    private Long commentCount;
+}
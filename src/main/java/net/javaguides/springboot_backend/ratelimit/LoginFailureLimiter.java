@@ -0,0 +1,53 @@
+package net.javaguides.springboot_backend.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot_backend.exception.TooManyRequestsException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Failed logins per username, whatever address they come from, in a limiter of their own so that request
+ * buckets filling up cannot crowd them out. Every attempt takes a token before the password is checked, so
+ * parallel guesses cannot all get past the limit before the first failure is counted; a successful login
+ * hands the username its whole allowance back.
+ */
+@Component
+public class LoginFailureLimiter {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter buckets;
+
+    public LoginFailureLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = new RateLimiter("login-failures", properties.getLoginFailures().getMaxKeys(), meterRegistry);
+    }
+
+    // Takes an attempt from the username's allowance; throws TooManyRequestsException when none is left
+    public void acquire(String username) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RateLimitProperties.LoginFailures failures = properties.getLoginFailures();
+        long wait = buckets.tryAcquire(keyOf(username), failures.getCapacity(), failures.getPeriod().toNanos());
+        if (wait > 0) {
+            throw new TooManyRequestsException("Too many failed login attempts, please try again later",
+                    RateLimiter.toSeconds(wait));
+        }
+    }
+
+    // After a successful login: earlier failures, and the attempt itself, no longer count
+    public void reset(String username) {
+        buckets.reset(keyOf(username));
+    }
+
+    @Scheduled(fixedDelayString = "#{@rateLimitProperties.sweepInterval.toMillis()}")
+    public void sweep() {
+        buckets.sweep();
+    }
+
+    private static String keyOf(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,123 @@
+package net.javaguides.springboot_backend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot_backend.payload.ApiResponse;
+import net.javaguides.springboot_backend.ratelimit.RateLimitProperties.KeyType;
+import net.javaguides.springboot_backend.ratelimit.RateLimitProperties.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the first configured route limit matching the request. Each of the route's keys (client address,
+ * account) has its own bucket, and a request needs a token from all of them; otherwise it is answered with
+ * 429 and a Retry-After of the seconds until the next token. Runs after session validation, so the account
+ * comes from the session when there is one.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        for (Route route : properties.getRoutes()) {
+            if (route.getName() == null || route.getCapacity() <= 0 || route.getPaths().isEmpty()) {
+                throw new IllegalStateException("Rate limit routes need a name, paths and a positive capacity: " + route);
+            }
+            rejectedCounters.put(route.getName(), Counter.builder("rate.limit.rejected").tag("route", route.getName())
+                    .description("Requests answered with 429").register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = routeFor(request);
+        if (route != null) {
+            long periodNanos = route.getPeriod().toNanos();
+            List<String> keys = new ArrayList<>();
+            for (KeyType keyType : route.getKeys()) {
+                String key = keyFor(keyType, request);
+                if (key != null) {
+                    keys.add(route.getName() + ":" + key);
+                }
+            }
+            // Every bucket is checked before any token is taken, so a client refused on one key (its address)
+            // cannot keep creating buckets for another (a made-up username parameter)
+            long wait = 0;
+            for (String key : keys) {
+                wait = Math.max(wait, rateLimiter.waitFor(key, route.getCapacity(), periodNanos));
+            }
+            // Stops at the first empty bucket; tokens already taken from earlier keys are not handed back
+            for (int i = 0; i < keys.size() && wait == 0; i++) {
+                wait = rateLimiter.tryAcquire(keys.get(i), route.getCapacity(), periodNanos);
+            }
+            if (wait > 0) {
+                rejectedCounters.get(route.getName()).increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.toSeconds(wait)));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, please slow down"));
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private Route routeFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        for (Route route : properties.getRoutes()) {
+            if (!route.getMethods().isEmpty() && route.getMethods().stream().noneMatch(method::equalsIgnoreCase)) {
+                continue;
+            }
+            for (String pattern : route.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String keyFor(KeyType keyType, HttpServletRequest request) {
+        if (keyType == KeyType.IP) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        String username = request.getParameter("username");
+        return username != null && !username.isBlank() ? "user:" + username.trim() : null;
+    }
+}
@@ -0,0 +1,57 @@
+package net.javaguides.springboot_backend.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limits per route, from app.rate-limit.* in application.properties. Routes are tried in order and the
+ * first one matching the request's method and path applies, so list specific routes before general ones.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Upper bound on buckets held at once; idle ones are evicted every sweep-interval
+    private int maxKeys = 100_000;
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private List<Route> routes = new ArrayList<>();
+    // Failed logins per username, whatever address they come from; see LoginFailureLimiter
+    private LoginFailures loginFailures = new LoginFailures();
+
+    public enum KeyType {
+        // The client address as seen by the servlet container, X-Forwarded-For applied for trusted proxies
+        IP,
+        // The session's account, or else the username request parameter; skipped when there is neither
+        USERNAME
+    }
+
+    @Data
+    public static class Route {
+        private String name;
+        // Empty means any method
+        private List<String> methods = new ArrayList<>();
+        // Ant-style patterns, e.g. /api/tasks/*/upload or /api/**
+        private List<String> paths = new ArrayList<>();
+        // Every key gets its own bucket and all of them must have a token
+        private List<KeyType> keys = List.of(KeyType.IP);
+        // Burst size; the bucket refills at capacity tokens per period
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class LoginFailures {
+        // Failed attempts allowed in a burst; the allowance comes back at capacity attempts per period
+        private int capacity = 5;
+        private Duration period = Duration.ofMinutes(15);
+        // Upper bound on usernames tracked at once, separate from the request buckets
+        private int maxKeys = 100_000;
+    }
+}
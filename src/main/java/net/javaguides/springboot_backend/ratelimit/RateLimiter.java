@@ -0,0 +1,118 @@
+package net.javaguides.springboot_backend.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key, without locks. Each bucket is a single "theoretical arrival time" (the generic cell rate
+ * algorithm): a request is allowed when that time is no further ahead of now than the burst allows, and then
+ * pushes it forward by one emission interval (period / capacity). Allowing a request is one compare-and-set on
+ * the bucket's AtomicLong; buckets live in a ConcurrentHashMap, so contention is limited to requests sharing a key.
+ *
+ * A bucket whose arrival time has passed is full again and indistinguishable from a new one, so the sweep
+ * drops it. When max-keys buckets are held and none is idle, requests for new keys are refused as if their
+ * bucket were empty, so flooding the map with fresh keys cannot switch limiting off for everyone else.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this("requests", properties.getMaxKeys(), meterRegistry);
+    }
+
+    // A limiter with buckets of its own, e.g. for failed logins, which request limiting must not crowd out
+    public RateLimiter(String name, int maxKeys, MeterRegistry meterRegistry) {
+        this.maxKeys = maxKeys;
+        Gauge.builder("rate.limit.buckets", buckets, Map::size)
+                .tag("limiter", name)
+                .description("Rate limit buckets currently held")
+                .register(meterRegistry);
+    }
+
+    // Takes a token from the key's bucket; returns 0 when allowed, otherwise the nanoseconds until one is available
+    public long tryAcquire(String key, int capacity, long periodNanos) {
+        long emissionInterval = Math.max(1, periodNanos / capacity);
+        long tolerance = emissionInterval * (capacity - 1);
+        long now = System.nanoTime();
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep();
+                if (buckets.size() >= maxKeys) {
+                    return emissionInterval;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    // Nanoseconds until the key's bucket would grant a token, without taking one; 0 when it would now
+    public long waitFor(String key, int capacity, long periodNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long emissionInterval = Math.max(1, periodNanos / capacity);
+        long tolerance = emissionInterval * (capacity - 1);
+        return Math.max(0, bucket.get() - System.nanoTime() - tolerance);
+    }
+
+    // Refills the key's bucket, e.g. once a login succeeds after failed attempts
+    public void reset(String key) {
+        buckets.remove(key);
+    }
+
+    // A concurrent request on a bucket being dropped can go uncounted; that is one request, never a burst
+    @Scheduled(fixedDelayString = "#{@rateLimitProperties.sweepInterval.toMillis()}")
+    public void sweep() {
+        // One sweeper at a time; requests arriving meanwhile with a full map are refused
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int before = buckets.size();
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+            if (log.isDebugEnabled()) {
+                log.debug("Evicted {} idle rate limit buckets, {} left", before - buckets.size(), buckets.size());
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,19 @@
+package net.javaguides.springboot_backend.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LogReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LogReminderSink.class);
+
+    @Override
+    public void send(MeetingReminder reminder) {
+        log.info("Reminder: meeting {} '{}' starts at {} (invitees {})", reminder.meetingId(), reminder.title(),
+                reminder.start(), reminder.inviteeIds());
+    }
+}
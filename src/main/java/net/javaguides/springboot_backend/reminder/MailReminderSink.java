@@ -0,0 +1,72 @@
+package net.javaguides.springboot_backend.reminder;
+
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.repositories.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Local stand-in for a mail server: each reminder is written as an RFC 5322 message (.eml) addressed to the
+ * invitees, in app.reminders.mail.dir, where it can be opened with any mail client.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "mail")
+public class MailReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(MailReminderSink.class);
+
+    private static final String FROM = "meetings@localhost";
+
+    private final EmployeeRepository employeeRepository;
+    private final Path directory;
+
+    public MailReminderSink(EmployeeRepository employeeRepository,
+                            @Value("${app.reminders.mail.dir:reminder-mail}") String directory) {
+        this.employeeRepository = employeeRepository;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void send(MeetingReminder reminder) {
+        List<String> recipients = employeeRepository.findAllById(reminder.inviteeIds()).stream()
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .toList();
+        if (recipients.isEmpty()) {
+            log.debug("Reminder for meeting {} has no one to mail", reminder.meetingId());
+            return;
+        }
+        String message = "From: " + FROM + "\r\n"
+                + "To: " + String.join(", ", recipients) + "\r\n"
+                + "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()) + "\r\n"
+                + "Subject: Reminder: " + reminder.title().replaceAll("[\r\n]+", " ") + " at " + reminder.start().toLocalTime() + "\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "\r\n"
+                + reminder.title() + "\r\n"
+                + "Starts: " + reminder.start() + "\r\n"
+                + "Ends: " + reminder.end() + "\r\n"
+                + "Organiser: " + reminder.createdBy() + "\r\n";
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("meeting-" + reminder.meetingId() + "-" + UUID.randomUUID() + ".eml");
+            Files.writeString(file, message, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reminder mail for meeting " + reminder.meetingId(), e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.javaguides.springboot_backend.reminder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One occurrence of a meeting coming up, as handed to the ReminderSink; a copy, safe to keep off the request thread
+public record MeetingReminder(Long meetingId, String title, LocalDateTime start, LocalDateTime end,
+                              String createdBy, List<Long> inviteeIds) {
+}
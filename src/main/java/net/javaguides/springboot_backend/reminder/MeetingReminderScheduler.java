@@ -0,0 +1,305 @@
+package net.javaguides.springboot_backend.reminder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot_backend.calendar.MeetingOccurrences;
+import net.javaguides.springboot_backend.calendar.MeetingTimes;
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.repositories.MeetingRepository;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+import net.javaguides.springboot_backend.utils.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends a reminder lead-minutes before each meeting occurrence. Reminders due in the next window-hours sit
+ * in a {@link TimingWheel}; a worker thread advances it every tick and hands what fell due to the
+ * {@link ReminderSink}. Every refill-interval the window is topped up from the database, reading only the
+ * meetings that start in the stretch newly covered, so the meetings table is never polled as a whole.
+ *
+ * MeetingService reports every change: once it commits, the meeting's pending reminders are cancelled and
+ * its occurrences inside the loaded window are scheduled again, each O(1) on the wheel. Nothing is persisted;
+ * on start the window is loaded afresh and reminders whose time passed while the application was down, for
+ * meetings that have not started yet, are sent straight away. The same applies to a meeting created or
+ * changed inside its lead time, so invitees hear about it. Delivery is therefore at least once: a restart
+ * inside a meeting's lead time sends its reminder again.
+ */
+@Component
+public class MeetingReminderScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(MeetingReminderScheduler.class);
+
+    private final MeetingRepository meetingRepository;
+    private final ReminderSink sink;
+    private final boolean enabled;
+    private final Duration leadTime;
+    private final Duration window;
+    private final long tickMillis;
+    private final TimingWheel<MeetingReminder> wheel;
+
+    // Pending reminders by meeting and occurrence start, so a change cancels them without a search and an
+    // occurrence is never scheduled twice
+    private final Map<Long, Map<LocalDateTime, TimingWheel.Timeout<MeetingReminder>>> pending = new HashMap<>();
+    // Occurrences starting before this are scheduled; null until the first load
+    private LocalDateTime scheduledBefore;
+    // While a refill reads the database: how far it will cover, and the meetings changed meanwhile, whose
+    // rows it may have read stale and leaves to the change that was reported
+    private LocalDateTime refillTarget;
+    private final Set<Long> changedDuringRefill = new HashSet<>();
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public MeetingReminderScheduler(MeetingRepository meetingRepository,
+                                    ReminderSink sink,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.reminders.enabled:true}") boolean enabled,
+                                    @Value("${app.reminders.lead-minutes:15}") long leadMinutes,
+                                    @Value("${app.reminders.window-hours:24}") long windowHours,
+                                    @Value("${app.reminders.refill-interval-ms:3600000}") long refillIntervalMillis,
+                                    @Value("${app.reminders.tick-ms:1000}") long tickMillis,
+                                    @Value("${app.reminders.wheel-size:4096}") int wheelSize) {
+        if (Duration.ofMillis(refillIntervalMillis).compareTo(Duration.ofHours(windowHours)) >= 0) {
+            throw new IllegalStateException("app.reminders.refill-interval-ms must be shorter than app.reminders.window-hours");
+        }
+        this.meetingRepository = meetingRepository;
+        this.sink = sink;
+        this.enabled = enabled;
+        this.leadTime = Duration.ofMinutes(leadMinutes);
+        this.window = Duration.ofHours(windowHours);
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        Gauge.builder("meeting.reminders.pending", wheel, TimingWheel::size)
+                .description("Meeting reminders scheduled and not yet sent")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("meeting.reminders.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("meeting.reminders.failed").register(meterRegistry);
+    }
+
+    // Called by MeetingService inside its transaction; takes effect once that commits
+    public void meetingChanged(Meeting meeting) {
+        if (!enabled) {
+            return;
+        }
+        if (meeting.getStatus() == MeetingStatus.CANCELLED) {
+            meetingRemoved(meeting.getId());
+            return;
+        }
+        // Copied now: the entity and its lazy invitees are not usable after the transaction
+        Meeting copy = Meeting.builder()
+                .id(meeting.getId())
+                .title(meeting.getTitle())
+                .meetingDate(meeting.getMeetingDate())
+                .meetingTime(meeting.getMeetingTime())
+                .durationMinutes(meeting.getDurationMinutes())
+                .recurrenceRule(meeting.getRecurrenceRule())
+                .recurrenceEnd(meeting.getRecurrenceEnd())
+                .recurrenceExceptions(meeting.getRecurrenceExceptions())
+                .createdBy(meeting.getCreatedBy())
+                .build();
+        List<Long> inviteeIds = meeting.getInvitees() == null ? List.of()
+                : meeting.getInvitees().stream().map(Employee::getId).toList();
+        TransactionUtils.afterCommit(() -> reschedule(copy, inviteeIds));
+    }
+
+    public void meetingRemoved(Long meetingId) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                cancel(meetingId);
+                if (refillTarget != null) {
+                    changedDuringRefill.add(meetingId);
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refill();
+    }
+
+    // Extends the window to window-hours ahead, reading only meetings that start in the newly covered stretch
+    @Scheduled(fixedDelayString = "${app.reminders.refill-interval-ms:3600000}",
+            initialDelayString = "${app.reminders.refill-interval-ms:3600000}")
+    public void refill() {
+        LocalDateTime now;
+        LocalDateTime from;
+        LocalDateTime target;
+        synchronized (this) {
+            if (!running || refillTarget != null) {
+                return;
+            }
+            now = LocalDateTime.now();
+            from = scheduledBefore != null ? scheduledBefore : now;
+            target = now.plus(leadTime).plus(window);
+            refillTarget = target;
+        }
+
+        List<MeetingReminder> reminders;
+        try {
+            reminders = loadReminders(from, target);
+        } catch (RuntimeException e) {
+            log.warn("Could not load meeting reminders from {} to {}: {}", from, target, e.getMessage());
+            synchronized (this) {
+                refillTarget = null;
+                changedDuringRefill.clear();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            int scheduled = 0;
+            for (MeetingReminder reminder : reminders) {
+                if (!changedDuringRefill.contains(reminder.meetingId()) && reminder.start().isAfter(now)) {
+                    scheduled += schedule(reminder) ? 1 : 0;
+                }
+            }
+            scheduledBefore = target;
+            refillTarget = null;
+            changedDuringRefill.clear();
+            log.debug("Scheduled {} meeting reminders for meetings starting {} to {}", scheduled, from, target);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "meeting-reminders");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                Thread.sleep(tickMillis - Math.floorMod(now, tickMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<MeetingReminder> due;
+            synchronized (this) {
+                due = wheel.advance(System.currentTimeMillis());
+                due.forEach(this::forget);
+            }
+            // Outside the lock, so a slow sink does not hold up meeting changes
+            for (MeetingReminder reminder : due) {
+                try {
+                    sink.send(reminder);
+                    sentCounter.increment();
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    log.warn("Reminder for meeting {} at {} failed: {}", reminder.meetingId(), reminder.start(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void reschedule(Meeting meeting, List<Long> inviteeIds) {
+        cancel(meeting.getId());
+        LocalDateTime coveredUntil = refillTarget != null ? refillTarget : scheduledBefore;
+        if (refillTarget != null) {
+            changedDuringRefill.add(meeting.getId());
+        }
+        if (coveredUntil == null) {
+            // Not loaded yet; the first load reads the committed meeting
+            return;
+        }
+        remindersOf(meeting, inviteeIds, LocalDateTime.now(), coveredUntil).forEach(this::schedule);
+    }
+
+    // Reminders for occurrences starting in [from, to), invitees read with one batched query
+    private List<MeetingReminder> loadReminders(LocalDateTime from, LocalDateTime to) {
+        List<Meeting> meetings = meetingRepository.findActiveInWindow(from.toLocalDate(), to.toLocalDate());
+        if (meetings.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Long>> invitees = new HashMap<>();
+        for (MeetingRepository.InviteeRow row : meetingRepository.findInviteesOfMeetings(meetings.stream().map(Meeting::getId).toList())) {
+            invitees.computeIfAbsent(row.getMeetingId(), id -> new ArrayList<>()).add(row.getEmployeeId());
+        }
+        List<MeetingReminder> reminders = new ArrayList<>();
+        for (Meeting meeting : meetings) {
+            reminders.addAll(remindersOf(meeting, invitees.getOrDefault(meeting.getId(), List.of()), from, to));
+        }
+        return reminders;
+    }
+
+    private static List<MeetingReminder> remindersOf(Meeting meeting, List<Long> inviteeIds, LocalDateTime from, LocalDateTime to) {
+        long minutes = MeetingTimes.durationOf(meeting.getDurationMinutes());
+        return MeetingOccurrences.dates(meeting, from.toLocalDate(), to.toLocalDate())
+                .map(date -> date.atTime(meeting.getMeetingTime()))
+                .filter(start -> !start.isBefore(from) && start.isBefore(to))
+                .map(start -> new MeetingReminder(meeting.getId(), meeting.getTitle(), start, start.plusMinutes(minutes),
+                        meeting.getCreatedBy(), List.copyOf(inviteeIds)))
+                .toList();
+    }
+
+    // Due lead-minutes before the start, or on the next tick if that has passed
+    private boolean schedule(MeetingReminder reminder) {
+        Map<LocalDateTime, TimingWheel.Timeout<MeetingReminder>> occurrences =
+                pending.computeIfAbsent(reminder.meetingId(), id -> new HashMap<>());
+        if (occurrences.containsKey(reminder.start())) {
+            return false;
+        }
+        long remindAt = reminder.start().minus(leadTime).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        occurrences.put(reminder.start(), wheel.schedule(reminder, remindAt));
+        return true;
+    }
+
+    private void cancel(Long meetingId) {
+        Map<LocalDateTime, TimingWheel.Timeout<MeetingReminder>> occurrences = pending.remove(meetingId);
+        if (occurrences != null) {
+            occurrences.values().forEach(TimingWheel.Timeout::cancel);
+        }
+    }
+
+    private void forget(MeetingReminder reminder) {
+        Map<LocalDateTime, TimingWheel.Timeout<MeetingReminder>> occurrences = pending.get(reminder.meetingId());
+        if (occurrences != null && occurrences.remove(reminder.start()) != null && occurrences.isEmpty()) {
+            pending.remove(reminder.meetingId());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package net.javaguides.springboot_backend.reminder;
+
+/**
+ * Where due meeting reminders go. Exactly one sink is active, chosen by app.reminders.sink: log (the
+ * default), sse or mail. Called on the reminder thread one reminder at a time, so a sink should not block
+ * for long; an exception is logged and counted, and the reminder is not retried.
+ */
+public interface ReminderSink {
+
+    void send(MeetingReminder reminder);
+}
@@ -0,0 +1,58 @@
+package net.javaguides.springboot_backend.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes reminders as server-sent events to the invitees' open streams (GET /api/reminders/stream).
+ * Employees without an open stream are skipped: nothing is queued for them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "sse")
+public class SseReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(SseReminderSink.class);
+
+    // Clients reconnect when a stream times out, which also clears out connections that died silently
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final Map<Long, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long employeeId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Set<SseEmitter> employeeStreams = streams.computeIfAbsent(employeeId, id -> new CopyOnWriteArraySet<>());
+        employeeStreams.add(emitter);
+        Runnable remove = () -> streams.computeIfPresent(employeeId, (id, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    @Override
+    public void send(MeetingReminder reminder) {
+        for (Long employeeId : reminder.inviteeIds()) {
+            for (SseEmitter emitter : streams.getOrDefault(employeeId, Set.of())) {
+                try {
+                    emitter.send(SseEmitter.event().name("meeting-reminder").data(reminder));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping reminder stream of employee {}: {}", employeeId, e.getMessage());
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+    }
+}
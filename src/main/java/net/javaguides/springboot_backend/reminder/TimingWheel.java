@@ -0,0 +1,127 @@
+package net.javaguides.springboot_backend.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timing wheel: time is cut into ticks of tick-millis, and an entry due at tick t sits in bucket
+ * t mod wheel-size, a doubly linked list. Scheduling links an entry into its bucket and cancelling unlinks
+ * it, both O(1) whatever the number of pending entries. Advancing the clock visits only the buckets of the
+ * ticks that passed and expires the entries there that are due; entries more than one revolution away share
+ * a bucket with nearer ones and are skipped until their own turn comes round.
+ *
+ * Deadlines are rounded up to the next tick, so an entry never fires early and at most one tick late.
+ * Not thread-safe: the owner serialises schedule, cancel and advance.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Entry<T>[] buckets;
+    // First tick not yet advanced past; deadlines before it go into its bucket
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = (Entry<T>[]) new Entry<?>[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            Entry<T> head = new Entry<>(this, null, 0);
+            head.previous = head;
+            head.next = head;
+            buckets[i] = head;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick);
+        Entry<T> entry = new Entry<>(this, value, tick);
+        Entry<T> head = buckets[(int) (tick & mask)];
+        entry.previous = head.previous;
+        entry.next = head;
+        head.previous.next = entry;
+        head.previous = entry;
+        size++;
+        return entry;
+    }
+
+    // Moves the clock to now and returns what fell due, in bucket order
+    public List<T> advance(long nowMillis) {
+        long lastTick = Math.floorDiv(nowMillis, tickMillis);
+        if (lastTick < currentTick) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>();
+        // After a long pause every bucket is visited once rather than once per missed tick
+        long ticks = Math.min(lastTick - currentTick + 1, buckets.length);
+        for (long i = 0; i < ticks; i++) {
+            Entry<T> head = buckets[(int) ((currentTick + i) & mask)];
+            for (Entry<T> entry = head.next; entry != head; ) {
+                Entry<T> next = entry.next;
+                if (entry.tick <= lastTick) {
+                    entry.unlink();
+                    expired.add(entry.value);
+                }
+                entry = next;
+            }
+        }
+        currentTick = lastTick + 1;
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public interface Timeout<T> {
+        T value();
+
+        // Removes the entry if it has neither fired nor been cancelled; returns whether it did
+        boolean cancel();
+    }
+
+    private static final class Entry<V> implements Timeout<V> {
+        private final TimingWheel<V> wheel;
+        private final V value;
+        private final long tick;
+        private Entry<V> previous;
+        private Entry<V> next;
+
+        Entry(TimingWheel<V> wheel, V value, long tick) {
+            this.wheel = wheel;
+            this.value = value;
+            this.tick = tick;
+        }
+
+        @Override
+        public V value() {
+            return value;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (next == null) {
+                return false;
+            }
+            unlink();
+            return true;
+        }
+
+        void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+            wheel.size--;
+        }
+    }
+}
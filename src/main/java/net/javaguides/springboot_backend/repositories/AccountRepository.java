@@ -2,11 +2,14 @@ package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +32,16 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     long countAuthenticatedAccounts();
     
     boolean existsByUsername(String username);
+    
+    // Compare-and-set, so a password upgraded at login never overwrites one changed concurrently.
+    // Transactional itself: login calls it outside any transaction.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Account a SET a.password = :newPassword WHERE a.id = :id AND a.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -2,8 +2,29 @@ package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.AuditTrail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
-}
\ No newline at end of file
+public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long>, JpaSpecificationExecutor<AuditTrail> {
+
+    // Display names for rendering structured audit events, one query per entity type per page
+    @Query("SELECT t.id AS id, t.name AS name FROM Task t WHERE t.id IN :ids")
+    List<EntityName> findTaskNames(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.id AS id, CONCAT(e.firstName, ' ', e.lastName) AS name FROM Employee e WHERE e.id IN :ids")
+    List<EntityName> findEmployeeNames(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT m.id AS id, m.title AS name FROM Meeting m WHERE m.id IN :ids")
+    List<EntityName> findMeetingTitles(@Param("ids") Collection<Long> ids);
+
+    interface EntityName {
+        Long getId();
+        String getName();
+    }
+}
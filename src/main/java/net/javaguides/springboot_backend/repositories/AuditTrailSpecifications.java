@@ -0,0 +1,73 @@
+package net.javaguides.springboot_backend.repositories;
+
+import jakarta.persistence.criteria.Predicate;
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+// Optional audit log filters; each returns null when unset so Specification.allOf skips it
+public class AuditTrailSpecifications {
+
+    public static Specification<AuditTrail> performedBy(String username) {
+        if (username == null || username.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("performedBy"), username);
+    }
+
+    public static Specification<AuditTrail> triggeredFrom(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateTriggered"), from);
+    }
+
+    public static Specification<AuditTrail> triggeredBefore(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("dateTriggered"), to);
+    }
+
+    // Structured events have no stored message; their text rendered at write time is in searchText.
+    // Case-insensitive whatever the column collation, like AuditFilter.matches for archived rows
+    public static Specification<AuditTrail> messageContains(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + keyword.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("searchText")), pattern, '\\'),
+                cb.like(cb.lower(root.get("actionMessage")), pattern, '\\'),
+                cb.like(cb.lower(root.get("payload")), pattern, '\\'));
+    }
+
+    // Events of the entity itself or of its children, served by the entity and parent indexes
+    public static Specification<AuditTrail> concerns(AuditTrail.EntityType entityType, Long entityId) {
+        if (entityType == null) {
+            return null;
+        }
+        List<AuditTrail.EntityType> childTypes = entityType.getChildTypes();
+        return (root, query, cb) -> {
+            Predicate self = cb.and(cb.equal(root.get("entityType"), entityType), cb.equal(root.get("entityId"), entityId));
+            if (childTypes.isEmpty()) {
+                return self;
+            }
+            return cb.or(self, cb.and(cb.equal(root.get("parentId"), entityId), root.get("entityType").in(childTypes)));
+        };
+    }
+
+    // Keyset seek for newest-first pages: strictly older than the last row of the previous page
+    public static Specification<AuditTrail> olderThan(LocalDateTime dateTriggered, Long id) {
+        if (dateTriggered == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("dateTriggered"), dateTriggered),
+                cb.and(cb.equal(root.get("dateTriggered"), dateTriggered), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -1,15 +1,32 @@
 package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.Document;
+import net.javaguides.springboot_backend.payload.DocumentResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 	@Query("SELECT d FROM Document d WHERE d.employee.id = :employeeId")
 	List<Document> findByEmployeeId(@Param("employeeId") Long employeeId);
+
+	@Query("SELECT d.employee.id FROM Document d WHERE d.id = :id")
+	Optional<Long> findEmployeeIdById(@Param("id") Long id);
+
+	@Modifying
+	@Query("DELETE FROM Document d WHERE d.employee.id IN :employeeIds")
+	int deleteByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+	// Document listing reads metadata columns only
+	@Query("SELECT new net.javaguides.springboot_backend.payload.DocumentResponse(" +
+	       "d.id, d.fileName, d.fileType, d.fileSize, d.uploadedBy, d.contentHash, d.createdAt) " +
+	       "FROM Document d WHERE d.employee.id = :employeeId ORDER BY d.id")
+	List<DocumentResponse> findResponsesByEmployeeId(@Param("employeeId") Long employeeId);
 }
\ No newline at end of file
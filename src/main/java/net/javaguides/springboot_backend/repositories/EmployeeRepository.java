@@ -1,12 +1,15 @@
 package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +41,25 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     Optional<Employee> findByAccount_Id(Long accountId);
 
+    // Every directory entry, without loading the entities; feeds the in-memory search index
+    @Query("SELECT new net.javaguides.springboot_backend.payload.EmployeeSearchResult(e.id, e.firstName, e.lastName, " +
+           "e.email, e.department, e.position) FROM Employee e WHERE e.firstName <> 'admin'")
+    List<EmployeeSearchResult> findDirectoryEntries();
+
+    // What a delete needs to know about each employee, without loading the entities
+    @Query("SELECT e.id AS id, CONCAT(e.firstName, ' ', e.lastName) AS name, e.account.id AS accountId " +
+           "FROM Employee e WHERE e.id IN :ids")
+    List<DeletionTarget> findDeletionTargets(@Param("ids") Collection<Long> ids);
+
+    // Clears the persistence context so no stale employee instances outlive the bulk delete
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    interface DeletionTarget {
+        Long getId();
+        String getName();
+        Long getAccountId();
+    }
+
 }
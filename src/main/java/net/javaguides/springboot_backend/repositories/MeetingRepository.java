@@ -2,20 +2,27 @@ package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.Meeting;
 import net.javaguides.springboot_backend.status.MeetingStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
 
-    @Query("SELECT DISTINCT m FROM Meeting m LEFT JOIN FETCH m.invitees ORDER BY m.meetingDate ASC, m.meetingTime ASC")
-    List<Meeting> findAllWithInvitees();
+    // Optional invitee filter shared by the windowed listings; a null employeeId matches every meeting
+    String INVITED_EMPLOYEE = "AND (:employeeId IS NULL OR EXISTS (SELECT 1 FROM m.invitees i WHERE i.id = :employeeId)) ";
+
+    // Optional creator and status filters of the windowed listings; null matches every meeting
+    String CREATOR_AND_STATUS = "AND (:createdBy IS NULL OR m.createdBy = :createdBy) AND (:status IS NULL OR m.status = :status) ";
 
     List<Meeting> findByMeetingDateOrderByMeetingTimeAsc(LocalDate meetingDate);
     
@@ -23,14 +30,43 @@ public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     
     List<Meeting> findByStatus(MeetingStatus status);
     
-    @Query("SELECT m FROM Meeting m WHERE m.meetingDate >= :startDate ORDER BY m.meetingDate ASC, m.meetingTime ASC")
-    List<Meeting> findUpcomingMeetings(@Param("startDate") LocalDate startDate);
-    
     List<Meeting> findByCreatedByOrderByCreatedAtDesc(String createdBy);
     
-    // Find meetings by date range
-    @Query("SELECT m FROM Meeting m WHERE m.meetingDate BETWEEN :startDate AND :endDate ORDER BY m.meetingDate ASC, m.meetingTime ASC")
-    List<Meeting> findMeetingsByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    // Keyset page of single meetings in [from, to] ordered by (date, time, id), optionally only those the
+    // employee is invited to, created by the user or in the status: pass the window start, midnight and
+    // id 0 as the key for the first page
+    @Query("SELECT m FROM Meeting m WHERE m.recurrenceRule IS NULL AND m.meetingDate BETWEEN :from AND :to " +
+           "AND (m.meetingDate > :afterDate OR (m.meetingDate = :afterDate AND (m.meetingTime > :afterTime " +
+           "OR (m.meetingTime = :afterTime AND m.id > :afterId)))) " +
+           INVITED_EMPLOYEE + CREATOR_AND_STATUS + "ORDER BY m.meetingDate ASC, m.meetingTime ASC, m.id ASC")
+    List<Meeting> findSinglesInWindowAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                           @Param("afterDate") LocalDate afterDate, @Param("afterTime") LocalTime afterTime,
+                                           @Param("afterId") Long afterId, @Param("employeeId") Long employeeId,
+                                           @Param("createdBy") String createdBy, @Param("status") MeetingStatus status,
+                                           Limit limit);
+    
+    // Recurring series with occurrences that may fall in [from, to] (expanded by the caller), with the same filters
+    @Query("SELECT m FROM Meeting m WHERE m.recurrenceRule IS NOT NULL AND m.meetingDate <= :to " +
+           "AND (m.recurrenceEnd IS NULL OR m.recurrenceEnd >= :from) " + INVITED_EMPLOYEE + CREATOR_AND_STATUS)
+    List<Meeting> findSeriesInWindow(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("employeeId") Long employeeId, @Param("createdBy") String createdBy,
+                                     @Param("status") MeetingStatus status);
+    
+    // Meetings that are not cancelled with occurrences that may fall in [from, to]; feeds the reminder scheduler
+    @Query("SELECT m FROM Meeting m WHERE (m.status IS NULL OR m.status <> net.javaguides.springboot_backend.status.MeetingStatus.CANCELLED) " +
+           "AND ((m.recurrenceRule IS NULL AND m.meetingDate BETWEEN :from AND :to) " +
+           "OR (m.recurrenceRule IS NOT NULL AND m.meetingDate <= :to AND (m.recurrenceEnd IS NULL OR m.recurrenceEnd >= :from)))")
+    List<Meeting> findActiveInWindow(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Every meeting the employee is invited to, as keyset pages ordered by id; feeds the calendar export
+    @Query("SELECT m FROM Meeting m WHERE m.id > :afterId " + INVITED_EMPLOYEE + "ORDER BY m.id ASC")
+    List<Meeting> findByInviteeAfter(@Param("employeeId") Long employeeId, @Param("afterId") Long afterId, Limit limit);
+    
+    // Invitees of a page of meetings in one statement, with the profile image version for avatar URLs
+    @Query("SELECT m.id AS meetingId, e.id AS employeeId, e.firstName AS firstName, e.lastName AS lastName, " +
+           "p.contentHash AS contentHash FROM Meeting m JOIN m.invitees e LEFT JOIN ProfileEmployee p ON p.employee = e " +
+           "WHERE m.id IN :meetingIds ORDER BY e.firstName ASC, e.lastName ASC, e.id ASC")
+    List<InviteeRow> findInviteesOfMeetings(@Param("meetingIds") Collection<Long> meetingIds);
     
     // Find meetings by title containing keyword
     List<Meeting> findByTitleContainingIgnoreCase(String title);
@@ -51,7 +87,35 @@ public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     @Query("SELECT m FROM Meeting m WHERE m.meetingDate = CURRENT_DATE ORDER BY m.meetingTime ASC")
     List<Meeting> findTodaysMeetings();
     
-    // Find meetings by employee ID (invitee)
-    @Query("SELECT DISTINCT m FROM Meeting m LEFT JOIN FETCH m.invitees WHERE :employeeId IN (SELECT e.id FROM m.invitees e) ORDER BY m.meetingDate ASC, m.meetingTime ASC")
-    List<Meeting> findMeetingsByEmployeeId(@Param("employeeId") Long employeeId);
-} 
\ No newline at end of file
+    // Remove employees from every meeting's invitees in one statement
+    @Modifying
+    @Query(value = "DELETE FROM meeting_invitees WHERE employee_id IN (:employeeIds)", nativeQuery = true)
+    int removeInviteesFromAllMeetings(@Param("employeeIds") Collection<Long> employeeIds);
+    
+    // One row per invitee of every meeting that is not cancelled; feeds the in-memory conflict index
+    @Query("SELECT m.id AS meetingId, m.title AS title, m.meetingDate AS meetingDate, m.meetingTime AS meetingTime, " +
+           "m.durationMinutes AS durationMinutes, m.recurrenceRule AS recurrenceRule, m.recurrenceEnd AS recurrenceEnd, " +
+           "m.recurrenceExceptions AS recurrenceExceptions, e.id AS employeeId FROM Meeting m JOIN m.invitees e " +
+           "WHERE m.status IS NULL OR m.status <> net.javaguides.springboot_backend.status.MeetingStatus.CANCELLED")
+    List<InviteeBooking> findInviteeBookings();
+
+    interface InviteeBooking {
+        Long getMeetingId();
+        String getTitle();
+        LocalDate getMeetingDate();
+        LocalTime getMeetingTime();
+        Integer getDurationMinutes();
+        String getRecurrenceRule();
+        LocalDate getRecurrenceEnd();
+        String getRecurrenceExceptions();
+        Long getEmployeeId();
+    }
+
+    interface InviteeRow {
+        Long getMeetingId();
+        Long getEmployeeId();
+        String getFirstName();
+        String getLastName();
+        String getContentHash();
+    }
+}
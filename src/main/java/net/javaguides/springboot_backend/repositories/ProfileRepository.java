@@ -2,12 +2,24 @@ package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.ProfileEmployee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 @Repository
 public interface ProfileRepository extends JpaRepository<ProfileEmployee, Long> {
     @Query("SELECT p FROM ProfileEmployee p WHERE p.employee.id = :employeeId")
     ProfileEmployee findByEmployeeId(@Param("employeeId") Long employeeId);
+
+    // Hibernate clears the profile_renditions rows of the matched profiles as part of the bulk delete
+    @Modifying
+    @Query("DELETE FROM ProfileEmployee p WHERE p.employee.id IN :employeeIds")
+    int deleteByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+    @Query("SELECT VALUE(r) FROM ProfileEmployee p JOIN p.renditions r WHERE p.id = :profileId AND KEY(r) = :size")
+    Optional<String> findRenditionHash(@Param("profileId") Long profileId, @Param("size") Integer size);
 }
\ No newline at end of file
@@ -3,11 +3,13 @@ package net.javaguides.springboot_backend.repositories;
 import net.javaguides.springboot_backend.entity.Project;
 import net.javaguides.springboot_backend.status.ProjectStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,6 +65,11 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT DISTINCT p FROM Project p JOIN p.assignedEmployees e LEFT JOIN FETCH p.assignedEmployees WHERE e.id = :employeeId")
     List<Project> findProjectsByEmployeeIdWithAssignedEmployees(@Param("employeeId") Long employeeId);
 
+    // Unassign employees from every project in one statement instead of loading each project's members
+    @Modifying
+    @Query(value = "DELETE FROM project_employees WHERE employee_id IN (:employeeIds)", nativeQuery = true)
+    int removeEmployeesFromAllProjects(@Param("employeeIds") Collection<Long> employeeIds);
+
     // Custom query to find projects with no employees assigned
     @Query("SELECT p FROM Project p WHERE p.assignedEmployees IS EMPTY")
     List<Project> findProjectsWithNoEmployees();
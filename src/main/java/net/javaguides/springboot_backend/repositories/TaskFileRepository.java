@@ -1,12 +1,23 @@
 package net.javaguides.springboot_backend.repositories;
 
 import net.javaguides.springboot_backend.entity.TaskFile;
+import net.javaguides.springboot_backend.payload.TaskFileResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskFileRepository extends JpaRepository<TaskFile, Long> {
-    List<TaskFile> findByTask_Id(Long taskId);
+    @Query("SELECT f.task.id FROM TaskFile f WHERE f.id = :id")
+    Optional<Long> findTaskIdById(@Param("id") Long id);
+    
+    // Attachment listing reads metadata columns only
+    @Query("SELECT new net.javaguides.springboot_backend.payload.TaskFileResponse(" +
+           "f.id, f.fileName, f.fileType, f.fileSize, f.uploadedBy, f.task.id, f.contentHash, f.createdAt) " +
+           "FROM TaskFile f WHERE f.task.id = :taskId ORDER BY f.id")
+    List<TaskFileResponse> findResponsesByTaskId(@Param("taskId") Long taskId);
 }
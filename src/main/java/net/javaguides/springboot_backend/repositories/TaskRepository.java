@@ -4,6 +4,8 @@ import net.javaguides.springboot_backend.entity.Task;
 import net.javaguides.springboot_backend.entity.Task.TaskPriority;
 import net.javaguides.springboot_backend.entity.Task.TaskStatus;
 import net.javaguides.springboot_backend.entity.Task.TaskStage;
+import net.javaguides.springboot_backend.payload.TaskSummaryResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,47 +13,18 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     
-    // Find all tasks by project ID
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId")
-    List<Task> findByProjectId(@Param("projectId") Long projectId);
-    
-    // Find tasks by project ID and status
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
-    List<Task> findByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") TaskStatus status);
-    
-    // Find tasks by project ID and priority
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.priority = :priority")
-    List<Task> findByProjectIdAndPriority(@Param("projectId") Long projectId, @Param("priority") TaskPriority priority);
-    
-    // Find tasks by project ID and stage
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.stage = :stage")
-    List<Task> findByProjectIdAndStage(@Param("projectId") Long projectId, @Param("stage") TaskStage stage);
-    
-    // Find tasks by assigned person
-    List<Task> findByAssignedTo(String assignedTo);
-    
-    // Find tasks by project ID and assigned person
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.assignedTo = :assignedTo")
-    List<Task> findByProjectIdAndAssignedTo(@Param("projectId") Long projectId, @Param("assignedTo") String assignedTo);
-    
-    // Find tasks with deadline before a specific date
-    List<Task> findByDeadlineBefore(LocalDate date);
-    
-    // Find tasks by project ID with deadline before a specific date
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.deadline < :date")
-    List<Task> findByProjectIdAndDeadlineBefore(@Param("projectId") Long projectId, @Param("date") LocalDate date);
-    
-    // Find tasks by project ID and progress less than 100
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.progress < :progress")
-    List<Task> findByProjectIdAndProgressLessThan(@Param("projectId") Long projectId, @Param("progress") Integer progress);
-    
-    // Find tasks by project ID and progress greater than 0
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.progress > :progress")
-    List<Task> findByProjectIdAndProgressGreaterThan(@Param("projectId") Long projectId, @Param("progress") Integer progress);
+    // Summary read model for list endpoints: scalar columns plus child counts, never the collections
+    String SUMMARY_SELECT = "SELECT new net.javaguides.springboot_backend.payload.TaskSummaryResponse(" +
+            "t.id, t.name, t.description, t.assignedTo, t.priority, t.status, t.progress, t.deadline, t.stage, " +
+            "t.project.id, t.createdAt, t.updatedAt, " +
+            "(SELECT COUNT(f) FROM TaskFile f WHERE f.task = t), " +
+            "(SELECT COUNT(p) FROM TaskPost p WHERE p.task = t), " +
+            "(SELECT COUNT(c) FROM TaskComment c WHERE c.post.task = t)) FROM Task t ";
     
     // Custom query to get task statistics for a project
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId")
@@ -70,19 +43,80 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT AVG(t.progress) FROM Task t WHERE t.project.id = :projectId")
     Double getAverageProgressByProjectId(@Param("projectId") Long projectId);
     
-    // Find overdue tasks (deadline before today)
-    @Query("SELECT t FROM Task t WHERE t.deadline < :today AND t.status != 'COMPLETED'")
-    List<Task> findOverdueTasks(@Param("today") LocalDate today);
-    
-    // Find overdue tasks for a specific project
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.deadline < :today AND t.status != 'COMPLETED'")
-    List<Task> findOverdueTasksByProjectId(@Param("projectId") Long projectId, @Param("today") LocalDate today);
-    
-    // Find tasks due soon (within next 7 days)
-    @Query("SELECT t FROM Task t WHERE t.deadline BETWEEN :today AND :nextWeek AND t.status != 'COMPLETED'")
-    List<Task> findTasksDueSoon(@Param("today") LocalDate today, @Param("nextWeek") LocalDate nextWeek);
-    
-    // Find tasks due soon for a specific project
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.deadline BETWEEN :today AND :nextWeek AND t.status != 'COMPLETED'")
-    List<Task> findTasksDueSoonByProjectId(@Param("projectId") Long projectId, @Param("today") LocalDate today, @Param("nextWeek") LocalDate nextWeek);
+    // Every statistics bucket for a project in a single grouped scan
+    @Query("SELECT COUNT(t) AS totalTasks, " +
+           "SUM(CASE WHEN t.status = 'PENDING' THEN 1 ELSE 0 END) AS pendingTasks, " +
+           "SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END) AS inProgressTasks, " +
+           "SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completedTasks, " +
+           "SUM(CASE WHEN t.status = 'ON_HOLD' THEN 1 ELSE 0 END) AS onHoldTasks, " +
+           "SUM(CASE WHEN t.priority = 'HIGH' THEN 1 ELSE 0 END) AS highPriorityTasks, " +
+           "SUM(CASE WHEN t.priority = 'MEDIUM' THEN 1 ELSE 0 END) AS mediumPriorityTasks, " +
+           "SUM(CASE WHEN t.priority = 'LOW' THEN 1 ELSE 0 END) AS lowPriorityTasks, " +
+           "SUM(CASE WHEN t.stage = 'DEVELOPMENT' THEN 1 ELSE 0 END) AS developmentTasks, " +
+           "SUM(CASE WHEN t.stage = 'TESTING' THEN 1 ELSE 0 END) AS testingTasks, " +
+           "SUM(CASE WHEN t.stage = 'STAGING' THEN 1 ELSE 0 END) AS stagingTasks, " +
+           "SUM(CASE WHEN t.stage = 'PRODUCTION' THEN 1 ELSE 0 END) AS productionTasks, " +
+           "AVG(t.progress) AS averageProgress, " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status != 'COMPLETED' THEN 1 ELSE 0 END) AS overdueTasks, " +
+           "SUM(CASE WHEN t.deadline BETWEEN :today AND :nextWeek AND t.status != 'COMPLETED' THEN 1 ELSE 0 END) AS tasksDueSoon " +
+           "FROM Task t WHERE t.project.id = :projectId")
+    TaskStatisticsView getTaskStatisticsByProjectId(@Param("projectId") Long projectId, @Param("today") LocalDate today, @Param("nextWeek") LocalDate nextWeek);
+    
+    // Task summaries
+    @Query(SUMMARY_SELECT + "WHERE t.id = :id")
+    Optional<TaskSummaryResponse> findSummaryById(@Param("id") Long id);
+    
+    // Keyset pages ordered by id: pass afterId = 0 for the first page and a limit of page size + 1
+    @Query(SUMMARY_SELECT + "WHERE t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.assignedTo = :assignedTo AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByAssignedToAfter(@Param("assignedTo") String assignedTo, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByProjectIdAfter(@Param("projectId") Long projectId, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.status = :status AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByProjectIdAndStatusAfter(@Param("projectId") Long projectId, @Param("status") TaskStatus status, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.priority = :priority AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByProjectIdAndPriorityAfter(@Param("projectId") Long projectId, @Param("priority") TaskPriority priority, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.stage = :stage AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByProjectIdAndStageAfter(@Param("projectId") Long projectId, @Param("stage") TaskStage stage, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.assignedTo = :assignedTo AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummaryResponse> findSummariesByProjectIdAndAssignedToAfter(@Param("projectId") Long projectId, @Param("assignedTo") String assignedTo, @Param("afterId") Long afterId, Limit limit);
+    
+    // Keyset pages ordered by (deadline, id): the first page seeks after the earliest representable deadline
+    @Query(SUMMARY_SELECT + "WHERE t.deadline < :today AND t.status != 'COMPLETED' " +
+           "AND (t.deadline > :afterDeadline OR (t.deadline = :afterDeadline AND t.id > :afterId)) ORDER BY t.deadline, t.id")
+    List<TaskSummaryResponse> findOverdueSummariesAfter(@Param("today") LocalDate today, @Param("afterDeadline") LocalDate afterDeadline, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.deadline < :today AND t.status != 'COMPLETED' " +
+           "AND (t.deadline > :afterDeadline OR (t.deadline = :afterDeadline AND t.id > :afterId)) ORDER BY t.deadline, t.id")
+    List<TaskSummaryResponse> findOverdueSummariesByProjectIdAfter(@Param("projectId") Long projectId, @Param("today") LocalDate today, @Param("afterDeadline") LocalDate afterDeadline, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.project.id = :projectId AND t.deadline BETWEEN :today AND :nextWeek AND t.status != 'COMPLETED' " +
+           "AND (t.deadline > :afterDeadline OR (t.deadline = :afterDeadline AND t.id > :afterId)) ORDER BY t.deadline, t.id")
+    List<TaskSummaryResponse> findSummariesDueSoonByProjectIdAfter(@Param("projectId") Long projectId, @Param("today") LocalDate today, @Param("nextWeek") LocalDate nextWeek, @Param("afterDeadline") LocalDate afterDeadline, @Param("afterId") Long afterId, Limit limit);
+    
+    // Projection for getTaskStatisticsByProjectId (SUM/AVG are null when the project has no tasks)
+    interface TaskStatisticsView {
+        Long getTotalTasks();
+        Long getPendingTasks();
+        Long getInProgressTasks();
+        Long getCompletedTasks();
+        Long getOnHoldTasks();
+        Long getHighPriorityTasks();
+        Long getMediumPriorityTasks();
+        Long getLowPriorityTasks();
+        Long getDevelopmentTasks();
+        Long getTestingTasks();
+        Long getStagingTasks();
+        Long getProductionTasks();
+        Double getAverageProgress();
+        Long getOverdueTasks();
+        Long getTasksDueSoon();
+    }
 } 
\ No newline at end of file
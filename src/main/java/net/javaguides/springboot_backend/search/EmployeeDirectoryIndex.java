@@ -0,0 +1,325 @@
+package net.javaguides.springboot_backend.search;
+
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
+import net.javaguides.springboot_backend.repositories.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory employee directory for search-as-you-type. Every entry is split into lower-case tokens (names,
+ * the parts of the email, department and position). Tokens live in a sorted map to their employee ids, so a
+ * prefix is a range scan. A bigram map from "^j", "jo", "oh", ... to tokens narrows fuzzy candidates down to
+ * the tokens sharing enough bigrams with the term, which are then checked with a bounded edit distance
+ * (insertions, deletions, substitutions and swapped neighbours each count as one typo).
+ *
+ * Each query term must match some token of an entry, exactly (best), as a prefix, or as a prefix within one
+ * typo (two for terms of five characters or more). Results rank by how well the terms matched, then by name.
+ *
+ * The index is loaded once the application is ready and kept current by {@link EmployeeDirectoryListener}
+ * and by the bulk paths that bypass the entity lifecycle. A periodic reload catches anything else that
+ * writes the employees table directly.
+ */
+@Component
+public class EmployeeDirectoryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryIndex.class);
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private static final Comparator<EmployeeSearchResult> BY_NAME = Comparator
+            .comparing((EmployeeSearchResult e) -> lowerCase(e.getLastName()))
+            .thenComparing(e -> lowerCase(e.getFirstName()))
+            .thenComparing(EmployeeSearchResult::getId);
+
+    private final EmployeeRepository employeeRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Structures structures = new Structures();
+    // Changes applied while a reload is reading the table, replayed onto the reloaded structures
+    private List<Consumer<Structures>> changesDuringReload;
+
+    public EmployeeDirectoryIndex(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.employees.search.reload-interval-ms:3600000}",
+               initialDelayString = "${app.employees.search.reload-interval-ms:3600000}")
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Structures fresh = new Structures();
+        try {
+            employeeRepository.findDirectoryEntries().forEach(fresh::put);
+        } catch (RuntimeException e) {
+            log.warn("Employee directory reload failed, keeping the current index: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringReload.forEach(change -> change.accept(fresh));
+            changesDuringReload = null;
+            structures = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Employee directory loaded with {} entries", fresh.entries.size());
+    }
+
+    // Adds the employee or replaces its previous entry
+    public void put(EmployeeSearchResult entry) {
+        if ("admin".equals(entry.getFirstName())) {
+            return;
+        }
+        apply(structures -> structures.put(entry));
+    }
+
+    public void remove(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        apply(structures -> removed.forEach(structures::remove));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return structures.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All entries matching every term of the query, best matches first
+    public List<EmployeeSearchResult> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : new HashSet<>(terms)) {
+                Map<Long, Integer> termScores = structures.match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Integer> finalScores = scores;
+            List<EmployeeSearchResult> results = new ArrayList<>(scores.size());
+            scores.keySet().forEach(id -> results.add(structures.entries.get(id)));
+            results.sort(Comparator.comparing((EmployeeSearchResult e) -> finalScores.get(e.getId())).reversed()
+                    .thenComparing(BY_NAME));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Structures> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(structures);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lower-case runs of letters and digits: "Smith-Jones, j.doe@acme.com" gives smith, jones, j, doe, acme, com
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Anchored bigrams, so "jon" and "jonas" share "^j" while "ajon" does not
+    private static Set<String> bigrams(String token) {
+        String padded = "^" + token;
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    // 1 edit for short terms, 2 from five characters on
+    private static int maxEdits(String term) {
+        return term.length() < 5 ? 1 : 2;
+    }
+
+    // Edit distance between the term and the closest prefix of the token, or max + 1 once it is known to exceed max
+    static int prefixDistance(String term, String token, int max) {
+        int m = term.length();
+        int n = Math.min(token.length(), m + max);
+        int[] beforePrevious = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = term.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && term.charAt(i - 1) == token.charAt(j - 2) && term.charAt(i - 2) == token.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = max + 1;
+        for (int j = Math.max(0, m - max); j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    // The index proper; only touched under the lock
+    private static final class Structures {
+        private final Map<Long, EmployeeSearchResult> entries = new HashMap<>();
+        private final Map<Long, Set<String>> tokensById = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> tokensByBigram = new HashMap<>();
+
+        private void put(EmployeeSearchResult entry) {
+            remove(entry.getId());
+            Set<String> tokens = new HashSet<>();
+            tokens.addAll(tokenize(entry.getFirstName()));
+            tokens.addAll(tokenize(entry.getLastName()));
+            tokens.addAll(tokenize(entry.getEmail()));
+            tokens.addAll(tokenize(entry.getDepartment()));
+            tokens.addAll(tokenize(entry.getPosition()));
+
+            entries.put(entry.getId(), entry);
+            tokensById.put(entry.getId(), tokens);
+            for (String token : tokens) {
+                Set<Long> ids = postings.get(token);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(token, ids);
+                    for (String bigram : bigrams(token)) {
+                        tokensByBigram.computeIfAbsent(bigram, b -> new HashSet<>()).add(token);
+                    }
+                }
+                ids.add(entry.getId());
+            }
+        }
+
+        private void remove(Long id) {
+            entries.remove(id);
+            Set<String> tokens = tokensById.remove(id);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Set<Long> ids = postings.get(token);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                    for (String bigram : bigrams(token)) {
+                        Set<String> bigramTokens = tokensByBigram.get(bigram);
+                        bigramTokens.remove(token);
+                        if (bigramTokens.isEmpty()) {
+                            tokensByBigram.remove(bigram);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Best score per employee id for one query term
+        private Map<Long, Integer> match(String term) {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> posting : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                int score = posting.getKey().equals(term) ? EXACT : PREFIX;
+                posting.getValue().forEach(id -> scores.merge(id, score, Math::max));
+            }
+            if (term.length() < MIN_FUZZY_LENGTH) {
+                return scores;
+            }
+
+            // One typo breaks at most three of the term's bigrams, so a token within max typos shares the rest
+            int max = maxEdits(term);
+            Set<String> termBigrams = bigrams(term);
+            int minShared = Math.max(1, termBigrams.size() - 3 * max);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String bigram : termBigrams) {
+                tokensByBigram.getOrDefault(bigram, Set.of()).forEach(token -> shared.merge(token, 1, Integer::sum));
+            }
+            for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                String token = candidate.getKey();
+                if (candidate.getValue() >= minShared && !token.startsWith(term) && prefixDistance(term, token, max) <= max) {
+                    postings.get(token).forEach(id -> scores.merge(id, FUZZY, Math::max));
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.javaguides.springboot_backend.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
+import net.javaguides.springboot_backend.utils.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Entity listener on {@link Employee} that mirrors inserts, updates and deletes into the directory index.
+ * Changes are applied after commit, so a rolled-back edit never shows up in search. Bulk statements
+ * (imports, set-based deletes) bypass entity callbacks and update the index themselves.
+ */
+@Component
+public class EmployeeDirectoryListener {
+
+    // Looked up lazily: Hibernate creates its listeners while the EntityManagerFactory the index depends on is being built
+    private final ObjectProvider<EmployeeDirectoryIndex> index;
+
+    public EmployeeDirectoryListener(ObjectProvider<EmployeeDirectoryIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Employee employee) {
+        // Copied now: the entity may change or be detached by the time the transaction commits
+        EmployeeSearchResult entry = toEntry(employee);
+        TransactionUtils.afterCommit(() -> index.getObject().put(entry));
+    }
+
+    @PostRemove
+    public void removed(Employee employee) {
+        Long id = employee.getId();
+        TransactionUtils.afterCommit(() -> index.getObject().remove(List.of(id)));
+    }
+
+    public static EmployeeSearchResult toEntry(Employee employee) {
+        return new EmployeeSearchResult(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getDepartment(), employee.getPosition());
+    }
+}
@@ -0,0 +1,127 @@
+package net.javaguides.springboot_backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.javaguides.springboot_backend.config.AsyncConfig;
+import net.javaguides.springboot_backend.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing and verification, run on the bounded password-hash executor so a burst of logins cannot
+ * occupy more request threads than the pool and its queue allow. A full queue, or a wait longer than
+ * wait-timeout, is answered with 503 and a Retry-After hint rather than letting requests pile up.
+ *
+ * Stored passwords that are not BCrypt hashes (legacy plaintext rows and freshly issued default passwords)
+ * are still accepted, compared in constant time, and reported as needing an upgrade; so are hashes made with
+ * a lower cost than the configured one. Metrics: password.hash.time (per operation), password.hash.queue.wait,
+ * password.hash.queue.depth and password.hash.rejected.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final long waitTimeoutMillis;
+    // Checked against unknown usernames, so they take as long to reject as wrong passwords
+    private final String dummyHash;
+
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(@Qualifier(AsyncConfig.PASSWORD_HASH_EXECUTOR) ThreadPoolTaskExecutor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.password.bcrypt-strength:10}") int strength,
+                          @Value("${app.security.password.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.dummyHash = encoder.encode("dummy-password");
+
+        this.verifyTimer = Timer.builder("password.hash.time").tag("operation", "verify")
+                .description("CPU time of one password hash operation").register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hash.time").tag("operation", "encode")
+                .description("CPU time of one password hash operation").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Time a hash operation waited for a free hashing thread").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Hash operations waiting for a thread").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Hash operations turned away because the queue was full or the wait timed out")
+                .register(meterRegistry);
+    }
+
+    public record Verification(boolean matches, boolean needsUpgrade) {
+    }
+
+    // Checks a password against what is stored; a null stored value (unknown account) never matches
+    public Verification verify(String rawPassword, String storedPassword) {
+        if (storedPassword == null) {
+            run(verifyTimer, () -> encoder.matches(rawPassword, dummyHash));
+            return new Verification(false, false);
+        }
+        if (!isHash(storedPassword)) {
+            boolean matches = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+            return new Verification(matches, matches);
+        }
+        boolean matches = run(verifyTimer, () -> encoder.matches(rawPassword, storedPassword));
+        return new Verification(matches, matches && encoder.upgradeEncoding(storedPassword));
+    }
+
+    public String hash(String rawPassword) {
+        return run(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public static boolean isHash(String storedPassword) {
+        return BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(Timer timer, Callable<T> operation) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(operation);
+            });
+        } catch (TaskRejectedException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many logins at once, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many logins at once, please retry shortly", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
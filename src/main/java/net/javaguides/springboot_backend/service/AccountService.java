@@ -4,17 +4,21 @@ import net.javaguides.springboot_backend.entity.Account;
 import net.javaguides.springboot_backend.exception.AuthenticationException;
 import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
 import net.javaguides.springboot_backend.payload.LogoutRequest;
+import net.javaguides.springboot_backend.ratelimit.LoginFailureLimiter;
 import net.javaguides.springboot_backend.repositories.AccountRepository;
+import net.javaguides.springboot_backend.security.PasswordHasher;
+import net.javaguides.springboot_backend.session.Session;
+import net.javaguides.springboot_backend.session.SessionStore;
 import net.javaguides.springboot_backend.utils.RandomAlpaNumUtils;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
@@ -26,6 +30,15 @@ public class AccountService {
    @Autowired
     private RandomAlpaNumUtils rAlpaNumUtils;
 
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginFailureLimiter loginFailureLimiter;
+
     public List<Account> getAllAccounts() {
         return accountRepository.findAll();
     }
@@ -34,12 +47,15 @@ public class AccountService {
         return accountRepository.findById(id);
     }
 
+    // Hashed before any transaction starts, so no connection is held while BCrypt runs
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Account updatePassword(Long id, String newPassword) {
+        String hash = passwordHasher.hash(newPassword);
 
         Account existing = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found with id " + id));
 
-        existing.setPassword(newPassword);
+        existing.setPassword(hash);
         existing.setDefaultPassword(false);
 
         return accountRepository.save(existing);
@@ -55,6 +71,7 @@ public class AccountService {
             Account accountToReset = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account user to reset not found: " + id));
 
+            // Issued in clear so the admin can hand it over; hashed at the first login like any legacy password
             String rawPassword = rAlpaNumUtils.generateRandomAlphanumeric(10);
 
             accountToReset.setDefaultPassword(true);
@@ -67,31 +84,49 @@ public class AccountService {
       
     }
 
+    // No transaction: the hash check runs on the password-hash pool and must not hold a database connection
+    // meanwhile. The session lives in SessionStore, which writes it to the account row behind the request.
+    // Attempts are limited per username, so guessing one account's password from many addresses is slowed
+    // down as much as from one: each takes a token before any hashing, and only a successful one gives it back.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Account login(String username, String password) {
         String trimmedUsername = username.trim();
         String trimmedPassword = password.trim();
 
-        Optional<Account> accountOpt = accountRepository.findByUsername(trimmedUsername);
+        loginFailureLimiter.acquire(trimmedUsername);
 
-        if (accountOpt.isPresent() && accountOpt.get().getPassword().equals(trimmedPassword)) {
-            Account account = accountOpt.get();
-            account.setSessionId(UUID.randomUUID().toString());
-            account.setLastLogin(LocalDateTime.now());
-            account.setAuthenticated(true);
-            return accountRepository.save(account);
+        Optional<Account> accountOpt = accountRepository.findByUsername(trimmedUsername);
+        PasswordHasher.Verification verification =
+                passwordHasher.verify(trimmedPassword, accountOpt.map(Account::getPassword).orElse(null));
+        if (!verification.matches()) {
+            throw new AuthenticationException("Invalid username or password");
+        }
+        loginFailureLimiter.reset(trimmedUsername);
+
+        // A detached copy, so the session fields set below are never flushed by a later transaction
+        Account account = copyOf(accountOpt.get());
+        if (verification.needsUpgrade()) {
+            // Plaintext or weaker hash: store a current one, unless the password changed in the meantime
+            String hash = passwordHasher.hash(trimmedPassword);
+            if (accountRepository.updatePasswordIfUnchanged(account.getId(), account.getPassword(), hash) == 1) {
+                account.setPassword(hash);
+            }
         }
 
-        throw new AuthenticationException("Invalid username or password");
+        Session session = sessionStore.create(account.getId(), account.getUsername());
+        account.setSessionId(session.getId());
+        account.setLastLogin(LocalDateTime.now());
+        account.setAuthenticated(true);
+        return account;
     }
 
+    @Transactional(readOnly = true)
     public String logout(LogoutRequest logoutRequest) {
         Optional<Account> accountOpt = accountRepository.findByUsername(logoutRequest.getUsername());
 
         if (accountOpt.isPresent()) {
-            Account account = accountOpt.get();
-            account.setAuthenticated(false);
-            account.setSessionId(null);
-            accountRepository.save(account);
+            // The store clears session_id and authenticated on the account row with its next batch
+            sessionStore.invalidateUser(accountOpt.get().getUsername());
             return "Logged out successfully";
         }
 
@@ -104,8 +139,19 @@ public class AccountService {
     }
 
     public boolean isAuthenticated(String username) {
-        return accountRepository.findByUsername(username)
-                .map(Account::isAuthenticated)
-                .orElse(false);
+        return sessionStore.hasSession(username);
+    }
+
+    private static Account copyOf(Account account) {
+        return Account.builder()
+                .id(account.getId())
+                .username(account.getUsername())
+                .password(account.getPassword())
+                .defaultPassword(account.isDefaultPassword())
+                .sessionId(account.getSessionId())
+                .lastLogin(account.getLastLogin())
+                .authenticated(account.isAuthenticated())
+                .sessionLastAccess(account.getSessionLastAccess())
+                .build();
     }
 }
\ No newline at end of file
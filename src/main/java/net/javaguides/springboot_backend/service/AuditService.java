@@ -1,41 +1,137 @@
 package net.javaguides.springboot_backend.service;
 
+import net.javaguides.springboot_backend.audit.AuditArchive;
+import net.javaguides.springboot_backend.audit.AuditEvent;
+import net.javaguides.springboot_backend.audit.AuditExporter;
+import net.javaguides.springboot_backend.audit.AuditFilter;
+import net.javaguides.springboot_backend.audit.AuditMessageRenderer;
+import net.javaguides.springboot_backend.audit.AuditWriter;
 import net.javaguides.springboot_backend.entity.AuditTrail;
+import net.javaguides.springboot_backend.payload.CursorPage;
 import net.javaguides.springboot_backend.repositories.AuditTrailRepository;
+import net.javaguides.springboot_backend.repositories.AuditTrailSpecifications;
+import net.javaguides.springboot_backend.utils.CursorUtils;
+import net.javaguides.springboot_backend.utils.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @Transactional
 public class AuditService {
 
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("dateTriggered"), Sort.Order.desc("id"));
+
     @Autowired
     private AuditTrailRepository auditTrailRepository;
 
-    public AuditTrail createAuditTrail(String actionMessage, String performedBy) {
-        AuditTrail audit = new AuditTrail();
-        audit.setActionMessage(actionMessage);
-        audit.setDateTriggered(LocalDateTime.now());
-        audit.setPerformedBy(performedBy);
-        return auditTrailRepository.save(audit);
+    @Autowired
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private AuditArchive auditArchive;
+
+    @Autowired
+    private AuditExporter auditExporter;
+
+    @Autowired
+    private AuditMessageRenderer auditMessageRenderer;
+
+    // Structured event: ids and a short payload only, the message is rendered when the trail is read.
+    // Queued once the caller's transaction commits and written in batches by AuditWriter;
+    // a rolled back transaction leaves no audit row
+    public void record(AuditTrail.Action action, AuditTrail.EntityType entityType, Long entityId, Long parentId,
+                       String payload, String performedBy) {
+        AuditEvent event = new AuditEvent(action, entityType, entityId, parentId, payload, performedBy, LocalDateTime.now());
+        TransactionUtils.afterCommit(() -> auditWriter.submit(event));
+    }
+
+    // Newest first, filtered by any combination of user, [from, to) and a message keyword.
+    // Archived months are older than anything left in the table, so they continue where the table runs out.
+    @Transactional(readOnly = true)
+    public CursorPage<AuditTrail> searchAuditLogs(String username, LocalDateTime from, LocalDateTime to,
+                                                  String keyword, String cursor, Integer size) {
+        return search(new AuditFilter(username, from, to, keyword), cursor, size);
     }
 
-    public List<AuditTrail> getAllAuditLogs() {
-        return auditTrailRepository.findAll();
+    // History of one entity, including events of its children (a task's posts, comments and files)
+    @Transactional(readOnly = true)
+    public CursorPage<AuditTrail> getEntityHistory(String entityType, Long entityId, String cursor, Integer size) {
+        AuditTrail.EntityType type = AuditTrail.EntityType.parse(entityType);
+        return search(new AuditFilter(null, null, null, null, type, entityId), cursor, size);
     }
 
-    public List<AuditTrail> getAuditLogsByUser(String username) {
-        return auditTrailRepository.findAll()
-                .stream()
-                .filter(audit -> username.equals(audit.getPerformedBy()))
-                .toList();
+    private CursorPage<AuditTrail> search(AuditFilter filter, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        AuditKey after = auditKey(cursor);
+        Specification<AuditTrail> spec = Specification.allOf(
+                AuditTrailSpecifications.performedBy(filter.username()),
+                AuditTrailSpecifications.triggeredFrom(filter.from()),
+                AuditTrailSpecifications.triggeredBefore(filter.to()),
+                AuditTrailSpecifications.messageContains(filter.keyword()),
+                AuditTrailSpecifications.concerns(filter.entityType(), filter.entityId()),
+                AuditTrailSpecifications.olderThan(after.dateTriggered(), after.id()));
+
+        List<AuditTrail> rows = auditTrailRepository.findBy(spec,
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize + 1).all());
+        if (rows.size() <= pageSize) {
+            AuditKey seek = rows.isEmpty() ? after : keyOf(rows.get(rows.size() - 1));
+            rows = new ArrayList<>(rows);
+            rows.addAll(auditArchive.search(filter, seek.dateTriggered(), seek.id(), pageSize + 1 - rows.size()));
+        }
+        auditMessageRenderer.render(rows);
+        return CursorPage.of(rows, pageSize, audit -> CursorUtils.encode(audit.getDateTriggered(), audit.getId()));
+    }
+
+    // Full export for compliance, written straight to the response as it is read
+    public StreamingResponseBody exportAuditLogs(String username, LocalDateTime from, LocalDateTime to,
+                                                 AuditExporter.Format format, boolean gzip) {
+        AuditFilter filter = new AuditFilter(username, from, to, null);
+        return out -> {
+            if (!gzip) {
+                auditExporter.export(filter, format, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_GZIP_BUFFER_SIZE);
+            auditExporter.export(filter, format, compressed);
+            compressed.finish();
+        };
     }
 
     public AuditTrail addManualAuditLog(AuditTrail auditTrail) {
+        if (auditTrail.getDateTriggered() == null) {
+            auditTrail.setDateTriggered(LocalDateTime.now());
+        }
         return auditTrailRepository.save(auditTrail);
     }
+
+    // Cursor is the (dateTriggered, id) of the last row on the previous page
+    private static AuditKey auditKey(String cursor) {
+        if (CursorUtils.isFirstPage(cursor)) {
+            return new AuditKey(null, null);
+        }
+        String[] parts = CursorUtils.decode(cursor, 2);
+        try {
+            return new AuditKey(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static AuditKey keyOf(AuditTrail audit) {
+        return new AuditKey(audit.getDateTriggered(), audit.getId());
+    }
+
+    private record AuditKey(LocalDateTime dateTriggered, Long id) {
+    }
 } 
\ No newline at end of file
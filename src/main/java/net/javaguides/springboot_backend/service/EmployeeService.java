@@ -1,19 +1,42 @@
 package net.javaguides.springboot_backend.service;
 
+import net.javaguides.springboot_backend.calendar.CalendarVersions;
+import net.javaguides.springboot_backend.calendar.MeetingConflictIndex;
+import net.javaguides.springboot_backend.config.AppConstants;
 import net.javaguides.springboot_backend.entity.*;
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
 import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import net.javaguides.springboot_backend.importer.EmployeeImportReader;
+import net.javaguides.springboot_backend.importer.EmployeeImporter;
 import net.javaguides.springboot_backend.payload.DocumentResponse;
+import net.javaguides.springboot_backend.payload.CursorPage;
+import net.javaguides.springboot_backend.payload.EmployeeImportResult;
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
 import net.javaguides.springboot_backend.repositories.*;
+import net.javaguides.springboot_backend.search.EmployeeDirectoryIndex;
+import net.javaguides.springboot_backend.session.SessionStore;
+import net.javaguides.springboot_backend.storage.BlobStore;
+import net.javaguides.springboot_backend.storage.StoredBlob;
+import net.javaguides.springboot_backend.utils.CursorUtils;
 import net.javaguides.springboot_backend.utils.RandomAlpaNumUtils;
+import net.javaguides.springboot_backend.utils.TransactionUtils;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.security.SecureRandom;
 
 @Service
@@ -32,6 +55,9 @@ public class EmployeeService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private ProfileRenditionService profileRenditionService;
+
     @Autowired
     private ProjectRepository projectRepository;
 
@@ -44,10 +70,55 @@ public class EmployeeService {
     @Autowired
     private RandomAlpaNumUtils rAlpaNumUtils;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private EmployeeImporter employeeImporter;
+
+    @Autowired
+    private EmployeeDirectoryIndex employeeDirectoryIndex;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private MeetingConflictIndex meetingConflictIndex;
+
+    @Autowired
+    private CalendarVersions calendarVersions;
+
     public List<Employee> getAllEmployees() {
         return employeeRepository.findByFirstNameNot("admin");
     }
 
+    // Typo-tolerant prefix search over the in-memory directory; never touches the database.
+    // Ranking is recomputed per page, so the cursor is simply the offset of the next result.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<EmployeeSearchResult> searchEmployees(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int pageSize = CursorUtils.resolvePageSize(size);
+        int offset = 0;
+        if (!CursorUtils.isFirstPage(cursor)) {
+            try {
+                offset = Integer.parseInt(CursorUtils.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<EmployeeSearchResult> matches = employeeDirectoryIndex.search(query);
+        List<EmployeeSearchResult> rows = matches.subList(Math.min(offset, matches.size()),
+                Math.min(offset + pageSize + 1, matches.size()));
+        int pageStart = offset;
+        return CursorPage.of(rows, pageSize, last -> CursorUtils.encode(pageStart + pageSize));
+    }
+
     public Employee createEmployee(Employee employee, String username) {
         // Check if email already exists
         if (employeeRepository.existsByEmail(employee.getEmail())) {
@@ -75,13 +146,12 @@ public class EmployeeService {
         profileEmployee.setEmployee(savedEmployee);
         profileEmployee.setFileName(null);
         profileEmployee.setFileType(null);
-        profileEmployee.setData(null);
+        profileEmployee.setContentHash(null);
         profileRepository.save(profileEmployee);
 
         // Audit trail
-        auditService.createAuditTrail(
-                "New employee " + savedEmployee.getFirstName() + " " + savedEmployee.getLastName() + " was added",
-                username);
+        auditService.record(Action.CREATED, EntityType.EMPLOYEE, savedEmployee.getId(), null,
+                savedEmployee.getFirstName() + " " + savedEmployee.getLastName(), username);
 
         return savedEmployee;
     }
@@ -99,54 +169,63 @@ public class EmployeeService {
         return username;
     }
 
-    public void deleteEmployee(Long id, String username, String employeeName) {
-        try {
-            // First, check if employee exists
-            Employee employee = employeeRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
-
-            // Fetch all documents associated with the employee
-            List<Document> documents = documentRepository.findByEmployeeId(id);
-
-            // Delete documents if they exist
-            if (!documents.isEmpty()) {
-                documentRepository.deleteAll(documents);
-            }
+    public void deleteEmployee(Long id, String username) {
+        deleteEmployees(List.of(id), username);
+    }
 
-            // Delete profile image if exists
-            ProfileEmployee profile = profileRepository.findByEmployeeId(id);
-            if (profile != null) {
-                profileRepository.delete(profile);
-            }
+    // Removes the employees and everything that references them with a fixed number of set-based statements,
+    // however many projects, meetings or documents are involved. All or nothing: an unknown id fails the batch.
+    public int deleteEmployees(Collection<Long> ids, String username) {
+        Set<Long> employeeIds = new LinkedHashSet<>(ids);
+        if (employeeIds.isEmpty()) {
+            throw new IllegalArgumentException("No employee ids given");
+        }
+        if (employeeIds.size() > AppConstants.MAX_BULK_DELETE_SIZE) {
+            throw new IllegalArgumentException("Cannot delete more than " + AppConstants.MAX_BULK_DELETE_SIZE + " employees at once");
+        }
 
-            // Remove employee from all projects (this handles the project_employees table)
-            // We need to do this manually since there's no cascade
-            List<Project> projects = projectRepository.findAll();
-            for (Project project : projects) {
-                if (project.getAssignedEmployees() != null && project.getAssignedEmployees().contains(employee)) {
-                    project.removeEmployee(employee);
-                    projectRepository.save(project);
-                }
-            }
+        List<EmployeeRepository.DeletionTarget> targets = employeeRepository.findDeletionTargets(employeeIds);
+        if (targets.size() < employeeIds.size()) {
+            Set<Long> missing = new LinkedHashSet<>(employeeIds);
+            targets.forEach(target -> missing.remove(target.getId()));
+            throw new ResourceNotFoundException("Employee not found with id: " + missing);
+        }
 
-            // Remove employee from all meetings (this handles the meeting_invitees table)
-            // We need to do this manually since there's no cascade
-            List<Meeting> meetings = meetingRepository.findAll();
-            for (Meeting meeting : meetings) {
-                if (meeting.getInvitees() != null && meeting.getInvitees().contains(employee)) {
-                    meeting.getInvitees().remove(employee);
-                    meetingRepository.save(meeting);
-                }
-            }
+        // Join tables and dependents first, then the employees and their accounts
+        projectRepository.removeEmployeesFromAllProjects(employeeIds);
+        meetingRepository.removeInviteesFromAllMeetings(employeeIds);
+        meetingConflictIndex.removeEmployees(employeeIds);
+        // Cached calendar feeds of deleted employees must not be revalidated
+        calendarVersions.changed(employeeIds);
+        documentRepository.deleteByEmployeeIds(employeeIds);
+        profileRepository.deleteByEmployeeIds(employeeIds);
+        employeeRepository.deleteByIds(employeeIds);
+        List<Long> accountIds = targets.stream().map(EmployeeRepository.DeletionTarget::getAccountId)
+                .filter(Objects::nonNull).toList();
+        if (!accountIds.isEmpty()) {
+            accountRepository.deleteByIds(accountIds);
+            TransactionUtils.afterCommit(() -> sessionStore.invalidateAccounts(accountIds));
+        }
 
-            // Create audit trail before deleting employee
-            auditService.createAuditTrail("Deleted employee " + employeeName, username);
+        // The bulk delete skips entity callbacks, so the search index is told directly
+        TransactionUtils.afterCommit(() -> employeeDirectoryIndex.remove(employeeIds));
 
-            // Delete the employee (this will cascade to account due to @OneToOne cascade)
-            employeeRepository.deleteById(id);
+        // Audit trail
+        for (EmployeeRepository.DeletionTarget target : targets) {
+            auditService.record(Action.DELETED, EntityType.EMPLOYEE, target.getId(), null, target.getName(), username);
+        }
+        return targets.size();
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to delete employee: " + e.getMessage(), e);
+    // Bulk onboarding from a CSV or JSON file, outside any surrounding transaction: EmployeeImporter commits per batch
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EmployeeImportResult importEmployees(MultipartFile file, String username) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("No file uploaded");
+        }
+        EmployeeImportReader.Format format = EmployeeImportReader.Format.detect(file.getOriginalFilename(), file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            return employeeImporter.importEmployees(in, format, username);
         }
     }
 
@@ -155,8 +234,8 @@ public class EmployeeService {
         Employee updated = employeeRepository.save(employee);
 
         // Audit trail
-        auditService.createAuditTrail("Updated employee " + updated.getFirstName() + " " + updated.getLastName(),
-                username);
+        auditService.record(Action.UPDATED, EntityType.EMPLOYEE, id, null,
+                updated.getFirstName() + " " + updated.getLastName(), username);
 
         return updated;
     }
@@ -170,34 +249,28 @@ public class EmployeeService {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
-        // Save document info and file data to DB
+        // Stream the payload into the blob store; the row keeps only metadata and the content hash
+        StoredBlob blob = blobStore.put(file, AppConstants.MAX_FILE_SIZE);
         Document document = Document.builder()
                 .fileName(file.getOriginalFilename())
                 .fileType(file.getContentType())
-                .data(file.getBytes())
+                .fileSize(blob.size())
+                .contentHash(blob.contentHash())
+                .uploadedBy(username)
+                .createdAt(LocalDateTime.now())
                 .employee(employee)
                 .build();
         documentRepository.save(document);
 
         // Audit trail
-        auditService.createAuditTrail(
-                "Uploaded document for " + employee.getFirstName().toLowerCase() + ": " + file.getOriginalFilename(),
-                username);
+        auditService.record(Action.UPLOADED, EntityType.DOCUMENT, document.getId(), employeeId,
+                file.getOriginalFilename(), username);
 
-        return "File uploaded and saved to DB: " + file.getOriginalFilename();
+        return "File uploaded and saved: " + file.getOriginalFilename();
     }
 
     public List<DocumentResponse> getDocumentResponsesByEmployeeId(Long employeeId) {
-        List<Document> documents = documentRepository.findByEmployeeId(employeeId);
-        return documents.stream().map(this::toDocumentResponse).toList();
-    }
-
-    private DocumentResponse toDocumentResponse(Document doc) {
-        return DocumentResponse.builder()
-                .id(doc.getId())
-                .fileName(doc.getFileName())
-                .fileType(doc.getFileType())
-                .build();
+        return documentRepository.findResponsesByEmployeeId(employeeId);
     }
 
     public Document getDocumentById(Long documentId) {
@@ -205,14 +278,20 @@ public class EmployeeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
     }
 
-    public void deleteDocument(Long documentId, String username, String employeeName, String documentName) {
-        if (!documentRepository.existsById(documentId)) {
-            throw new ResourceNotFoundException("Document not found");
+    public Resource getDocumentContent(Document document) {
+        if (document.getContentHash() == null) {
+            throw new ResourceNotFoundException("Document content not available");
         }
+        return blobStore.get(document.getContentHash());
+    }
+
+    public void deleteDocument(Long documentId, String username, String employeeName, String documentName) {
+        Long employeeId = documentRepository.findEmployeeIdById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
         documentRepository.deleteById(documentId);
 
         // Audit trail
-        auditService.createAuditTrail("Deleted " + documentName + " for " + employeeName, username);
+        auditService.record(Action.DELETED, EntityType.DOCUMENT, documentId, employeeId, documentName, username);
     }
 
     public ProfileEmployee uploadProfileImage(Long employeeId, MultipartFile file) throws IOException {
@@ -234,9 +313,14 @@ public class EmployeeService {
         profileEmployee.setEmployee(employee);
         profileEmployee.setFileName(file.getOriginalFilename());
         profileEmployee.setFileType(file.getContentType());
-        profileEmployee.setData(file.getBytes());
-
-        return profileRepository.save(profileEmployee);
+        StoredBlob blob = blobStore.put(file, AppConstants.MAX_IMAGE_SIZE);
+        profileEmployee.setFileSize(blob.size());
+        profileEmployee.setContentHash(blob.contentHash());
+        ProfileEmployee saved = profileRepository.save(profileEmployee);
+
+        // Resize off the request thread, once the new row is visible to other transactions
+        TransactionUtils.afterCommit(() -> profileRenditionService.generateRenditions(saved.getId()));
+        return saved;
     }
 
     public ProfileEmployee getProfileImage(Long employeeId) {
@@ -247,6 +331,10 @@ public class EmployeeService {
         return profileRepository.findByEmployeeId(employeeId);
     }
 
+    public Resource getProfileImageContent(ProfileEmployee profile) {
+        return blobStore.get(profile.getContentHash());
+    }
+
     public void deleteProfileImage(Long employeeId) {
         ProfileEmployee profile = profileRepository.findByEmployeeId(employeeId);
         if (profile != null) {
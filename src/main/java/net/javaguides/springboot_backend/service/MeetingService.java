@@ -1,26 +1,60 @@
 package net.javaguides.springboot_backend.service;
 
+import net.javaguides.springboot_backend.calendar.CalendarVersions;
+import net.javaguides.springboot_backend.calendar.ICalendarWriter;
+import net.javaguides.springboot_backend.calendar.MeetingConflictIndex;
+import net.javaguides.springboot_backend.calendar.MeetingOccurrences;
+import net.javaguides.springboot_backend.calendar.MeetingTimes;
+import net.javaguides.springboot_backend.calendar.RecurrenceRule;
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
 import net.javaguides.springboot_backend.entity.Employee;
 import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.exception.MeetingConflictException;
 import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import net.javaguides.springboot_backend.payload.AvailabilityRequest;
+import net.javaguides.springboot_backend.payload.AvailabilitySlot;
+import net.javaguides.springboot_backend.payload.CursorPage;
+import net.javaguides.springboot_backend.payload.MeetingConflict;
+import net.javaguides.springboot_backend.payload.MeetingInvitee;
 import net.javaguides.springboot_backend.payload.MeetingRequest;
+import net.javaguides.springboot_backend.payload.MeetingSummary;
+import net.javaguides.springboot_backend.reminder.MeetingReminderScheduler;
 import net.javaguides.springboot_backend.repositories.EmployeeRepository;
 import net.javaguides.springboot_backend.repositories.MeetingRepository;
 import net.javaguides.springboot_backend.status.MeetingStatus;
+import net.javaguides.springboot_backend.utils.CursorUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MeetingService {
 
+    private static final Comparator<MeetingSummary> BY_START = Comparator.comparing(MeetingSummary::getMeetingDate)
+            .thenComparing(MeetingSummary::getMeetingTime)
+            .thenComparing(MeetingSummary::getId);
+
     @Autowired
     private MeetingRepository meetingRepository;
 
@@ -30,17 +64,73 @@ public class MeetingService {
     @Autowired
     private AuditService auditService;
 
-    public List<Meeting> getAllMeetings() {
-        return meetingRepository.findAllWithInvitees();
+    @Autowired
+    private MeetingConflictIndex meetingConflictIndex;
+
+    @Autowired
+    private CalendarVersions calendarVersions;
+
+    @Autowired
+    private MeetingReminderScheduler meetingReminderScheduler;
+
+    // How far ahead recurring series are listed as upcoming
+    @Value("${app.meetings.recurrence.horizon-days:180}")
+    private int recurrenceHorizonDays;
+
+    /**
+     * Meetings, and occurrences of recurring series, dated within [from, to] in start order, optionally only
+     * those the employee is invited to. Pages are keyed on (date, time, id): single meetings are paged in the
+     * database, series overlapping the rest of the window are expanded in memory and merged in. The page's
+     * invitees are loaded afterwards with one batched query, so a page costs three statements at most.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getMeetings(LocalDate from, LocalDate to, Long employeeId, String cursor, Integer size) {
+        return listMeetings(from, to, employeeId, null, null, cursor, size);
     }
 
-    public List<Meeting> getUpcomingMeetings() {
-        return meetingRepository.findUpcomingMeetings(LocalDate.now());
+    // As getMeetings, with the creator and status filters; null leaves a filter out
+    private CursorPage<MeetingSummary> listMeetings(LocalDate from, LocalDate to, Long employeeId, String createdBy,
+                                                    MeetingStatus status, String cursor, Integer size) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A date range with from on or before to is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= AppConstants.MAX_MEETING_RANGE_DAYS) {
+            throw new IllegalArgumentException("The range cannot exceed " + AppConstants.MAX_MEETING_RANGE_DAYS + " days");
+        }
+        int pageSize = CursorUtils.resolvePageSize(size);
+        MeetingKey after = meetingKey(cursor, from);
+
+        List<MeetingSummary> rows = new ArrayList<>();
+        meetingRepository.findSinglesInWindowAfter(from, to, after.date(), after.time(), after.id(), employeeId,
+                createdBy, status, Limit.of(pageSize + 1)).forEach(meeting -> rows.add(summaryOf(meeting, meeting.getMeetingDate())));
+        // Occurrences before the cursor's date are on earlier pages; each series contributes at most a page's worth
+        LocalDate seriesFrom = after.date().isAfter(from) ? after.date() : from;
+        for (Meeting series : meetingRepository.findSeriesInWindow(seriesFrom, to, employeeId, createdBy, status)) {
+            MeetingOccurrences.dates(series, seriesFrom, to)
+                    .map(date -> summaryOf(series, date))
+                    .filter(after::isBefore)
+                    .limit(pageSize + 1)
+                    .forEach(rows::add);
+        }
+        rows.sort(BY_START);
+
+        CursorPage<MeetingSummary> page = CursorPage.of(rows.size() > pageSize + 1 ? rows.subList(0, pageSize + 1) : rows,
+                pageSize, meeting -> CursorUtils.encode(meeting.getMeetingDate(), meeting.getMeetingTime(), meeting.getId()));
+        attachInvitees(page.getItems());
+        return page;
     }
 
-    public List<Meeting> getMeetingsByDate(String date) {
+    // From today up to the recurrence horizon
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getUpcomingMeetings(String cursor, Integer size) {
+        LocalDate today = LocalDate.now();
+        return getMeetings(today, today.plusDays(recurrenceHorizonDays), null, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getMeetingsByDate(String date, String cursor, Integer size) {
         LocalDate meetingDate = LocalDate.parse(date);
-        return meetingRepository.findByMeetingDateOrderByMeetingTimeAsc(meetingDate);
+        return getMeetings(meetingDate, meetingDate, null, cursor, size);
     }
 
     public Meeting getMeetingById(Long id) {
@@ -72,39 +162,66 @@ public class MeetingService {
         // Parse date and time from strings
         LocalDate meetingDate = meetingRequest.getDate();
         LocalTime meetingTime = meetingRequest.getTime();
+        int durationMinutes = validateDuration(meetingRequest.getDurationMinutes());
 
         // Create meeting without invitees first
         Meeting meeting = Meeting.builder()
                 .title(meetingRequest.getTitle())
                 .meetingDate(meetingDate)
                 .meetingTime(meetingTime)
+                .durationMinutes(durationMinutes)
                 .createdAt(LocalDateTime.now())
                 .createdBy(username)
                 .status(MeetingStatus.SCHEDULED)
                 .notes(meetingRequest.getNotes())
                 .build();
 
+        applyRecurrence(meeting, meetingRequest.getRecurrenceRule());
+
         // Set invitees if provided
         if (meetingRequest.getInviteeIds() != null && !meetingRequest.getInviteeIds().isEmpty()) {
             List<Employee> invitees = employeeRepository.findAllById(meetingRequest.getInviteeIds());
             meeting.setInvitees(invitees);
         }
 
+        // Turn double bookings away before inserting; book() below re-checks atomically once the id exists
+        if (!meetingRequest.isAllowConflicts()) {
+            List<MeetingConflict> conflicts = meetingConflictIndex.findConflicts(meeting, inviteeIdsOf(meeting));
+            if (!conflicts.isEmpty()) {
+                throw conflictException(conflicts);
+            }
+        }
+
         Meeting savedMeeting = meetingRepository.save(meeting);
+        book(savedMeeting, meetingRequest.isAllowConflicts());
+        calendarVersions.changed(inviteeIdsOf(savedMeeting));
+        meetingReminderScheduler.meetingChanged(savedMeeting);
 
         // Audit trail
-        auditService.createAuditTrail("Created meeting: " + savedMeeting.getTitle(), username);
+        auditService.record(Action.CREATED, EntityType.MEETING, savedMeeting.getId(), null, savedMeeting.getTitle(), username);
 
         return savedMeeting;
     }
 
     public Meeting updateMeeting(Long id, MeetingRequest meetingRequest, String username) {
         Meeting meeting = getMeetingById(id);
-        
+        // Employees dropped from the meeting see the change in their feed too
+        Set<Long> affectedEmployeeIds = new HashSet<>(inviteeIdsOf(meeting));
+
         meeting.setTitle(meetingRequest.getTitle());
         meeting.setMeetingDate(meetingRequest.getDate());
         meeting.setMeetingTime(meetingRequest.getTime());
+        // Requests from before durations existed leave the duration as it was
+        if (meetingRequest.getDurationMinutes() != null) {
+            meeting.setDurationMinutes(validateDuration(meetingRequest.getDurationMinutes()));
+        }
         meeting.setNotes(meetingRequest.getNotes());
+        if (meetingRequest.getRecurrenceRule() != null) {
+            applyRecurrence(meeting, meetingRequest.getRecurrenceRule());
+        } else if (MeetingOccurrences.isRecurring(meeting)) {
+            // The first occurrence may have moved, which moves the end of a COUNT series
+            applyRecurrence(meeting, meeting.getRecurrenceRule());
+        }
 
         // Update invitees if provided
         if (meetingRequest.getInviteeIds() != null) {
@@ -117,20 +234,36 @@ public class MeetingService {
         }
 
         Meeting updatedMeeting = meetingRepository.save(meeting);
+        if (updatedMeeting.getStatus() != MeetingStatus.CANCELLED) {
+            book(updatedMeeting, meetingRequest.isAllowConflicts());
+        }
+        affectedEmployeeIds.addAll(inviteeIdsOf(updatedMeeting));
+        calendarVersions.changed(affectedEmployeeIds);
+        meetingReminderScheduler.meetingChanged(updatedMeeting);
 
         // Audit trail
-        auditService.createAuditTrail("Updated meeting: " + updatedMeeting.getTitle(), username);
+        auditService.record(Action.UPDATED, EntityType.MEETING, id, null, updatedMeeting.getTitle(), username);
 
         return updatedMeeting;
     }
 
     public Meeting updateMeetingStatus(Long id, MeetingStatus status, String username) {
         Meeting meeting = getMeetingById(id);
+        MeetingStatus previousStatus = meeting.getStatus();
         meeting.setStatus(status);
         Meeting updatedMeeting = meetingRepository.save(meeting);
+        if (status == MeetingStatus.CANCELLED) {
+            meetingConflictIndex.release(id);
+        } else if (previousStatus == MeetingStatus.CANCELLED) {
+            // Its time was given up on cancelling, and others may have booked it since
+            book(updatedMeeting, false);
+        }
+        // Otherwise the meeting keeps the booking it has, including any conflicts it was saved with
+        calendarVersions.changed(inviteeIdsOf(updatedMeeting));
+        meetingReminderScheduler.meetingChanged(updatedMeeting);
 
         // Audit trail
-        auditService.createAuditTrail("Updated meeting status: " + updatedMeeting.getTitle() + " to " + status.getDisplayName(), username);
+        auditService.record(Action.STATUS_CHANGED, EntityType.MEETING, id, null, status.name(), username);
 
         return updatedMeeting;
     }
@@ -138,24 +271,208 @@ public class MeetingService {
     public void deleteMeeting(Long id, String username) {
         Meeting meeting = getMeetingById(id);
         String meetingTitle = meeting.getTitle();
+        List<Long> inviteeIds = inviteeIdsOf(meeting);
         
         // Delete the meeting
         meetingRepository.deleteById(id);
+        meetingConflictIndex.release(id);
+        calendarVersions.changed(inviteeIds);
+        meetingReminderScheduler.meetingRemoved(id);
 
         // Audit trail
-        auditService.createAuditTrail("Deleted meeting: " + meetingTitle, username);
+        auditService.record(Action.DELETED, EntityType.MEETING, id, null, meetingTitle, username);
     }
 
-    public List<Meeting> getMeetingsByCreator(String username) {
-        return meetingRepository.findByCreatedByOrderByCreatedAtDesc(username);
+    // Cancels one occurrence of a recurring series, leaving the rest of the series as it is
+    public Meeting cancelOccurrence(Long id, LocalDate date, String username) {
+        Meeting meeting = getMeetingById(id);
+        if (!MeetingOccurrences.isRecurring(meeting)) {
+            throw new IllegalArgumentException("Meeting " + id + " is not recurring; cancel or delete it instead");
+        }
+        if (!MeetingOccurrences.isOccurrence(meeting, date)) {
+            throw new ResourceNotFoundException("Meeting " + id + " has no occurrence on " + date);
+        }
+        meeting.setRecurrenceExceptions(MeetingOccurrences.withException(meeting, date));
+        Meeting updatedMeeting = meetingRepository.save(meeting);
+        if (updatedMeeting.getStatus() != MeetingStatus.CANCELLED) {
+            // Only frees time, so it cannot conflict
+            book(updatedMeeting, true);
+        }
+        calendarVersions.changed(inviteeIdsOf(updatedMeeting));
+        meetingReminderScheduler.meetingChanged(updatedMeeting);
+
+        // Audit trail
+        auditService.record(Action.UPDATED, EntityType.MEETING, id, null,
+                updatedMeeting.getTitle() + " (occurrence on " + date + " cancelled)", username);
+
+        return updatedMeeting;
     }
 
-    public List<Meeting> getMeetingsByStatus(MeetingStatus status) {
-        return meetingRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getMeetingsByCreator(String username, LocalDate from, LocalDate to, String cursor, Integer size) {
+        return listMeetings(from, to, null, username, null, cursor, size);
     }
 
-    public List<Meeting> getMeetingsByEmployeeId(Long employeeId) {
-        return meetingRepository.findMeetingsByEmployeeId(employeeId);
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getMeetingsByStatus(MeetingStatus status, LocalDate from, LocalDate to, String cursor, Integer size) {
+        return listMeetings(from, to, null, null, status, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingSummary> getMeetingsByEmployeeId(Long employeeId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        return getMeetings(from, to, employeeId, cursor, size);
+    }
+
+    // ETag of the employee's calendar feed, from the in-memory change counters; no database access
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getCalendarETag(Long employeeId) {
+        return calendarVersions.eTagOf(employeeId);
+    }
+
+    // iCalendar feed of every meeting the employee is invited to, read in keyset pages as it is written
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportCalendar(Long employeeId) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
+        String calendarName = "Meetings of " + employee.getFirstName() + " " + employee.getLastName();
+        return out -> {
+            ICalendarWriter calendar = new ICalendarWriter(out);
+            calendar.begin(calendarName);
+            long afterId = 0;
+            List<Meeting> page;
+            do {
+                page = meetingRepository.findByInviteeAfter(employeeId, afterId, Limit.of(AppConstants.CALENDAR_FEED_PAGE_SIZE));
+                for (Meeting meeting : page) {
+                    calendar.event(meeting);
+                    afterId = meeting.getId();
+                }
+                calendar.flush();
+            } while (page.size() == AppConstants.CALENDAR_FEED_PAGE_SIZE);
+            calendar.end();
+        };
+    }
+
+    // Answered from the in-memory busy bitmaps; no database access
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AvailabilitySlot findCommonAvailability(AvailabilityRequest request) {
+        if (request.getEmployeeIds() == null || request.getEmployeeIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one employee id is required");
+        }
+        if (request.getEmployeeIds().size() > AppConstants.MAX_AVAILABILITY_EMPLOYEES) {
+            throw new IllegalArgumentException("Cannot check more than " + AppConstants.MAX_AVAILABILITY_EMPLOYEES + " employees at once");
+        }
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("A range with from before to is required");
+        }
+        if (ChronoUnit.DAYS.between(request.getFrom(), request.getTo()) >= AppConstants.MAX_AVAILABILITY_RANGE_DAYS) {
+            throw new IllegalArgumentException("The range cannot exceed " + AppConstants.MAX_AVAILABILITY_RANGE_DAYS + " days");
+        }
+        LocalTime earliest = request.getEarliestTime() != null ? request.getEarliestTime() : LocalTime.MIDNIGHT;
+        if (request.getLatestTime() != null && !earliest.isBefore(request.getLatestTime())) {
+            throw new IllegalArgumentException("earliestTime must be before latestTime");
+        }
+        int durationMinutes = validateDuration(request.getDurationMinutes());
+
+        LocalDateTime start = meetingConflictIndex.findCommonFreeSlot(request.getEmployeeIds(), request.getFrom(),
+                request.getTo(), durationMinutes, earliest, request.getLatestTime());
+        return start == null ? null : new AvailabilitySlot(start, start.plusMinutes(durationMinutes));
+    }
+
+    // Sets or clears (blank rule) the meeting's recurrence; the series must have at least one occurrence
+    private void applyRecurrence(Meeting meeting, String recurrenceRule) {
+        if (recurrenceRule == null || recurrenceRule.isBlank()) {
+            meeting.setRecurrenceRule(null);
+            meeting.setRecurrenceEnd(null);
+            meeting.setRecurrenceExceptions(null);
+            return;
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(recurrenceRule);
+        LocalDate last = rule.lastOccurrence(meeting.getMeetingDate());
+        if (rule.isBounded() && last == null) {
+            throw new IllegalArgumentException("Recurrence rule has no occurrences from " + meeting.getMeetingDate());
+        }
+        meeting.setRecurrenceRule(rule.toString());
+        meeting.setRecurrenceEnd(last);
+    }
+
+    private int validateDuration(Integer durationMinutes) {
+        int minutes = MeetingTimes.durationOf(durationMinutes);
+        if (minutes <= 0 || minutes > AppConstants.MAX_MEETING_DURATION_MINUTES) {
+            throw new IllegalArgumentException("Meeting duration must be between 1 and "
+                    + AppConstants.MAX_MEETING_DURATION_MINUTES + " minutes");
+        }
+        return minutes;
+    }
+
+    // Reserves the invitees' time for the meeting, or fails with the meetings it would overlap
+    private void book(Meeting meeting, boolean allowConflicts) {
+        List<MeetingConflict> conflicts = meetingConflictIndex.book(meeting, inviteeIdsOf(meeting), allowConflicts);
+        if (!conflicts.isEmpty() && !allowConflicts) {
+            throw conflictException(conflicts);
+        }
+    }
+
+    private static List<Long> inviteeIdsOf(Meeting meeting) {
+        return meeting.getInvitees() == null ? List.of() : meeting.getInvitees().stream().map(Employee::getId).toList();
+    }
+
+    private static MeetingConflictException conflictException(List<MeetingConflict> conflicts) {
+        long invitees = conflicts.stream().map(MeetingConflict::getEmployeeId).distinct().count();
+        return new MeetingConflictException(invitees + " invitee(s) already have a meeting at that time", conflicts);
+    }
+
+    private static MeetingSummary summaryOf(Meeting meeting, LocalDate date) {
+        return MeetingSummary.builder()
+                .id(meeting.getId())
+                .title(meeting.getTitle())
+                .meetingDate(date)
+                .meetingTime(meeting.getMeetingTime())
+                .durationMinutes(MeetingTimes.durationOf(meeting.getDurationMinutes()))
+                .recurrenceRule(meeting.getRecurrenceRule())
+                .createdBy(meeting.getCreatedBy())
+                .status(meeting.getStatus())
+                .notes(meeting.getNotes())
+                .build();
+    }
+
+    // One IN query for the whole page; occurrences of a series share its invitee list
+    private void attachInvitees(List<MeetingSummary> meetings) {
+        if (meetings.isEmpty()) {
+            return;
+        }
+        Set<Long> meetingIds = meetings.stream().map(MeetingSummary::getId).collect(Collectors.toSet());
+        Map<Long, List<MeetingInvitee>> invitees = new HashMap<>();
+        for (MeetingRepository.InviteeRow row : meetingRepository.findInviteesOfMeetings(meetingIds)) {
+            String avatarUrl = row.getContentHash() == null ? null
+                    : "/api/employees/" + row.getEmployeeId() + "/profile-image/48?v=" + row.getContentHash();
+            invitees.computeIfAbsent(row.getMeetingId(), id -> new ArrayList<>())
+                    .add(new MeetingInvitee(row.getEmployeeId(), row.getFirstName() + " " + row.getLastName(), avatarUrl));
+        }
+        meetings.forEach(meeting -> meeting.setInvitees(invitees.getOrDefault(meeting.getId(), List.of())));
+    }
+
+    // Keyset cursor for meeting lists: the (date, time, id) of the last row, or just before the window on the first page
+    private static MeetingKey meetingKey(String cursor, LocalDate from) {
+        if (CursorUtils.isFirstPage(cursor)) {
+            return new MeetingKey(from, LocalTime.MIN, 0L);
+        }
+        String[] parts = CursorUtils.decode(cursor, 3);
+        try {
+            return new MeetingKey(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private record MeetingKey(LocalDate date, LocalTime time, long id) {
+        boolean isBefore(MeetingSummary meeting) {
+            int byDate = date.compareTo(meeting.getMeetingDate());
+            if (byDate != 0) {
+                return byDate < 0;
+            }
+            int byTime = time.compareTo(meeting.getMeetingTime());
+            return byTime != 0 ? byTime < 0 : id < meeting.getId();
+        }
     }
 
 
@@ -0,0 +1,184 @@
+package net.javaguides.springboot_backend.service;
+
+import net.javaguides.springboot_backend.config.AsyncConfig;
+import net.javaguides.springboot_backend.entity.ProfileEmployee;
+import net.javaguides.springboot_backend.repositories.ProfileRepository;
+import net.javaguides.springboot_backend.storage.BlobStore;
+import net.javaguides.springboot_backend.utils.ByteBoundedLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Produces fixed-size JPEG renditions of profile images and serves them.
+ * Renditions are stored in the BlobStore like any other payload, so their content hash doubles as a strong ETag;
+ * the smallest ones are requested on every employee grid render, so recently served bytes stay in an LRU.
+ */
+@Service
+public class ProfileRenditionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileRenditionService.class);
+
+    public static final List<Integer> RENDITION_SIZES = List.of(48, 128, 512);
+    private static final String RENDITION_TYPE = "image/jpeg";
+    private static final String RENDITION_FORMAT = "jpg";
+    // A decoded pixel takes 4 bytes, so this caps a single decode at about 100 MB of heap
+    static final long MAX_PIXELS = 25_000_000L;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    private final ByteBoundedLruCache<String> hotRenditions;
+
+    public ProfileRenditionService(@Value("${app.profile.renditions.cache-bytes:16777216}") long cacheBytes) {
+        this.hotRenditions = new ByteBoundedLruCache<>(cacheBytes);
+    }
+
+    // A transaction of its own: when the rendition queue is full the job runs on the caller, inside the
+    // afterCommit callback of the upload, whose finished transaction would otherwise swallow the writes
+    @Async(AsyncConfig.RENDITION_EXECUTOR)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void generateRenditions(Long profileId) {
+        // The image may have been replaced or removed before this ran
+        ProfileEmployee profile = profileRepository.findById(profileId).orElse(null);
+        if (profile == null || profile.getContentHash() == null) {
+            return;
+        }
+
+        try {
+            BufferedImage original;
+            try (InputStream content = blobStore.get(profile.getContentHash()).getInputStream()) {
+                original = decode(content, profileId);
+            }
+            if (original == null) {
+                return;
+            }
+
+            for (Integer size : RENDITION_SIZES) {
+                byte[] jpeg = encode(scaleToFit(original, size));
+                String contentHash = blobStore.put(new ByteArrayInputStream(jpeg), jpeg.length).contentHash();
+                profile.getRenditions().put(size, contentHash);
+            }
+        } catch (IOException e) {
+            log.warn("Could not render profile {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    // A small upload can declare a huge canvas, so the header is checked before any pixels are allocated
+    static BufferedImage decode(InputStream content, Long profileId) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.info("Profile {} is not a decodable image, serving the original only", profileId);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    log.info("Profile {} is {}x{}, too large to render, serving the original only",
+                            profileId, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Returns the rendition for the requested size. Until it has been generated (or when the upload
+     * is not an image) the original is returned instead, flagged so it is not cached as the rendition.
+     */
+    public Rendition getRendition(ProfileEmployee profile, int size) {
+        if (!RENDITION_SIZES.contains(size)) {
+            throw new IllegalArgumentException("Unsupported image size " + size + ", expected one of " + RENDITION_SIZES);
+        }
+
+        Optional<String> renditionHash = profileRepository.findRenditionHash(profile.getId(), size);
+        if (renditionHash.isEmpty()) {
+            return new Rendition(profile.getContentHash(), profile.getFileType(), blobStore.get(profile.getContentHash()), false);
+        }
+
+        String contentHash = renditionHash.get();
+        byte[] bytes = hotRenditions.get(contentHash);
+        if (bytes == null) {
+            try {
+                bytes = blobStore.get(contentHash).getContentAsByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read rendition " + contentHash, e);
+            }
+            hotRenditions.put(contentHash, bytes);
+        }
+        return new Rendition(contentHash, RENDITION_TYPE, new ByteArrayResource(bytes), true);
+    }
+
+    // Fits the image inside a size x size box without upscaling, halving in steps so large photos stay sharp
+    private static BufferedImage scaleToFit(BufferedImage source, int size) {
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // Draws onto an opaque RGB canvas; JPEG has no alpha, so transparency becomes white
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, RENDITION_FORMAT, out);
+        return out.toByteArray();
+    }
+
+    public record Rendition(String contentHash, String contentType, Resource content, boolean resized) {
+    }
+}
@@ -1,5 +1,7 @@
 package net.javaguides.springboot_backend.service;
 
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
 import net.javaguides.springboot_backend.entity.Task;
 import net.javaguides.springboot_backend.entity.TaskComment;
 import net.javaguides.springboot_backend.entity.TaskPost;
@@ -62,7 +64,7 @@ public class TaskFeedService {
         TaskPost savedPost = taskPostRepository.save(post);
         
         // Audit the action
-        auditService.createAuditTrail("Created post in task: " + task.getName() + " (Task ID: " + taskId + ", Post ID: " + savedPost.getId() + ")", username);
+        auditService.record(Action.CREATED, EntityType.TASK_POST, savedPost.getId(), taskId, null, username);
         
         return savedPost;
     }
@@ -81,8 +83,8 @@ public class TaskFeedService {
         
         TaskPost updatedPost = taskPostRepository.save(post);
         
-        // Audit the action
-        auditService.createAuditTrail("Updated post in task: " + post.getTask().getName() + " (Task ID: " + post.getTask().getId() + ", Post ID: " + postId + ")", username);
+        // Audit the action (the task proxy yields its id without being loaded)
+        auditService.record(Action.UPDATED, EntityType.TASK_POST, postId, post.getTask().getId(), null, username);
         
         return updatedPost;
     }
@@ -97,7 +99,7 @@ public class TaskFeedService {
         }
         
         // Audit the action before deletion
-        auditService.createAuditTrail("Deleted post in task: " + post.getTask().getName() + " (Task ID: " + post.getTask().getId() + ", Post ID: " + postId + ")", username);
+        auditService.record(Action.DELETED, EntityType.TASK_POST, postId, post.getTask().getId(), null, username);
         
         taskPostRepository.deleteById(postId);
     }
@@ -126,14 +128,16 @@ public class TaskFeedService {
                 .content(commentRequest.getContent())
                 .author(username)
                 .post(post)
+                .task(post.getTask())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
         
         TaskComment savedComment = taskCommentRepository.save(comment);
         
-        // Audit the action
-        auditService.createAuditTrail("Created comment on post in task: " + post.getTask().getName() + " (Task ID: " + post.getTask().getId() + ", Post ID: " + postId + ", Comment ID: " + savedComment.getId() + ")", username);
+        // Audit the action; the payload is the post id
+        auditService.record(Action.CREATED, EntityType.TASK_COMMENT, savedComment.getId(), post.getTask().getId(),
+                String.valueOf(postId), username);
         
         return savedComment;
     }
@@ -152,8 +156,9 @@ public class TaskFeedService {
         
         TaskComment updatedComment = taskCommentRepository.save(comment);
         
-        // Audit the action
-        auditService.createAuditTrail("Updated comment on post in task: " + comment.getPost().getTask().getName() + " (Task ID: " + comment.getPost().getTask().getId() + ", Post ID: " + comment.getPost().getId() + ", Comment ID: " + commentId + ")", username);
+        // Audit the action; the payload is the post id
+        auditService.record(Action.UPDATED, EntityType.TASK_COMMENT, commentId, taskIdOf(comment),
+                String.valueOf(comment.getPost().getId()), username);
         
         return updatedComment;
     }
@@ -167,8 +172,9 @@ public class TaskFeedService {
             throw new RuntimeException("You are not authorized to delete this comment");
         }
         
-        // Audit the action before deletion
-        auditService.createAuditTrail("Deleted comment on post in task: " + comment.getPost().getTask().getName() + " (Task ID: " + comment.getPost().getTask().getId() + ", Post ID: " + comment.getPost().getId() + ", Comment ID: " + commentId + ")", username);
+        // Audit the action before deletion; the payload is the post id
+        auditService.record(Action.DELETED, EntityType.TASK_COMMENT, commentId, taskIdOf(comment),
+                String.valueOf(comment.getPost().getId()), username);
         
         taskCommentRepository.deleteById(commentId);
     }
@@ -204,4 +210,10 @@ public class TaskFeedService {
     public List<TaskPost> getAllPostsByAuthor(String author) {
         return taskPostRepository.findByAuthorOrderByCreatedAtDesc(author);
     }
-} 
\ No newline at end of file
+    
+    // Comments carry their task directly; only older rows without it go through the post
+    private static Long taskIdOf(TaskComment comment) {
+        Task task = comment.getTask() != null ? comment.getTask() : comment.getPost().getTask();
+        return task.getId();
+    }
+}
@@ -1,5 +1,8 @@
 package net.javaguides.springboot_backend.service;
 
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.entity.AuditTrail.Action;
+import net.javaguides.springboot_backend.entity.AuditTrail.EntityType;
 import net.javaguides.springboot_backend.entity.Project;
 import net.javaguides.springboot_backend.entity.Task;
 import net.javaguides.springboot_backend.entity.Task.TaskPriority;
@@ -7,26 +10,39 @@ import net.javaguides.springboot_backend.entity.Task.TaskStatus;
 import net.javaguides.springboot_backend.entity.Task.TaskStage;
 import net.javaguides.springboot_backend.entity.TaskFile;
 import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import net.javaguides.springboot_backend.payload.CursorPage;
+import net.javaguides.springboot_backend.payload.TaskFileResponse;
+import net.javaguides.springboot_backend.payload.TaskStatistics;
+import net.javaguides.springboot_backend.payload.TaskSummaryResponse;
 import net.javaguides.springboot_backend.repositories.ProjectRepository;
 import net.javaguides.springboot_backend.repositories.TaskRepository;
+import net.javaguides.springboot_backend.repositories.TaskRepository.TaskStatisticsView;
 import net.javaguides.springboot_backend.repositories.TaskFileRepository;
+import net.javaguides.springboot_backend.storage.BlobStore;
+import net.javaguides.springboot_backend.storage.StoredBlob;
+import net.javaguides.springboot_backend.utils.CursorUtils;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
 
 
 @Service
 @Transactional
 public class TaskService {
     
+    // Lower bound for the first page of deadline-ordered lists (MySQL DATE starts at 1000-01-01)
+    private static final LocalDate FIRST_PAGE_DEADLINE = LocalDate.of(1000, 1, 1);
+    
     @Autowired
     private TaskRepository taskRepository;
     
@@ -39,9 +55,21 @@ public class TaskService {
     @Autowired
     private TaskFileRepository taskFileRepository;
     
-    // Get all tasks
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    @Autowired
+    private BlobStore blobStore;
+    
+    // Get all tasks, one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getAllTasks(String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesAfter(afterId(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+    
+    // Get tasks assigned to a person across all projects
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByAssignedTo(String assignedTo, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByAssignedToAfter(assignedTo, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
     // Get task by ID
@@ -50,9 +78,18 @@ public class TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
     }
     
+    // Get task summary by ID
+    @Transactional(readOnly = true)
+    public TaskSummaryResponse getTaskSummaryById(Long id) {
+        return taskRepository.findSummaryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    }
+    
     // Get all tasks by project ID
-    public List<Task> getTasksByProjectId(Long projectId) {
-        return taskRepository.findByProjectId(projectId);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByProjectId(Long projectId, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByProjectIdAfter(projectId, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
     // Create a new task for a project
@@ -129,89 +166,85 @@ public class TaskService {
     }
     
     // Get tasks by status for a project
-    public List<Task> getTasksByProjectIdAndStatus(Long projectId, TaskStatus status) {
-        return taskRepository.findByProjectIdAndStatus(projectId, status);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByProjectIdAndStatus(Long projectId, TaskStatus status, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByProjectIdAndStatusAfter(projectId, status, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
     // Get tasks by priority for a project
-    public List<Task> getTasksByProjectIdAndPriority(Long projectId, TaskPriority priority) {
-        return taskRepository.findByProjectIdAndPriority(projectId, priority);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByProjectIdAndPriority(Long projectId, TaskPriority priority, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByProjectIdAndPriorityAfter(projectId, priority, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
     // Get tasks by stage for a project
-    public List<Task> getTasksByProjectIdAndStage(Long projectId, TaskStage stage) {
-        return taskRepository.findByProjectIdAndStage(projectId, stage);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByProjectIdAndStage(Long projectId, TaskStage stage, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByProjectIdAndStageAfter(projectId, stage, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
     // Get tasks by assigned person for a project
-    public List<Task> getTasksByProjectIdAndAssignedTo(Long projectId, String assignedTo) {
-        return taskRepository.findByProjectIdAndAssignedTo(projectId, assignedTo);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksByProjectIdAndAssignedTo(Long projectId, String assignedTo, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        return idPage(taskRepository.findSummariesByProjectIdAndAssignedToAfter(projectId, assignedTo, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
     
-    // Get overdue tasks for a project
-    public List<Task> getOverdueTasksByProjectId(Long projectId) {
-        return taskRepository.findOverdueTasksByProjectId(projectId, LocalDate.now());
+    // Get overdue tasks across all projects, earliest deadline first
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getOverdueTasks(String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        DeadlineKey after = deadlineKey(cursor);
+        return deadlinePage(taskRepository.findOverdueSummariesAfter(LocalDate.now(), after.deadline(), after.id(),
+                Limit.of(pageSize + 1)), pageSize);
     }
     
-    // Get tasks due soon for a project
-    public List<Task> getTasksDueSoonByProjectId(Long projectId) {
+    // Get overdue tasks for a project, earliest deadline first
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getOverdueTasksByProjectId(Long projectId, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        DeadlineKey after = deadlineKey(cursor);
+        return deadlinePage(taskRepository.findOverdueSummariesByProjectIdAfter(projectId, LocalDate.now(), after.deadline(),
+                after.id(), Limit.of(pageSize + 1)), pageSize);
+    }
+    
+    // Get tasks due soon for a project, earliest deadline first
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryResponse> getTasksDueSoonByProjectId(Long projectId, String cursor, Integer size) {
+        int pageSize = CursorUtils.resolvePageSize(size);
+        DeadlineKey after = deadlineKey(cursor);
         LocalDate today = LocalDate.now();
         LocalDate nextWeek = today.plusDays(7);
-        return taskRepository.findTasksDueSoonByProjectId(projectId, today, nextWeek);
+        return deadlinePage(taskRepository.findSummariesDueSoonByProjectIdAfter(projectId, today, nextWeek, after.deadline(),
+                after.id(), Limit.of(pageSize + 1)), pageSize);
     }
     
-    // Get task statistics for a project
-    public Map<String, Object> getTaskStatisticsByProjectId(Long projectId) {
-        Map<String, Object> statistics = new HashMap<>();
-        
-        // Total tasks
-        Long totalTasks = taskRepository.countTasksByProjectId(projectId);
-        statistics.put("totalTasks", totalTasks);
-        
-        // Tasks by status
-        Long pendingTasks = taskRepository.countTasksByProjectIdAndStatus(projectId, TaskStatus.PENDING);
-        Long inProgressTasks = taskRepository.countTasksByProjectIdAndStatus(projectId, TaskStatus.IN_PROGRESS);
-        Long completedTasks = taskRepository.countTasksByProjectIdAndStatus(projectId, TaskStatus.COMPLETED);
-        Long onHoldTasks = taskRepository.countTasksByProjectIdAndStatus(projectId, TaskStatus.ON_HOLD);
-        
-        statistics.put("pendingTasks", pendingTasks);
-        statistics.put("inProgressTasks", inProgressTasks);
-        statistics.put("completedTasks", completedTasks);
-        statistics.put("onHoldTasks", onHoldTasks);
-        
-        // Tasks by priority
-        Long highPriorityTasks = taskRepository.countTasksByProjectIdAndPriority(projectId, TaskPriority.HIGH);
-        Long mediumPriorityTasks = taskRepository.countTasksByProjectIdAndPriority(projectId, TaskPriority.MEDIUM);
-        Long lowPriorityTasks = taskRepository.countTasksByProjectIdAndPriority(projectId, TaskPriority.LOW);
-        
-        statistics.put("highPriorityTasks", highPriorityTasks);
-        statistics.put("mediumPriorityTasks", mediumPriorityTasks);
-        statistics.put("lowPriorityTasks", lowPriorityTasks);
-        
-        // Tasks by stage
-        Long developmentTasks = taskRepository.countTasksByProjectIdAndStage(projectId, TaskStage.DEVELOPMENT);
-        Long testingTasks = taskRepository.countTasksByProjectIdAndStage(projectId, TaskStage.TESTING);
-        Long stagingTasks = taskRepository.countTasksByProjectIdAndStage(projectId, TaskStage.STAGING);
-        Long productionTasks = taskRepository.countTasksByProjectIdAndStage(projectId, TaskStage.PRODUCTION);
-        
-        statistics.put("developmentTasks", developmentTasks);
-        statistics.put("testingTasks", testingTasks);
-        statistics.put("stagingTasks", stagingTasks);
-        statistics.put("productionTasks", productionTasks);
-        
-        // Average progress
-        Double averageProgress = taskRepository.getAverageProgressByProjectId(projectId);
-        statistics.put("averageProgress", averageProgress != null ? averageProgress : 0.0);
-        
-        // Overdue tasks
-        List<Task> overdueTasks = getOverdueTasksByProjectId(projectId);
-        statistics.put("overdueTasks", overdueTasks.size());
-        
-        // Tasks due soon
-        List<Task> tasksDueSoon = getTasksDueSoonByProjectId(projectId);
-        statistics.put("tasksDueSoon", tasksDueSoon.size());
+    // Get task statistics for a project (one aggregate query, no Task entities loaded)
+    @Transactional(readOnly = true)
+    public TaskStatistics getTaskStatisticsByProjectId(Long projectId) {
+        LocalDate today = LocalDate.now();
+        TaskStatisticsView view = taskRepository.getTaskStatisticsByProjectId(projectId, today, today.plusDays(7));
         
-        return statistics;
+        return TaskStatistics.builder()
+                .totalTasks(countOf(view.getTotalTasks()))
+                .pendingTasks(countOf(view.getPendingTasks()))
+                .inProgressTasks(countOf(view.getInProgressTasks()))
+                .completedTasks(countOf(view.getCompletedTasks()))
+                .onHoldTasks(countOf(view.getOnHoldTasks()))
+                .highPriorityTasks(countOf(view.getHighPriorityTasks()))
+                .mediumPriorityTasks(countOf(view.getMediumPriorityTasks()))
+                .lowPriorityTasks(countOf(view.getLowPriorityTasks()))
+                .developmentTasks(countOf(view.getDevelopmentTasks()))
+                .testingTasks(countOf(view.getTestingTasks()))
+                .stagingTasks(countOf(view.getStagingTasks()))
+                .productionTasks(countOf(view.getProductionTasks()))
+                .averageProgress(view.getAverageProgress() != null ? view.getAverageProgress() : 0.0)
+                .overdueTasks(countOf(view.getOverdueTasks()))
+                .tasksDueSoon(countOf(view.getTasksDueSoon()))
+                .build();
     }
     
     // Update task status with automatic progress synchronization
@@ -331,13 +364,15 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
 
-        // Create and save TaskFile entity with file data as BLOB
+        // Stream the payload into the blob store; the row keeps only metadata and the content hash
+        StoredBlob blob = blobStore.put(file, AppConstants.MAX_FILE_SIZE);
         TaskFile taskFile = TaskFile.builder()
             .fileName(file.getOriginalFilename())
             .fileType(file.getContentType())
-            .fileSize(file.getSize())
-            .data(file.getBytes())
+            .fileSize(blob.size())
+            .contentHash(blob.contentHash())
             .uploadedBy(username)
+            .createdAt(LocalDateTime.now())
             .task(task)
             .build();
         taskFileRepository.save(taskFile);
@@ -345,23 +380,68 @@ public class TaskService {
         return file.getOriginalFilename();
     }
 
+    public List<TaskFileResponse> getTaskFileResponses(Long taskId) {
+        return taskFileRepository.findResponsesByTaskId(taskId);
+    }
+
     public TaskFile getTaskFileById(Long fileId) {
         return taskFileRepository.findById(fileId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task file not found"));
     }
 
-    public void deleteTaskFile(Long fileId, String username, String taskName, String fileName) {
-        if (!taskFileRepository.existsById(fileId)) {
-            throw new ResourceNotFoundException("Task file not found");
+    public Resource getTaskFileContent(TaskFile taskFile) {
+        if (taskFile.getContentHash() == null) {
+            throw new ResourceNotFoundException("Task file content not available");
         }
+        return blobStore.get(taskFile.getContentHash());
+    }
+
+    public void deleteTaskFile(Long fileId, String username, String taskName, String fileName) {
+        Long taskId = taskFileRepository.findTaskIdById(fileId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task file not found"));
         taskFileRepository.deleteById(fileId);
 
         // Audit trail
-        auditService.createAuditTrail("Deleted " + fileName + " for task " + taskName, username);
+        auditService.record(Action.DELETED, EntityType.TASK_FILE, fileId, taskId, fileName, username);
     }
 
 
     
+    // Keyset cursors: tasks ordered by id encode the last id, deadline-ordered lists encode (deadline, id)
+    private static long afterId(String cursor) {
+        if (CursorUtils.isFirstPage(cursor)) {
+            return 0L;
+        }
+        return Long.parseLong(CursorUtils.decode(cursor, 1)[0]);
+    }
+    
+    private static DeadlineKey deadlineKey(String cursor) {
+        if (CursorUtils.isFirstPage(cursor)) {
+            return new DeadlineKey(FIRST_PAGE_DEADLINE, 0L);
+        }
+        String[] parts = CursorUtils.decode(cursor, 2);
+        try {
+            return new DeadlineKey(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    private static CursorPage<TaskSummaryResponse> idPage(List<TaskSummaryResponse> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, task -> CursorUtils.encode(task.getId()));
+    }
+    
+    private static CursorPage<TaskSummaryResponse> deadlinePage(List<TaskSummaryResponse> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, task -> CursorUtils.encode(task.getDeadline(), task.getId()));
+    }
+    
+    private record DeadlineKey(LocalDate deadline, long id) {
+    }
+    
+    private static long countOf(Long value) {
+        return value != null ? value : 0L;
+    }
+    
     private void validateTask(Task task) {
         if (task.getName() == null || task.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Task name is required");
@@ -0,0 +1,51 @@
+package net.javaguides.springboot_backend.session;
+
+/**
+ * A logged-in account's session. The last access time slides forward on every validated request;
+ * it is only read and written under the lock of the {@link SessionStore} stripe holding the session.
+ */
+public class Session {
+
+    private final String id;
+    private final Long accountId;
+    private final String username;
+    private long lastAccessMillis;
+    // Last access time already handed to the write-behind queue
+    private long persistedAccessMillis;
+
+    Session(String id, Long accountId, String username, long lastAccessMillis) {
+        this.id = id;
+        this.accountId = accountId;
+        this.username = username;
+        this.lastAccessMillis = lastAccessMillis;
+        this.persistedAccessMillis = lastAccessMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void setLastAccessMillis(long lastAccessMillis) {
+        this.lastAccessMillis = lastAccessMillis;
+    }
+
+    long getPersistedAccessMillis() {
+        return persistedAccessMillis;
+    }
+
+    void setPersistedAccessMillis(long persistedAccessMillis) {
+        this.persistedAccessMillis = persistedAccessMillis;
+    }
+}
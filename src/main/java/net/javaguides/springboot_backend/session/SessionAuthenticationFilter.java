@@ -0,0 +1,81 @@
+package net.javaguides.springboot_backend.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.payload.ApiResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates the X-Session-Id header against the in-memory {@link SessionStore}, with no database access.
+ * A valid session becomes the request's authenticated principal (the account's username) and has its expiry
+ * pushed back. An unknown or expired one is answered with 401 on protected paths; login, logout and the
+ * other open paths go through anonymously, so a client holding a stale id can still log in again. Requests
+ * without the header pass through anonymously unless sessions are required, in which case only the open
+ * paths are let through.
+ */
+public class SessionAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Set<String> OPEN_PATHS = Set.of(AppConstants.API_BASE_PATH + "/login", AppConstants.API_BASE_PATH + "/logout");
+
+    private final SessionStore sessionStore;
+    private final ObjectMapper objectMapper;
+    private final boolean sessionRequired;
+
+    public SessionAuthenticationFilter(SessionStore sessionStore, ObjectMapper objectMapper, boolean sessionRequired) {
+        this.sessionStore = sessionStore;
+        this.objectMapper = objectMapper;
+        this.sessionRequired = sessionRequired;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String sessionId = request.getHeader(AppConstants.SESSION_HEADER);
+        if (sessionId == null || sessionId.isBlank()) {
+            if (sessionRequired && !isOpen(request)) {
+                unauthorized(response, "Login required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Session session = sessionStore.touch(sessionId.trim());
+        if (session == null) {
+            if (isOpen(request)) {
+                chain.doFilter(request, response);
+            } else {
+                unauthorized(response, "Session expired or invalid");
+            }
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(session.getUsername(), null, List.of()));
+        chain.doFilter(request, response);
+    }
+
+    private boolean isOpen(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.OPTIONS.matches(request.getMethod())
+                || OPEN_PATHS.contains(path)
+                || !path.startsWith(AppConstants.API_BASE_PATH + "/");
+    }
+
+    private void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+}
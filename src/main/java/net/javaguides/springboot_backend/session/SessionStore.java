@@ -0,0 +1,436 @@
+package net.javaguides.springboot_backend.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot_backend.config.AppConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sessions of logged-in accounts, held in memory so a request is validated without a database round trip.
+ * The map is split into lock-striped segments by session id; each segment keeps its sessions in access
+ * order, so the least recently used ones come first and the expiry sweep stops at the first live session.
+ * Expiry slides: a session lives until timeout-minutes after its last validated request.
+ *
+ * When persistence is enabled, session state is mirrored to the account row (session_id, authenticated,
+ * last_login, session_last_access) write-behind: changes are coalesced per account and written as JDBC
+ * batches every flush-interval, and access times are only written once touch-interval has passed, so a busy
+ * session costs one update a minute rather than one per request. Sessions still live in the database are
+ * restored on startup, and pending writes are flushed on shutdown.
+ */
+@Component
+public class SessionStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStore.class);
+
+    private static final String SAVE_SQL = "UPDATE account SET session_id = ?, authenticated = true, "
+            + "session_last_access = ?, last_login = COALESCE(?, last_login) WHERE id = ?";
+    // Only clears the session it was meant for, never one created by a later login
+    private static final String CLEAR_SQL =
+            "UPDATE account SET session_id = NULL, authenticated = false WHERE id = ? AND session_id = ?";
+    // For a session that ended before its save was written: the row still holds whatever came before it
+    private static final String CLEAR_ANY_SQL =
+            "UPDATE account SET session_id = NULL, authenticated = false WHERE id = ?";
+    private static final String RESTORE_SQL = "SELECT id, username, session_id, session_last_access, last_login "
+            + "FROM account WHERE authenticated = true AND session_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Stripe[] stripes;
+    // Current session per username; only modified outside the stripe locks
+    private final Map<String, Session> sessionByUsername = new ConcurrentHashMap<>();
+    private final Map<Long, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final boolean persistenceEnabled;
+    private final long flushIntervalMillis;
+    private final long touchIntervalMillis;
+    private final Counter expiredCounter;
+
+    private volatile boolean running;
+    private ScheduledExecutorService maintenance;
+
+    public SessionStore(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.session.stripes:16}") int stripes,
+                        @Value("${app.session.timeout-minutes:" + AppConstants.SESSION_TIMEOUT_MINUTES + "}") long timeoutMinutes,
+                        @Value("${app.session.persistence.enabled:true}") boolean persistenceEnabled,
+                        @Value("${app.session.persistence.flush-interval-ms:1000}") long flushIntervalMillis,
+                        @Value("${app.session.persistence.touch-interval-ms:60000}") long touchIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        // A power of two, so the stripe is picked by masking the hash
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.persistenceEnabled = persistenceEnabled;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.touchIntervalMillis = touchIntervalMillis;
+
+        Gauge.builder("session.store.active", this, SessionStore::size)
+                .description("Sessions currently held in memory")
+                .register(meterRegistry);
+        Gauge.builder("session.store.writes.pending", pendingWrites, Map::size)
+                .description("Accounts whose session state is waiting to be written")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("session.store.expired").register(meterRegistry);
+    }
+
+    // Opens a session for the account, ending the one it had before
+    public Session create(Long accountId, String username) {
+        long now = System.currentTimeMillis();
+        Session session = new Session(UUID.randomUUID().toString(), accountId, username, now);
+        sessionByUsername.compute(username, (name, previous) -> {
+            if (previous != null) {
+                stripeFor(previous.getId()).remove(previous.getId());
+            }
+            stripeFor(session.getId()).put(session);
+            return session;
+        });
+        enqueue(PendingWrite.save(accountId, session.getId(), now, now));
+        return session;
+    }
+
+    // The live session with this id, its expiry pushed back; null when unknown or expired
+    public Session touch(String sessionId) {
+        Stripe stripe = stripeFor(sessionId);
+        long now = System.currentTimeMillis();
+        Session session;
+        boolean expired = false;
+        boolean persistAccess = false;
+        stripe.lock.lock();
+        try {
+            session = stripe.sessions.get(sessionId);
+            if (session == null) {
+                return null;
+            }
+            if (now - session.getLastAccessMillis() > timeoutMillis) {
+                stripe.sessions.remove(sessionId);
+                expired = true;
+            } else {
+                session.setLastAccessMillis(now);
+                if (now - session.getPersistedAccessMillis() >= touchIntervalMillis) {
+                    session.setPersistedAccessMillis(now);
+                    persistAccess = true;
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (expired) {
+            ended(session, true);
+            return null;
+        }
+        if (persistAccess) {
+            enqueue(PendingWrite.save(session.getAccountId(), sessionId, now, null));
+        }
+        return session;
+    }
+
+    public void invalidate(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Session session = stripeFor(sessionId).remove(sessionId);
+        if (session != null) {
+            ended(session, false);
+        }
+    }
+
+    public void invalidateUser(String username) {
+        Session session = sessionByUsername.get(username);
+        if (session != null) {
+            invalidate(session.getId());
+        }
+    }
+
+    // For accounts removed outright; scans every stripe, which is fine for an occasional bulk operation
+    public void invalidateAccounts(Collection<Long> accountIds) {
+        Set<Long> ids = Set.copyOf(accountIds);
+        for (Stripe stripe : stripes) {
+            List<Session> removed = new ArrayList<>();
+            stripe.lock.lock();
+            try {
+                Iterator<Session> it = stripe.sessions.values().iterator();
+                while (it.hasNext()) {
+                    Session session = it.next();
+                    if (ids.contains(session.getAccountId())) {
+                        it.remove();
+                        removed.add(session);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            removed.forEach(session -> sessionByUsername.remove(session.getUsername(), session));
+        }
+    }
+
+    public boolean hasSession(String username) {
+        Session session = sessionByUsername.get(username);
+        if (session == null) {
+            return false;
+        }
+        Stripe stripe = stripeFor(session.getId());
+        stripe.lock.lock();
+        try {
+            // containsKey, not get: checking must not count as activity, and get on an access-ordered map
+            // would move the session to the recently used end where the sweep never reaches it
+            return stripe.sessions.containsKey(session.getId())
+                    && System.currentTimeMillis() - session.getLastAccessMillis() <= timeoutMillis;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.sessions.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (persistenceEnabled) {
+            restore();
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintain, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop with the audit writer: after the web server, before the DataSource
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void maintain() {
+        try {
+            sweep();
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Session maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    // Drops expired sessions; each stripe is in access order, so the scan ends at its first live session
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            List<Session> expired = new ArrayList<>();
+            stripe.lock.lock();
+            try {
+                Iterator<Session> it = stripe.sessions.values().iterator();
+                while (it.hasNext()) {
+                    Session session = it.next();
+                    if (now - session.getLastAccessMillis() <= timeoutMillis) {
+                        break;
+                    }
+                    it.remove();
+                    expired.add(session);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            expired.forEach(session -> ended(session, true));
+        }
+    }
+
+    private void ended(Session session, boolean expired) {
+        if (expired) {
+            expiredCounter.increment();
+        }
+        sessionByUsername.remove(session.getUsername(), session);
+        enqueue(PendingWrite.clear(session.getAccountId(), session.getId()));
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (persistenceEnabled) {
+            pendingWrites.merge(write.accountId(), write, PendingWrite::then);
+        }
+    }
+
+    private void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        List<PendingWrite> saves = new ArrayList<>();
+        List<PendingWrite> clears = new ArrayList<>();
+        List<PendingWrite> unsavedClears = new ArrayList<>();
+        for (Long accountId : pendingWrites.keySet()) {
+            PendingWrite write = pendingWrites.remove(accountId);
+            if (write != null) {
+                (write.active() ? saves : write.unsaved() ? unsavedClears : clears).add(write);
+            }
+        }
+        try {
+            if (!saves.isEmpty()) {
+                jdbcTemplate.batchUpdate(SAVE_SQL, saves, saves.size(), (ps, write) -> {
+                    ps.setString(1, write.sessionId());
+                    ps.setTimestamp(2, timestamp(write.lastAccessMillis()));
+                    ps.setTimestamp(3, write.loginMillis() != null ? timestamp(write.loginMillis()) : null);
+                    ps.setLong(4, write.accountId());
+                });
+            }
+            if (!clears.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLEAR_SQL, clears, clears.size(), (ps, write) -> {
+                    ps.setLong(1, write.accountId());
+                    ps.setString(2, write.sessionId());
+                });
+            }
+            if (!unsavedClears.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLEAR_ANY_SQL, unsavedClears, unsavedClears.size(),
+                        (ps, write) -> ps.setLong(1, write.accountId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing {} session changes failed, retrying later: {}",
+                    saves.size() + clears.size() + unsavedClears.size(), e.getMessage());
+            // Anything queued meanwhile is newer and wins
+            for (List<PendingWrite> writes : List.of(saves, clears, unsavedClears)) {
+                writes.forEach(write -> pendingWrites.putIfAbsent(write.accountId(), write));
+            }
+        }
+    }
+
+    private void restore() {
+        long now = System.currentTimeMillis();
+        List<Session> restored = new ArrayList<>();
+        jdbcTemplate.query(RESTORE_SQL, (RowCallbackHandler) rs -> {
+            Timestamp lastAccess = rs.getTimestamp("session_last_access");
+            if (lastAccess == null) {
+                lastAccess = rs.getTimestamp("last_login");
+            }
+            long lastAccessMillis = lastAccess != null ? lastAccess.getTime() : 0;
+            restored.add(new Session(rs.getString("session_id"), rs.getLong("id"), rs.getString("username"), lastAccessMillis));
+        });
+        // Inserted least recently used first, the order the stripes keep and the sweep relies on
+        restored.sort(Comparator.comparingLong(Session::getLastAccessMillis));
+        int live = 0;
+        for (Session session : restored) {
+            if (now - session.getLastAccessMillis() > timeoutMillis) {
+                ended(session, true);
+            } else {
+                stripeFor(session.getId()).put(session);
+                sessionByUsername.put(session.getUsername(), session);
+                live++;
+            }
+        }
+        log.info("Restored {} sessions, {} had expired", live, restored.size() - live);
+    }
+
+    private Stripe stripeFor(String sessionId) {
+        int hash = sessionId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static Timestamp timestamp(long millis) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+
+    // One segment of the map, least recently used session first
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+        private void put(Session session) {
+            lock.lock();
+            try {
+                sessions.put(session.getId(), session);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Session remove(String sessionId) {
+            lock.lock();
+            try {
+                return sessions.remove(sessionId);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Latest session state of one account, waiting to be written; unsaved marks a clear whose save never got written
+    private record PendingWrite(Long accountId, String sessionId, boolean active, long lastAccessMillis, Long loginMillis,
+                                boolean unsaved) {
+
+        static PendingWrite save(Long accountId, String sessionId, long lastAccessMillis, Long loginMillis) {
+            return new PendingWrite(accountId, sessionId, true, lastAccessMillis, loginMillis, false);
+        }
+
+        static PendingWrite clear(Long accountId, String sessionId) {
+            return new PendingWrite(accountId, sessionId, false, 0, null, false);
+        }
+
+        // Coalesces a newer write into this one
+        PendingWrite then(PendingWrite next) {
+            if (!next.sessionId.equals(sessionId)) {
+                // Ending an older session must not undo the login that replaced it
+                return next.active ? next : this;
+            }
+            if (!next.active) {
+                return active ? new PendingWrite(accountId, sessionId, false, 0, null, true) : this;
+            }
+            if (active && next.loginMillis == null) {
+                return new PendingWrite(accountId, sessionId, true, next.lastAccessMillis, loginMillis, false);
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package net.javaguides.springboot_backend.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves payloads still stored in the legacy LONGBLOB "data" columns into the BlobStore.
+ * Runs once the application is ready, a batch of rows per transaction, and is safe to re-run:
+ * only rows whose data column is still populated are picked up, and it is cleared once moved.
+ * When a table has no payloads left the column itself is dropped, leaving the table with metadata only.
+ */
+@Component
+public class BlobMigrationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobMigrationJob.class);
+
+    private static final String[] BLOB_TABLES = {"task_files", "documents", "profile"};
+    private static final String LEGACY_COLUMN = "data";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobStore blobStore;
+    private final boolean enabled;
+    private final int batchSize;
+    private final boolean dropLegacyColumns;
+
+    public BlobMigrationJob(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            BlobStore blobStore,
+                            @Value("${app.storage.migration.enabled:true}") boolean enabled,
+                            @Value("${app.storage.migration.batch-size:100}") int batchSize,
+                            @Value("${app.storage.migration.drop-legacy-columns:true}") boolean dropLegacyColumns) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.dropLegacyColumns = dropLegacyColumns;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        for (String table : BLOB_TABLES) {
+            LegacyColumn column = legacyColumn(table);
+            if (column != LegacyColumn.ABSENT) {
+                migrateTable(table, column);
+            }
+        }
+    }
+
+    private void migrateTable(String table, LegacyColumn column) {
+        // New rows no longer write the legacy column, so it must accept NULL. Only the original MySQL schema
+        // has it NOT NULL, and only until this has run once, so the table is not rewritten on every start
+        if (column == LegacyColumn.NOT_NULL) {
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY COLUMN " + LEGACY_COLUMN + " LONGBLOB NULL");
+            } catch (Exception e) {
+                log.warn("Could not relax NOT NULL on {}.{}: {}", table, LEGACY_COLUMN, e.getMessage());
+            }
+        }
+
+        long migrated = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> migrateBatch(table));
+            migrated += moved;
+        } while (moved == batchSize);
+
+        if (migrated > 0) {
+            log.info("Moved {} payloads from {}.{} to the blob store", migrated, table, LEGACY_COLUMN);
+        }
+        if (dropLegacyColumns) {
+            dropLegacyColumn(table);
+        }
+    }
+
+    private void dropLegacyColumn(String table) {
+        Long remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + LEGACY_COLUMN + " IS NOT NULL", Long.class);
+        if (remaining == null || remaining > 0) {
+            log.warn("Keeping {}.{}: {} payloads were not migrated", table, LEGACY_COLUMN, remaining);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + LEGACY_COLUMN);
+        log.info("Dropped legacy payload column {}.{}", table, LEGACY_COLUMN);
+    }
+
+    private int migrateBatch(String table) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE " + LEGACY_COLUMN + " IS NOT NULL ORDER BY id LIMIT ?", Long.class, batchSize);
+
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // Stream each payload from the driver into the store; only the ids are batched
+            StoredBlob blob = jdbcTemplate.queryForObject(
+                    "SELECT " + LEGACY_COLUMN + " FROM " + table + " WHERE id = ?",
+                    (rs, rowNum) -> store(table, id, rs.getBinaryStream(1)), id);
+            updates.add(new Object[] {blob.contentHash(), blob.size(), id});
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET content_hash = ?, file_size = ?, "
+                    + LEGACY_COLUMN + " = NULL WHERE id = ?", updates);
+        }
+        return ids.size();
+    }
+
+    // Legacy rows were capped at upload time, so no size limit applies here
+    private StoredBlob store(String table, Long id, InputStream data) {
+        try (data) {
+            return blobStore.put(data, Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to migrate " + table + " row " + id, e);
+        }
+    }
+
+    private LegacyColumn legacyColumn(String table) {
+        LegacyColumn column = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, LEGACY_COLUMN)) {
+                if (!columns.next()) {
+                    return LegacyColumn.ABSENT;
+                }
+                return columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls ? LegacyColumn.NOT_NULL : LegacyColumn.NULLABLE;
+            } catch (SQLException e) {
+                log.warn("Could not inspect {} for legacy blob column: {}", table, e.getMessage());
+                return LegacyColumn.ABSENT;
+            }
+        });
+        return column != null ? column : LegacyColumn.ABSENT;
+    }
+
+    private enum LegacyColumn { ABSENT, NULLABLE, NOT_NULL }
+}
@@ -0,0 +1,41 @@
+package net.javaguides.springboot_backend.storage;
+
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.utils.FileUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressable storage for uploaded file payloads.
+ * Blobs are keyed by the lowercase hex SHA-256 of their content, so storing the same bytes twice
+ * yields the same key and only one stored copy. Entities keep that key in their contentHash column.
+ */
+public interface BlobStore {
+
+    /**
+     * Streams the content into the store (unless identical content is already present), hashing it on the way.
+     * Throws IllegalArgumentException once more than maxBytes have been read; nothing is stored in that case.
+     */
+    StoredBlob put(InputStream content, long maxBytes) throws IOException;
+
+    // Streams a multipart upload, rejecting it up front when its declared size is already over the limit
+    default StoredBlob put(MultipartFile file, long maxBytes) throws IOException {
+        if (!FileUtils.isFileSizeValid(file, maxBytes)) {
+            throw new IllegalArgumentException(AppConstants.ERROR_FILE_TOO_LARGE);
+        }
+        try (InputStream content = file.getInputStream()) {
+            return put(content, maxBytes);
+        }
+    }
+
+    /**
+     * Returns a readable handle on the content stored under the key without loading it.
+     * Callers stream from it (or from a region of it) straight to the response.
+     */
+    Resource get(String contentHash);
+
+    boolean exists(String contentHash);
+}
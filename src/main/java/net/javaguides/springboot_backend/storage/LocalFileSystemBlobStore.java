@@ -0,0 +1,109 @@
+package net.javaguides.springboot_backend.storage;
+
+import net.javaguides.springboot_backend.config.AppConstants;
+import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores blobs under the upload directory as {root}/ab/cd/abcd...(the full SHA-256 hex),
+ * fanning out over two directory levels so no single directory grows unbounded.
+ * Uploads are streamed to {root}/incoming first and moved into place once their hash is known.
+ */
+@Component
+public class LocalFileSystemBlobStore implements BlobStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final String INCOMING_DIR = "incoming";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Path root;
+
+    public LocalFileSystemBlobStore(@Value("${app.storage.local.root:" + AppConstants.UPLOAD_DIR + "}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredBlob put(InputStream content, long maxBytes) throws IOException {
+        Path incoming = root.resolve(INCOMING_DIR);
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "upload", ".tmp");
+        try {
+            // Copy through a fixed-size buffer, hashing and counting as we go
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException(AppConstants.ERROR_FILE_TOO_LARGE);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(contentHash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // a concurrent upload of the same content won the race
+                }
+            }
+            return new StoredBlob(contentHash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource get(String contentHash) {
+        Path path = resolve(contentHash);
+        if (!Files.exists(path)) {
+            throw new ResourceNotFoundException("File content not found");
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String contentHash) {
+        return Files.exists(resolve(contentHash));
+    }
+
+    private Path resolve(String contentHash) {
+        if (contentHash == null || !SHA256_HEX.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
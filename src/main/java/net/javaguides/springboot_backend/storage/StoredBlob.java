@@ -0,0 +1,5 @@
+package net.javaguides.springboot_backend.storage;
+
+// Result of a BlobStore write: the content key and the number of bytes actually streamed
+public record StoredBlob(String contentHash, long size) {
+}
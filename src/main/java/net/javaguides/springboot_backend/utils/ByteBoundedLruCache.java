@@ -0,0 +1,46 @@
+package net.javaguides.springboot_backend.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of byte arrays bounded by their total size rather than by entry count.
+ * Values larger than the whole budget are never cached.
+ */
+public class ByteBoundedLruCache<K> {
+    
+    private final long maxBytes;
+    private final LinkedHashMap<K, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    
+    public ByteBoundedLruCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+    
+    public synchronized byte[] get(K key) {
+        return entries.get(key);
+    }
+    
+    public synchronized void put(K key, byte[] value) {
+        if (value.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        if (previous != null) {
+            currentBytes -= previous.length;
+        }
+        currentBytes += value.length;
+        
+        // Evict from the least recently used end until back under budget
+        Iterator<Map.Entry<K, byte[]>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+    
+    public synchronized long sizeInBytes() {
+        return currentBytes;
+    }
+}
@@ -0,0 +1,49 @@
+package net.javaguides.springboot_backend.utils;
+
+import net.javaguides.springboot_backend.config.AppConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorUtils {
+    
+    private static final String SEPARATOR = "|";
+    
+    // Encodes the sort key of the last row on a page into an opaque token
+    public static String encode(Object... keyParts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < keyParts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(keyParts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Decodes a token produced by encode, checking it has the expected number of key parts
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+    
+    // Clamps a requested page size to [1, MAX_PAGE_SIZE], defaulting to DEFAULT_PAGE_SIZE
+    public static int resolvePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return AppConstants.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, AppConstants.MAX_PAGE_SIZE);
+    }
+}
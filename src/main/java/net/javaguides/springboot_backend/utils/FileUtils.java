@@ -1,5 +1,6 @@
 package net.javaguides.springboot_backend.utils;
 
+import net.javaguides.springboot_backend.config.AppConstants;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -19,20 +20,18 @@ public class FileUtils {
         "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
     );
     
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
-    
     public static boolean isValidImageFile(MultipartFile file) {
         return file != null && 
                !file.isEmpty() && 
                ALLOWED_IMAGE_TYPES.contains(file.getContentType()) &&
-               file.getSize() <= MAX_FILE_SIZE;
+               file.getSize() <= AppConstants.MAX_FILE_SIZE;
     }
     
     public static boolean isValidDocumentFile(MultipartFile file) {
         return file != null && 
                !file.isEmpty() && 
                ALLOWED_DOCUMENT_TYPES.contains(file.getContentType()) &&
-               file.getSize() <= MAX_FILE_SIZE;
+               file.getSize() <= AppConstants.MAX_FILE_SIZE;
     }
     
     public static String getFileExtension(String fileName) {
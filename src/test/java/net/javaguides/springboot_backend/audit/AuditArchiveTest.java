@@ -0,0 +1,234 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Round trips through the on-disk archive: every test writes with one AuditArchive and reads with a fresh
+ * one over the same directory, as the retention job and a later search would.
+ */
+class AuditArchiveTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 2);
+    private static final AuditFilter EVERYTHING = new AuditFilter(null, null, null, null);
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void blocksSurviveAReopen() {
+        AuditArchive writer = archive();
+        writer.append(MONTH, List.of(row(1, 1, "alice"), row(2, 2, "bob")));
+        writer.append(MONTH, List.of(row(3, 3, "alice")));
+
+        AuditArchive reader = archive();
+        Assertions.assertEquals(3L, reader.lastArchivedId(MONTH));
+        Assertions.assertEquals(0L, reader.lastArchivedId(MONTH.plusMonths(1)));
+        Assertions.assertEquals(List.of(3L, 2L, 1L), ids(reader.search(EVERYTHING, null, null, 10)));
+
+        AuditTrail restored = reader.search(EVERYTHING, null, null, 1).get(0);
+        AuditTrail written = row(3, 3, "alice");
+        Assertions.assertEquals(written.getDateTriggered(), restored.getDateTriggered());
+        Assertions.assertEquals(written.getPerformedBy(), restored.getPerformedBy());
+        Assertions.assertEquals(written.getEntityType(), restored.getEntityType());
+        Assertions.assertEquals(written.getEntityId(), restored.getEntityId());
+        Assertions.assertEquals(written.getAction(), restored.getAction());
+        Assertions.assertEquals(written.getParentId(), restored.getParentId());
+        Assertions.assertEquals(written.getPayload(), restored.getPayload());
+        Assertions.assertEquals(written.getSearchText(), restored.getSearchText());
+        Assertions.assertNull(restored.getActionMessage());
+
+        List<Long> streamed = new ArrayList<>();
+        reader.forEach(EVERYTHING, row -> streamed.add(row.getId()));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), streamed);
+    }
+
+    @Test
+    void searchesByTimeRangeUserAndSeekKeyAcrossMonths() {
+        AuditArchive writer = archive();
+        writer.append(MONTH, List.of(row(1, 1, "alice"), row(2, 5, "bob"), row(3, 9, "alice")));
+        writer.append(MONTH, List.of(row(4, 12, "bob"), row(5, 20, "alice")));
+        // February 2024 has 696 hours
+        writer.append(MONTH.plusMonths(1), List.of(row(6, 700, "alice"), row(7, 710, "bob")));
+
+        AuditArchive reader = archive();
+        AuditFilter range = new AuditFilter(null, at(5), at(20), null);
+        Assertions.assertEquals(List.of(4L, 3L, 2L), ids(reader.search(range, null, null, 10)));
+
+        AuditFilter alice = new AuditFilter("alice", null, null, null);
+        Assertions.assertEquals(List.of(6L, 5L, 3L, 1L), ids(reader.search(alice, null, null, 10)));
+
+        // Paging newest first with the last row of each page as the seek key
+        List<AuditTrail> first = reader.search(EVERYTHING, null, null, 3);
+        AuditTrail last = first.get(first.size() - 1);
+        List<AuditTrail> second = reader.search(EVERYTHING, last.getDateTriggered(), last.getId(), 3);
+        Assertions.assertEquals(List.of(7L, 6L, 5L), ids(first));
+        Assertions.assertEquals(List.of(4L, 3L, 2L), ids(second));
+
+        AuditFilter aliceInMarch = new AuditFilter("alice", MONTH.plusMonths(1).atDay(1).atStartOfDay(), null, null);
+        Assertions.assertEquals(List.of(6L), ids(reader.search(aliceInMarch, null, null, 10)));
+    }
+
+    @Test
+    void aTornTailFromACrashIsIgnoredAndOverwritten() throws IOException {
+        AuditArchive writer = archive();
+        writer.append(MONTH, List.of(row(1, 1, "alice"), row(2, 2, "bob")));
+
+        // A block that reached the segment but whose index entry was cut short
+        Files.write(segment(), new byte[] {31, -117, 8, 0, 42}, StandardOpenOption.APPEND);
+        Files.write(index(), new byte[] {0, 0, 0, 0, 0, 0, 0, 7, 1}, StandardOpenOption.APPEND);
+
+        AuditArchive reopened = archive();
+        Assertions.assertEquals(2L, reopened.lastArchivedId(MONTH));
+        Assertions.assertEquals(List.of(2L, 1L), ids(reopened.search(EVERYTHING, null, null, 10)));
+
+        reopened.append(MONTH, List.of(row(3, 3, "alice")));
+        Assertions.assertEquals(List.of(3L, 2L, 1L), ids(archive().search(EVERYTHING, null, null, 10)));
+    }
+
+    @Test
+    void decodesOlderBlockVersionsAlongsideCurrentOnes() throws IOException {
+        // Version 1: id, time and the two message columns only
+        byte[] v1 = block(1, out -> {
+            for (long id = 1; id <= 2; id++) {
+                writeHeader(out, id, "carol");
+                writeString(out, "Legacy message " + id);
+            }
+        });
+        // Version 2: the structured event columns as well, but no search text
+        byte[] v2 = block(2, out -> {
+            writeHeader(out, 3, "dave");
+            writeString(out, null);
+            writeString(out, AuditTrail.EntityType.TASK_POST.name());
+            out.writeBoolean(true);
+            out.writeLong(30);
+            writeString(out, AuditTrail.Action.CREATED.name());
+            out.writeBoolean(false);
+            writeString(out, "Post 3");
+        });
+        Files.createDirectories(dir);
+        Files.write(segment(), v1);
+        Files.write(segment(), v2, StandardOpenOption.APPEND);
+        Files.write(index(), indexEntry(0, v1.length, 2, 1, 2, at(1), at(2)));
+        Files.write(index(), indexEntry(v1.length, v2.length, 1, 3, 3, at(3), at(3)), StandardOpenOption.APPEND);
+
+        archive().append(MONTH, List.of(row(4, 4, "alice")));
+
+        List<AuditTrail> rows = archive().search(EVERYTHING, null, null, 10);
+        Assertions.assertEquals(List.of(4L, 3L, 2L, 1L), ids(rows));
+        Assertions.assertEquals("Updated comment 4", rows.get(0).getSearchText());
+
+        AuditTrail version2 = rows.get(1);
+        Assertions.assertEquals("dave", version2.getPerformedBy());
+        Assertions.assertNull(version2.getActionMessage());
+        Assertions.assertEquals(AuditTrail.EntityType.TASK_POST, version2.getEntityType());
+        Assertions.assertEquals(30L, version2.getEntityId());
+        Assertions.assertEquals(AuditTrail.Action.CREATED, version2.getAction());
+        Assertions.assertNull(version2.getParentId());
+        Assertions.assertEquals("Post 3", version2.getPayload());
+        Assertions.assertNull(version2.getSearchText());
+
+        AuditTrail version1 = rows.get(2);
+        Assertions.assertEquals("carol", version1.getPerformedBy());
+        Assertions.assertEquals("Legacy message 2", version1.getActionMessage());
+        Assertions.assertNull(version1.getAction());
+        Assertions.assertNull(version1.getEntityType());
+        Assertions.assertNull(version1.getPayload());
+        Assertions.assertEquals(at(2), version1.getDateTriggered());
+
+        // Older blocks still match keywords on the columns they have
+        Assertions.assertEquals(List.of(2L), ids(archive().search(new AuditFilter(null, null, null, "message 2"), null, null, 10)));
+        Assertions.assertEquals(List.of(3L), ids(archive().search(new AuditFilter(null, null, null, "post 3"), null, null, 10)));
+    }
+
+    private AuditArchive archive() {
+        return new AuditArchive(dir.toString());
+    }
+
+    private Path segment() {
+        return dir.resolve("audit-" + MONTH + ".seg");
+    }
+
+    private Path index() {
+        return dir.resolve("audit-" + MONTH + ".idx");
+    }
+
+    // Hours after the start of MONTH, with a fraction of a second so nanos round trip too
+    private static LocalDateTime at(long hours) {
+        return MONTH.atDay(1).atStartOfDay().plusHours(hours).plusNanos(hours * 1000);
+    }
+
+    private static AuditTrail row(long id, long hours, String performedBy) {
+        return AuditTrail.builder()
+                .id(id)
+                .dateTriggered(at(hours))
+                .performedBy(performedBy)
+                .entityType(AuditTrail.EntityType.TASK_COMMENT)
+                .entityId(id * 10)
+                .action(AuditTrail.Action.UPDATED)
+                .parentId(id * 100)
+                .payload("Comment " + id)
+                .searchText("Updated comment " + id)
+                .build();
+    }
+
+    private static List<Long> ids(List<AuditTrail> rows) {
+        return rows.stream().map(AuditTrail::getId).toList();
+    }
+
+    private static byte[] block(int version, BlockBody body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(version);
+            body.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeader(DataOutputStream out, long id, String performedBy) throws IOException {
+        out.writeLong(id);
+        out.writeLong(at(id).toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(at(id).getNano());
+        writeString(out, performedBy);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] indexEntry(long offset, int length, int count, long minId, long maxId,
+                                     LocalDateTime minTime, LocalDateTime maxTime) {
+        return ByteBuffer.allocate(56)
+                .putLong(offset).putInt(length).putInt(count).putLong(minId).putLong(maxId)
+                .putLong(minTime.toEpochSecond(ZoneOffset.UTC)).putInt(minTime.getNano())
+                .putLong(maxTime.toEpochSecond(ZoneOffset.UTC)).putInt(maxTime.getNano())
+                .array();
+    }
+
+    private interface BlockBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,135 @@
+package net.javaguides.springboot_backend.audit;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The retention job must never delete a row the archive does not hold yet: a run that dies halfway leaves
+ * every row either still in the table or already archived, and the next run picks up without duplicates.
+ */
+@SpringBootTest
+class AuditRetentionJobTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2001, 1);
+    private static final YearMonth FEBRUARY = JANUARY.plusMonths(1);
+    private static final int BLOCK_SIZE = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void rowsAreDeletedOnlyOnceArchivedAndAnInterruptedRunResumes() {
+        String user = UUID.randomUUID().toString();
+        List<Long> january = seed(user, JANUARY, 7);
+        List<Long> february = seed(user, FEBRUARY, 2);
+
+        // Dies on its second block, after the first one has been archived and deleted
+        CheckingArchive failing = new CheckingArchive(1);
+        Assertions.assertThrows(IllegalStateException.class, () -> job(failing).archiveBefore(FEBRUARY.plusMonths(1)));
+        Assertions.assertEquals(january.subList(0, BLOCK_SIZE), archivedIds(user));
+        Assertions.assertEquals(concat(january.subList(BLOCK_SIZE, january.size()), february), tableIds(user));
+
+        CheckingArchive resumed = new CheckingArchive(Integer.MAX_VALUE);
+        job(resumed).archiveBefore(FEBRUARY.plusMonths(1));
+        Assertions.assertEquals(concat(january, february), archivedIds(user));
+        Assertions.assertEquals(List.of(), tableIds(user));
+        // Only the rows still in the table were appended again
+        Assertions.assertEquals(january.size() - BLOCK_SIZE + february.size(), resumed.appendedRows);
+
+        // Nothing left to do: a further run appends nothing and keeps the archive as it is
+        CheckingArchive idle = new CheckingArchive(Integer.MAX_VALUE);
+        job(idle).archiveBefore(FEBRUARY.plusMonths(1));
+        Assertions.assertEquals(0, idle.appendedRows);
+        Assertions.assertEquals(concat(january, february), archivedIds(user));
+    }
+
+    @Test
+    void hotMonthsAreLeftInTheTable() {
+        String user = UUID.randomUUID().toString();
+        YearMonth cold = YearMonth.of(2002, 6);
+        List<Long> archived = seed(user, cold, 2);
+        List<Long> hot = seed(user, cold.plusMonths(1), 2);
+
+        job(new CheckingArchive(Integer.MAX_VALUE)).archiveBefore(cold.plusMonths(1));
+
+        Assertions.assertEquals(archived, archivedIds(user));
+        Assertions.assertEquals(hot, tableIds(user));
+    }
+
+    private AuditRetentionJob job(AuditArchive archive) {
+        return new AuditRetentionJob(jdbcTemplate, transactionTemplate, archive, true, 3, BLOCK_SIZE);
+    }
+
+    private List<Long> seed(String user, YearMonth month, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO audit_trail (action_message, performed_by, date_triggered) VALUES (?, ?, ?)",
+                    "Row " + i, user, Timestamp.valueOf(month.atDay(1).atStartOfDay().plusHours(i)));
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM audit_trail WHERE performed_by = ? AND date_triggered >= ? "
+                        + "AND date_triggered < ? ORDER BY id", Long.class, user,
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()), Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    private List<Long> tableIds(String user) {
+        return jdbcTemplate.queryForList("SELECT id FROM audit_trail WHERE performed_by = ? ORDER BY id", Long.class, user);
+    }
+
+    private List<Long> archivedIds(String user) {
+        List<Long> ids = new ArrayList<>();
+        new AuditArchive(dir.toString()).forEach(new AuditFilter(user, null, null, null), row -> ids.add(row.getId()));
+        return ids;
+    }
+
+    private static List<Long> concat(List<Long> first, List<Long> second) {
+        List<Long> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    // Checks every block is still in the table when it reaches the archive, and fails after a number of blocks
+    private class CheckingArchive extends AuditArchive {
+
+        private final int blocksBeforeFailure;
+        private int blocks;
+        private int appendedRows;
+
+        CheckingArchive(int blocksBeforeFailure) {
+            super(dir.toString());
+            this.blocksBeforeFailure = blocksBeforeFailure;
+        }
+
+        @Override
+        public synchronized void append(YearMonth month, List<AuditTrail> rows) {
+            for (AuditTrail row : rows) {
+                Integer present = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_trail WHERE id = ?",
+                        Integer.class, row.getId());
+                Assertions.assertEquals(1, present, "Row " + row.getId() + " deleted before it was archived");
+                Assertions.assertEquals(month, YearMonth.from(row.getDateTriggered()));
+            }
+            if (blocks++ == blocksBeforeFailure) {
+                throw new IllegalStateException("Archive unavailable");
+            }
+            super.append(month, rows);
+            appendedRows += rows.size();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.javaguides.springboot_backend.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot_backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one BCrypt verification per strength, alone and through PasswordHasher with 16 concurrent logins,
+ * to pick app.security.password.bcrypt-strength: aim for a single verify of roughly 50-100 ms on production
+ * hardware, then check the burst numbers against the hash pool size and queue capacity.
+ * Run with: mvn test -Dtest=PasswordHashBenchmark -Dbenchmark=true
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @State(Scope.Benchmark)
+    public static class Hashes {
+
+        @Param({"8", "10", "12"})
+        public int strength;
+
+        BCryptPasswordEncoder encoder;
+        String hash;
+        ThreadPoolTaskExecutor executor;
+        PasswordHasher hasher;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            encoder = new BCryptPasswordEncoder(strength);
+            hash = encoder.encode(PASSWORD);
+
+            int threads = Runtime.getRuntime().availableProcessors();
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            executor.setQueueCapacity(1000);
+            executor.initialize();
+            hasher = new PasswordHasher(executor, new SimpleMeterRegistry(), strength, 60_000);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public boolean verify(Hashes hashes) {
+        return hashes.encoder.matches(PASSWORD, hashes.hash);
+    }
+
+    // Latency a login sees when 16 arrive at once: queue wait plus hashing
+    @Benchmark
+    @Threads(16)
+    public boolean verifyDuringBurst(Hashes hashes) {
+        return hashes.hasher.verify(PASSWORD, hashes.hash).matches();
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package net.javaguides.springboot_backend.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot_backend.entity.Project;
+import net.javaguides.springboot_backend.entity.Task.TaskPriority;
+import net.javaguides.springboot_backend.entity.Task.TaskStage;
+import net.javaguides.springboot_backend.entity.Task.TaskStatus;
+import net.javaguides.springboot_backend.payload.TaskStatistics;
+import net.javaguides.springboot_backend.repositories.ProjectRepository;
+import net.javaguides.springboot_backend.service.TaskService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the legacy per-bucket statistics queries against the single aggregate query
+ * on a project with 50k tasks. Run with: mvn test -Dtest=TaskStatisticsBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskStatisticsBenchmarkTest {
+
+    private static final int TASK_COUNT = 50_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void singlePassStatisticsOnFiftyThousandTasks() {
+        Project project = new Project();
+        project.setName("Benchmark project");
+        project.setManager("benchmark");
+        Long projectId = projectRepository.save(project).getId();
+        seedTasks(projectId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Result legacy = measure(statistics, () -> legacyStatistics(projectId));
+        Result singlePass = measure(statistics, () -> taskService.getTaskStatisticsByProjectId(projectId));
+
+        System.out.printf("%nTask statistics on %,d tasks%n", TASK_COUNT);
+        System.out.printf("  legacy      : %2d round trips, %8.2f ms/op%n", legacy.roundTrips, legacy.millisPerOp);
+        System.out.printf("  single pass : %2d round trips, %8.2f ms/op%n%n", singlePass.roundTrips, singlePass.millisPerOp);
+
+        TaskStatistics result = taskService.getTaskStatisticsByProjectId(projectId);
+        Assertions.assertEquals(TASK_COUNT, result.getTotalTasks());
+        Assertions.assertEquals(1, singlePass.roundTrips);
+    }
+
+    private void seedTasks(Long projectId) {
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        TaskStage[] stages = TaskStage.values();
+        LocalDate today = LocalDate.now();
+
+        List<Object[]> rows = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            rows.add(new Object[] {
+                    "Task " + i, "benchmark", priorities[i % priorities.length].name(),
+                    statuses[i % statuses.length].name(), i % 101, Date.valueOf(today.plusDays(i % 60 - 30)),
+                    stages[i % stages.length].name(), projectId, Date.valueOf(today), Date.valueOf(today)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (name, assigned_to, priority, status, progress, deadline, stage, " +
+                "project_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // The pre-aggregate implementation: one COUNT per bucket plus two full entity loads
+    private Object legacyStatistics(Long projectId) {
+        LocalDate today = LocalDate.now();
+        List<Object> results = new ArrayList<>();
+        results.add(count("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId", projectId));
+        for (TaskStatus status : TaskStatus.values()) {
+            results.add(entityManager.createQuery("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
+                    .setParameter("projectId", projectId).setParameter("status", status).getSingleResult());
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            results.add(entityManager.createQuery("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.priority = :priority")
+                    .setParameter("projectId", projectId).setParameter("priority", priority).getSingleResult());
+        }
+        for (TaskStage stage : TaskStage.values()) {
+            results.add(entityManager.createQuery("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.stage = :stage")
+                    .setParameter("projectId", projectId).setParameter("stage", stage).getSingleResult());
+        }
+        results.add(count("SELECT AVG(t.progress) FROM Task t WHERE t.project.id = :projectId", projectId));
+        results.add(entityManager.createQuery("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.deadline < :today AND t.status != 'COMPLETED'")
+                .setParameter("projectId", projectId).setParameter("today", today).getResultList().size());
+        results.add(entityManager.createQuery("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.deadline BETWEEN :today AND :nextWeek AND t.status != 'COMPLETED'")
+                .setParameter("projectId", projectId).setParameter("today", today).setParameter("nextWeek", today.plusDays(7))
+                .getResultList().size());
+        return results;
+    }
+
+    private Object count(String jpql, Long projectId) {
+        return entityManager.createQuery(jpql).setParameter("projectId", projectId).getSingleResult();
+    }
+
+    private Result measure(Statistics statistics, Supplier<Object> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            transactionTemplate.execute(status -> operation.get());
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            transactionTemplate.execute(status -> operation.get());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(statistics.getPrepareStatementCount() / MEASURED_ITERATIONS,
+                elapsed / 1_000_000.0 / MEASURED_ITERATIONS);
+    }
+
+    private record Result(long roundTrips, double millisPerOp) {
+    }
+}
@@ -0,0 +1,228 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.payload.MeetingConflict;
+import net.javaguides.springboot_backend.repositories.MeetingRepository;
+import net.javaguides.springboot_backend.repositories.MeetingRepository.InviteeBooking;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The conflict index fed from a stubbed repository. Reloads: the reloaded table wins over what the index held
+ * before, except for bookings and releases made while the table was being read. Free-time search: window
+ * edges rounded to quarter hours, runs across the middle of the day bitmap, and days redrawn on release.
+ */
+class MeetingConflictIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2095, 3, 1);
+
+    private MeetingRepository meetingRepository;
+    private MeetingConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meetingRepository = Mockito.mock(MeetingRepository.class);
+        Mockito.when(meetingRepository.findInviteeBookings()).thenReturn(List.of(
+                row(1, 10, LocalTime.of(10, 0)), row(2, 20, LocalTime.of(10, 0)), row(5, 50, LocalTime.of(9, 0))));
+        index = new MeetingConflictIndex(meetingRepository, 180);
+        index.load();
+    }
+
+    @Test
+    void changesMadeDuringAReloadSurviveIt() {
+        // The table as read before the concurrent changes committed: meeting 1 has moved, meeting 4 was
+        // written behind the index's back and meeting 5 deleted the same way
+        Mockito.when(meetingRepository.findInviteeBookings()).thenAnswer(invocation -> {
+            index.book(meeting(3, LocalTime.of(10, 0)), List.of(30L), false);
+            index.release(2L);
+            return List.of(row(1, 10, LocalTime.of(14, 0)), row(2, 20, LocalTime.of(10, 0)),
+                    row(4, 40, LocalTime.of(10, 0)));
+        });
+
+        index.reload();
+
+        Assertions.assertEquals(List.of(), conflicts(10, LocalTime.of(10, 0)));
+        Assertions.assertEquals(List.of(1L), conflicts(10, LocalTime.of(14, 0)));
+        Assertions.assertEquals(List.of(), conflicts(20, LocalTime.of(10, 0)));
+        Assertions.assertEquals(List.of(3L), conflicts(30, LocalTime.of(10, 0)));
+        Assertions.assertEquals(List.of(4L), conflicts(40, LocalTime.of(10, 0)));
+        Assertions.assertEquals(List.of(), conflicts(50, LocalTime.of(9, 0)));
+        Assertions.assertEquals(3, index.size());
+
+        // Once the reload is over, changes are no longer queued for replay
+        Mockito.when(meetingRepository.findInviteeBookings()).thenReturn(List.of(row(1, 10, LocalTime.of(14, 0))));
+        index.reload();
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertEquals(List.of(), conflicts(30, LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void aFailedReloadKeepsTheCurrentIndex() {
+        Mockito.when(meetingRepository.findInviteeBookings()).thenAnswer(invocation -> {
+            index.release(1L);
+            throw new IllegalStateException("Connection refused");
+        });
+
+        index.reload();
+
+        Assertions.assertEquals(List.of(), conflicts(10, LocalTime.of(10, 0)));
+        Assertions.assertEquals(List.of(2L), conflicts(20, LocalTime.of(10, 0)));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void findsFreeTimeAcrossSlot64AndStopsAtAMidnightEnd() {
+        LocalDate day = DAY.plusDays(10);
+        // Busy until 15:30 and from 18:00: free slots 62 to 71, either side of 16:00 (slot 64)
+        book(11, 60, day.atStartOfDay(), 15 * 60 + 30);
+        book(12, 60, day.atTime(18, 0), 6 * 60);
+
+        Assertions.assertEquals(day.atTime(15, 30),
+                index.findCommonFreeSlot(List.of(60L), day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                        150, LocalTime.MIDNIGHT, null));
+        // A to at midnight ends the search with the day before; the free next day is not looked at
+        Assertions.assertNull(index.findCommonFreeSlot(List.of(60L), day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                165, LocalTime.MIDNIGHT, null));
+        Assertions.assertEquals(day.plusDays(1).atStartOfDay(),
+                index.findCommonFreeSlot(List.of(60L), day.atStartOfDay(), day.plusDays(2).atStartOfDay(),
+                        165, LocalTime.MIDNIGHT, null));
+    }
+
+    @Test
+    void findsWholeFreeDays() {
+        LocalDate day = DAY.plusDays(20);
+
+        Assertions.assertEquals(day.atStartOfDay(), index.findCommonFreeSlot(List.of(70L), day.atStartOfDay(),
+                day.plusDays(1).atStartOfDay(), 24 * 60, LocalTime.MIDNIGHT, null));
+        // Starting a quarter hour in leaves too little of the day, and the next day ends at once
+        Assertions.assertNull(index.findCommonFreeSlot(List.of(70L), day.atTime(0, 15),
+                day.plusDays(1).atStartOfDay(), 24 * 60, LocalTime.MIDNIGHT, null));
+    }
+
+    @Test
+    void roundsTheWindowInwardToWholeQuarterHours() {
+        LocalDate day = DAY.plusDays(30);
+        book(13, 60, day.atTime(9, 0), 60);
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+
+        // Earliest 08:10 starts at 08:15, leaving three free quarter hours before 09:00
+        Assertions.assertEquals(day.atTime(8, 15),
+                index.findCommonFreeSlot(List.of(60L), from, to, 45, LocalTime.of(8, 10), LocalTime.of(17, 50)));
+        Assertions.assertEquals(day.atTime(10, 0),
+                index.findCommonFreeSlot(List.of(60L), from, to, 60, LocalTime.of(8, 10), LocalTime.of(17, 50)));
+        // Latest 17:50 ends at 17:45: 10:00 to 17:45 fits 465 minutes but not 480
+        Assertions.assertEquals(day.atTime(10, 0),
+                index.findCommonFreeSlot(List.of(60L), from, to, 465, LocalTime.of(8, 10), LocalTime.of(17, 50)));
+        Assertions.assertNull(
+                index.findCommonFreeSlot(List.of(60L), from, to, 480, LocalTime.of(8, 10), LocalTime.of(17, 50)));
+        // A from between quarter hours rounds up too
+        Assertions.assertEquals(day.atTime(10, 15),
+                index.findCommonFreeSlot(List.of(60L), day.atTime(10, 5), to, 60, LocalTime.MIDNIGHT, null));
+    }
+
+    @Test
+    void aMeetingOverMidnightBlocksBothDays() {
+        LocalDate day = DAY.plusDays(40);
+        book(14, 80, day.atTime(23, 0), 120);
+
+        Assertions.assertEquals(day.atTime(22, 0), index.findCommonFreeSlot(List.of(80L), day.atTime(22, 0),
+                day.plusDays(1).atTime(5, 0), 60, LocalTime.MIDNIGHT, null));
+        Assertions.assertEquals(day.plusDays(1).atTime(1, 0), index.findCommonFreeSlot(List.of(80L), day.atTime(22, 0),
+                day.plusDays(1).atTime(5, 0), 90, LocalTime.MIDNIGHT, null));
+    }
+
+    @Test
+    void releasingAMeetingRedrawsTheDayFromTheMeetingsLeft() {
+        LocalDate day = DAY.plusDays(50);
+        book(15, 90, day.atTime(10, 0), 120);
+        book(16, 90, day.atTime(11, 0), 120);
+        LocalDateTime from = day.atTime(10, 0);
+        LocalDateTime to = day.atTime(14, 0);
+
+        index.release(15L);
+
+        // 11:00 to 13:00 is still taken by the other meeting
+        Assertions.assertEquals(day.atTime(10, 0), index.findCommonFreeSlot(List.of(90L), from, to, 60, LocalTime.MIDNIGHT, null));
+        Assertions.assertNull(index.findCommonFreeSlot(List.of(90L), from, to, 120, LocalTime.MIDNIGHT, null));
+        // Several invitees are free only when all of them are
+        Assertions.assertNull(index.findCommonFreeSlot(List.of(90L, 10L), DAY.atTime(10, 0), DAY.atTime(11, 0),
+                60, LocalTime.MIDNIGHT, null));
+
+        index.release(16L);
+        Assertions.assertEquals(day.atTime(10, 0), index.findCommonFreeSlot(List.of(90L), from, to, 240, LocalTime.MIDNIGHT, null));
+    }
+
+    private void book(long meetingId, long employeeId, LocalDateTime start, int minutes) {
+        Meeting meeting = Meeting.builder()
+                .id(meetingId)
+                .title("Meeting " + meetingId)
+                .meetingDate(start.toLocalDate())
+                .meetingTime(start.toLocalTime())
+                .durationMinutes(minutes)
+                .build();
+        // Conflicts allowed, so overlapping meetings can be set up
+        index.book(meeting, List.of(employeeId), true);
+    }
+
+    // Meetings of the employee overlapping an hour from the given time on DAY
+    private List<Long> conflicts(long employeeId, LocalTime time) {
+        return index.findConflicts(meeting(null, time), List.of(employeeId)).stream()
+                .map(MeetingConflict::getMeetingId)
+                .toList();
+    }
+
+    private static Meeting meeting(Integer id, LocalTime time) {
+        return Meeting.builder()
+                .id(id != null ? id.longValue() : null)
+                .title("Meeting " + id)
+                .meetingDate(DAY)
+                .meetingTime(time)
+                .durationMinutes(60)
+                .build();
+    }
+
+    private static InviteeBooking row(long meetingId, long employeeId, LocalTime time) {
+        return new Row(meetingId, time, employeeId);
+    }
+
+    private record Row(Long getMeetingId, LocalTime getMeetingTime, Long getEmployeeId) implements InviteeBooking {
+
+        @Override
+        public String getTitle() {
+            return "Meeting " + getMeetingId;
+        }
+
+        @Override
+        public LocalDate getMeetingDate() {
+            return DAY;
+        }
+
+        @Override
+        public Integer getDurationMinutes() {
+            return 60;
+        }
+
+        @Override
+        public String getRecurrenceRule() {
+            return null;
+        }
+
+        @Override
+        public LocalDate getRecurrenceEnd() {
+            return null;
+        }
+
+        @Override
+        public String getRecurrenceExceptions() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Occurrences of stored meetings within a window: the series' stored end, its exception dates, and single
+ * meetings, which occur once.
+ */
+class MeetingOccurrencesTest {
+
+    // Tuesdays and Thursdays from 1997-09-02, with two occurrences cancelled
+    private static final Meeting SERIES = Meeting.builder()
+            .recurrenceRule("FREQ=WEEKLY;BYDAY=TU,TH")
+            .meetingDate(LocalDate.of(1997, 9, 2))
+            .meetingTime(LocalTime.of(9, 0))
+            .durationMinutes(45)
+            .recurrenceExceptions("1997-09-11,1997-09-16")
+            .build();
+
+    // The same days for 10 occurrences, stored with the end worked out from its COUNT
+    private static final Meeting COUNTED = Meeting.builder()
+            .recurrenceRule("FREQ=WEEKLY;COUNT=10;BYDAY=TU,TH")
+            .meetingDate(LocalDate.of(1997, 9, 2))
+            .meetingTime(LocalTime.of(9, 0))
+            .recurrenceEnd(LocalDate.of(1997, 10, 2))
+            .build();
+
+    private static final Meeting SINGLE = Meeting.builder()
+            .meetingDate(LocalDate.of(1997, 9, 10))
+            .meetingTime(LocalTime.of(14, 30))
+            .build();
+
+    static Stream<Arguments> windows() {
+        return Stream.of(
+                Arguments.of(SERIES, "1997-09-08", "1997-09-19", dates("1997-09-09", "1997-09-18")),
+                Arguments.of(SERIES, "1997-09-11", "1997-09-11", dates()),
+                Arguments.of(SERIES, "1997-08-01", "1997-09-05", dates("1997-09-02", "1997-09-04")),
+                Arguments.of(SERIES, "2030-01-01", "2030-01-07", dates("2030-01-01", "2030-01-03")),
+                Arguments.of(COUNTED, "1997-09-29", "1997-12-31", dates("1997-09-30", "1997-10-02")),
+                Arguments.of(COUNTED, "1997-10-03", "1997-12-31", dates()),
+                Arguments.of(SINGLE, "1997-09-10", "1997-09-10", dates("1997-09-10")),
+                Arguments.of(SINGLE, "1997-09-01", "1997-09-09", dates()),
+                Arguments.of(SINGLE, "1997-09-11", "1997-09-30", dates()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("windows")
+    void listsTheOccurrencesWithinAWindow(Meeting meeting, String from, String to, List<LocalDate> expected) {
+        Assertions.assertEquals(expected,
+                MeetingOccurrences.dates(meeting, LocalDate.parse(from), LocalDate.parse(to)).toList());
+    }
+
+    @Test
+    void checksSingleDates() {
+        Assertions.assertTrue(MeetingOccurrences.isOccurrence(SERIES, LocalDate.of(1997, 9, 9)));
+        Assertions.assertFalse(MeetingOccurrences.isOccurrence(SERIES, LocalDate.of(1997, 9, 10)));
+        Assertions.assertFalse(MeetingOccurrences.isOccurrence(SERIES, LocalDate.of(1997, 9, 16)));
+        Assertions.assertFalse(MeetingOccurrences.isOccurrence(COUNTED, LocalDate.of(1997, 10, 7)));
+        Assertions.assertTrue(MeetingOccurrences.isOccurrence(SINGLE, LocalDate.of(1997, 9, 10)));
+    }
+
+    @Test
+    void givesEachOccurrenceTheSeriesTimeAndDuration() {
+        Assertions.assertEquals(List.of(
+                        new TimeRange(LocalDateTime.of(1997, 9, 2, 9, 0), LocalDateTime.of(1997, 9, 2, 9, 45)),
+                        new TimeRange(LocalDateTime.of(1997, 9, 4, 9, 0), LocalDateTime.of(1997, 9, 4, 9, 45))),
+                MeetingOccurrences.rangesOf(SERIES, LocalDate.of(1997, 9, 1), LocalDate.of(1997, 9, 7)));
+    }
+
+    @Test
+    void keepsExceptionsSorted() {
+        Assertions.assertEquals("1997-09-09,1997-09-11,1997-09-16",
+                MeetingOccurrences.withException(SERIES, LocalDate.of(1997, 9, 9)));
+        Assertions.assertEquals("1997-09-11,1997-09-16",
+                MeetingOccurrences.withException(SERIES, LocalDate.of(1997, 9, 16)));
+    }
+
+    private static List<LocalDate> dates(String... dates) {
+        return Arrays.stream(dates).map(LocalDate::parse).toList();
+    }
+}
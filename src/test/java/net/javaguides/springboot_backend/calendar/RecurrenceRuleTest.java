@@ -0,0 +1,185 @@
+package net.javaguides.springboot_backend.calendar;
+
+import net.javaguides.springboot_backend.entity.Meeting;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Expansions checked against the examples of RFC 5545 section 3.8.5.3, all starting from its DTSTART of
+ * 1997-09-02 (a Tuesday) or 1997-09-01 unless a row says otherwise. WKST is left out of the rules, since
+ * weeks always start on Monday here and the examples give the same dates either way. Where the RFC ends
+ * on an UNTIL at midnight UTC, the rows use the day before, as UNTIL is compared by date only.
+ */
+class RecurrenceRuleTest {
+
+    static Stream<Arguments> rfcExamples() {
+        return Stream.of(
+                // Daily for 10 occurrences
+                Arguments.of("FREQ=DAILY;COUNT=10", "1997-09-02", dates("1997-09-02", "1997-09-03",
+                        "1997-09-04", "1997-09-05", "1997-09-06", "1997-09-07", "1997-09-08", "1997-09-09",
+                        "1997-09-10", "1997-09-11")),
+                // Every 10 days, 5 occurrences
+                Arguments.of("FREQ=DAILY;INTERVAL=10;COUNT=5", "1997-09-02", dates("1997-09-02", "1997-09-12",
+                        "1997-09-22", "1997-10-02", "1997-10-12")),
+                // Weekly for 10 occurrences
+                Arguments.of("FREQ=WEEKLY;COUNT=10", "1997-09-02", dates("1997-09-02", "1997-09-09",
+                        "1997-09-16", "1997-09-23", "1997-09-30", "1997-10-07", "1997-10-14", "1997-10-21",
+                        "1997-10-28", "1997-11-04")),
+                // Weekly until December 24, 1997
+                Arguments.of("FREQ=WEEKLY;UNTIL=19971223", "1997-09-02", dates("1997-09-02", "1997-09-09",
+                        "1997-09-16", "1997-09-23", "1997-09-30", "1997-10-07", "1997-10-14", "1997-10-21",
+                        "1997-10-28", "1997-11-04", "1997-11-11", "1997-11-18", "1997-11-25", "1997-12-02",
+                        "1997-12-09", "1997-12-16", "1997-12-23")),
+                // Weekly on Tuesday and Thursday for five weeks
+                Arguments.of("FREQ=WEEKLY;COUNT=10;BYDAY=TU,TH", "1997-09-02", dates("1997-09-02", "1997-09-04",
+                        "1997-09-09", "1997-09-11", "1997-09-16", "1997-09-18", "1997-09-23", "1997-09-25",
+                        "1997-09-30", "1997-10-02")),
+                // Every other week on Monday, Wednesday and Friday until December 24, 1997, UNTIL as a date-time
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;UNTIL=19971223T000000Z;BYDAY=MO,WE,FR", "1997-09-01",
+                        dates("1997-09-01", "1997-09-03", "1997-09-05", "1997-09-15", "1997-09-17", "1997-09-19",
+                                "1997-09-29", "1997-10-01", "1997-10-03", "1997-10-13", "1997-10-15", "1997-10-17",
+                                "1997-10-27", "1997-10-29", "1997-10-31", "1997-11-10", "1997-11-12", "1997-11-14",
+                                "1997-11-24", "1997-11-26", "1997-11-28", "1997-12-08", "1997-12-10", "1997-12-12",
+                                "1997-12-22")),
+                // Every other week on Tuesday and Thursday, for 8 occurrences
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;COUNT=8;BYDAY=TU,TH", "1997-09-02", dates("1997-09-02",
+                        "1997-09-04", "1997-09-16", "1997-09-18", "1997-09-30", "1997-10-02", "1997-10-14",
+                        "1997-10-16")),
+                // Listed days before DTSTART in its first week are not occurrences
+                Arguments.of("FREQ=WEEKLY;COUNT=4;BYDAY=MO,WE", "1997-09-03", dates("1997-09-03", "1997-09-08",
+                        "1997-09-10", "1997-09-15")),
+                Arguments.of("FREQ=MONTHLY;COUNT=3", "1997-09-02", dates("1997-09-02", "1997-10-02", "1997-11-02")),
+                // Invalid dates such as February 30 are ignored and do not count as occurrences
+                Arguments.of("FREQ=MONTHLY;COUNT=7", "2007-01-31", dates("2007-01-31", "2007-03-31",
+                        "2007-05-31", "2007-07-31", "2007-08-31", "2007-10-31", "2007-12-31")),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=2;COUNT=5", "2007-01-31", dates("2007-01-31", "2007-03-31",
+                        "2007-05-31", "2007-07-31", "2008-01-31")),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=12;UNTIL=20330101", "2024-02-29", dates("2024-02-29",
+                        "2028-02-29", "2032-02-29")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rfcExamples")
+    void expandsLikeTheRfc(String rule, String start, List<LocalDate> expected) {
+        // As a stored series: the rule bounded by the last occurrence worked out when it was saved
+        Meeting series = Meeting.builder()
+                .recurrenceRule(rule)
+                .meetingDate(LocalDate.parse(start))
+                .recurrenceEnd(RecurrenceRule.parse(rule).lastOccurrence(LocalDate.parse(start)))
+                .build();
+
+        List<LocalDate> dates = MeetingOccurrences.dates(series, LocalDate.parse(start), LocalDate.of(2100, 1, 1))
+                .toList();
+
+        Assertions.assertEquals(expected, dates, rule);
+    }
+
+    static Stream<Arguments> lastOccurrences() {
+        return Stream.of(
+                Arguments.of("FREQ=DAILY;COUNT=10", "1997-09-02", "1997-09-11"),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;COUNT=8;BYDAY=TU,TH", "1997-09-02", "1997-10-16"),
+                Arguments.of("FREQ=MONTHLY;COUNT=7", "2007-01-31", "2007-12-31"),
+                Arguments.of("FREQ=DAILY;INTERVAL=3;UNTIL=19970910", "1997-09-02", "1997-09-08"),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;UNTIL=19971223T000000Z;BYDAY=MO,WE,FR", "1997-09-01", "1997-12-22"),
+                // UNTIL on a day the series does not fall on
+                Arguments.of("FREQ=WEEKLY;UNTIL=19971222", "1997-09-02", "1997-12-16"),
+                // Skipped months right before UNTIL
+                Arguments.of("FREQ=MONTHLY;UNTIL=20070630", "2007-01-31", "2007-05-31"),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=12;UNTIL=20330101", "2024-02-29", "2032-02-29"),
+                // A COUNT larger than the valid dates in the first periods
+                Arguments.of("FREQ=MONTHLY;INTERVAL=2;COUNT=5", "2007-01-31", "2008-01-31"),
+                Arguments.of("FREQ=WEEKLY;BYDAY=MO,FR", "1997-09-01", null),
+                Arguments.of("FREQ=DAILY;INTERVAL=2", "1997-09-02", null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("lastOccurrences")
+    void findsTheLastOccurrence(String rule, String start, String expected) {
+        RecurrenceRule recurrenceRule = RecurrenceRule.parse(rule);
+
+        Assertions.assertEquals(expected == null ? null : LocalDate.parse(expected),
+                recurrenceRule.lastOccurrence(LocalDate.parse(start)), rule);
+        Assertions.assertEquals(expected != null, recurrenceRule.isBounded(), rule);
+    }
+
+    static Stream<Arguments> windows() {
+        return Stream.of(
+                Arguments.of("FREQ=DAILY;INTERVAL=10", "1997-09-02", "1997-10-03",
+                        dates("1997-10-12", "1997-10-22", "1997-11-01")),
+                // From within a week the series skips, and from a day after its listed days in an active week
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH", "1997-09-02", "1997-09-08",
+                        dates("1997-09-16", "1997-09-18", "1997-09-30")),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR", "1997-09-01", "1997-09-06",
+                        dates("1997-09-15", "1997-09-17", "1997-09-19")),
+                // From an occurrence includes it
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH", "1997-09-02", "1997-10-02",
+                        dates("1997-10-02", "1997-10-14", "1997-10-16")),
+                // From before the series starts
+                Arguments.of("FREQ=WEEKLY;BYDAY=MO,WE", "1997-09-03", "1997-01-01",
+                        dates("1997-09-03", "1997-09-08", "1997-09-10")),
+                Arguments.of("FREQ=MONTHLY", "2007-01-31", "2007-02-01",
+                        dates("2007-03-31", "2007-05-31", "2007-07-31")),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=12", "2024-02-29", "2024-03-01",
+                        dates("2028-02-29", "2032-02-29", "2036-02-29")),
+                // UNTIL still ends a window that starts near it
+                Arguments.of("FREQ=WEEKLY;UNTIL=19971223", "1997-09-02", "1997-12-20", dates("1997-12-23")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("windows")
+    void startsAWindowAtTheFirstOccurrenceOnOrAfterIt(String rule, String start, String from, List<LocalDate> expected) {
+        Iterator<LocalDate> occurrences = RecurrenceRule.parse(rule)
+                .occurrences(LocalDate.parse(start), LocalDate.parse(from));
+
+        Assertions.assertEquals(expected, take(occurrences, 3), rule);
+    }
+
+    static Stream<Arguments> farWindows() {
+        return Stream.of(
+                Arguments.of("FREQ=DAILY;INTERVAL=10", "1997-09-02", "2031-05-17"),
+                Arguments.of("FREQ=DAILY;INTERVAL=7", "1997-09-02", "2031-05-20"),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=3;BYDAY=MO,WE,SU", "1997-09-03", "2031-01-01"),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH", "1997-09-02", "2031-01-04"),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=2", "2007-01-31", "2040-02-15"),
+                Arguments.of("FREQ=MONTHLY;INTERVAL=5", "2007-01-30", "2040-02-29"));
+    }
+
+    // Jumping straight to the period containing the window gives what walking the series from its start gives
+    @ParameterizedTest
+    @MethodSource("farWindows")
+    void jumpsToDistantWindowsWithoutLosingStep(String rule, String start, String from) {
+        RecurrenceRule recurrenceRule = RecurrenceRule.parse(rule);
+        LocalDate windowStart = LocalDate.parse(from);
+        Iterator<LocalDate> walked = recurrenceRule.occurrences(LocalDate.parse(start), LocalDate.parse(start));
+        List<LocalDate> expected = new ArrayList<>();
+        while (expected.size() < 10) {
+            LocalDate date = walked.next();
+            if (!date.isBefore(windowStart)) {
+                expected.add(date);
+            }
+        }
+
+        Assertions.assertEquals(expected, take(recurrenceRule.occurrences(LocalDate.parse(start), windowStart), 10), rule);
+    }
+
+    private static List<LocalDate> take(Iterator<LocalDate> occurrences, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        while (dates.size() < limit && occurrences.hasNext()) {
+            dates.add(occurrences.next());
+        }
+        return dates;
+    }
+
+    private static List<LocalDate> dates(String... dates) {
+        return Arrays.stream(dates).map(LocalDate::parse).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package net.javaguides.springboot_backend.calendar;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * The bit tricks of a day bitmap: ranges set across the boundary of the two words, the unused top 32 bits of
+ * the second word, and the shift-and folding of firstFreeRun, checked against a slot by slot scan.
+ */
+class SlotBitmapTest {
+
+    @Test
+    void setsRangesInEitherWordAndAcrossThem() {
+        long[] day = SlotBitmap.empty();
+        SlotBitmap.set(day, 60, 70);
+        Assertions.assertEquals(0xFL << 60, day[0]);
+        Assertions.assertEquals(0x3FL, day[1]);
+
+        long[] whole = SlotBitmap.empty();
+        SlotBitmap.set(whole, 0, SlotBitmap.SLOTS_PER_DAY);
+        Assertions.assertEquals(-1L, whole[0]);
+        Assertions.assertEquals(0xFFFFFFFFL, whole[1]);
+
+        long[] edges = SlotBitmap.empty();
+        SlotBitmap.set(edges, 0, 1);
+        SlotBitmap.set(edges, 63, 64);
+        SlotBitmap.set(edges, 64, 65);
+        SlotBitmap.set(edges, 95, 96);
+        SlotBitmap.set(edges, 10, 10);
+        Assertions.assertEquals(1L | 1L << 63, edges[0]);
+        Assertions.assertEquals(1L | 1L << 31, edges[1]);
+    }
+
+    @Test
+    void findsRunsCrossingSlot64() {
+        long[] busy = busyExcept(60, 70);
+
+        Assertions.assertEquals(60, SlotBitmap.firstFreeRun(busy, 1));
+        Assertions.assertEquals(60, SlotBitmap.firstFreeRun(busy, 10));
+        Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(busy, 11));
+        Assertions.assertEquals(64, SlotBitmap.firstFreeRun(busyExcept(64, 96), 32));
+        Assertions.assertEquals(63, SlotBitmap.firstFreeRun(busyExcept(63, 65), 2));
+    }
+
+    @Test
+    void findsWholeDayRunsOnlyOnAnEmptyDay() {
+        Assertions.assertEquals(0, SlotBitmap.firstFreeRun(SlotBitmap.empty(), SlotBitmap.SLOTS_PER_DAY));
+        for (int slot : new int[] {0, 47, 63, 64, 95}) {
+            long[] busy = SlotBitmap.empty();
+            SlotBitmap.set(busy, slot, slot + 1);
+            Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(busy, SlotBitmap.SLOTS_PER_DAY), "busy " + slot);
+        }
+        Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(SlotBitmap.empty(), SlotBitmap.SLOTS_PER_DAY + 1));
+        Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(SlotBitmap.empty(), 0));
+    }
+
+    @Test
+    void neverCountsTheBitsPastTheLastSlot() {
+        // Only the last quarter hour is free; the 32 unused bits after it must not extend the run
+        long[] busy = busyExcept(95, 96);
+
+        Assertions.assertEquals(95, SlotBitmap.firstFreeRun(busy, 1));
+        Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(busy, 2));
+        Assertions.assertEquals(-1, SlotBitmap.firstFreeRun(SlotBitmap.empty(), 97));
+    }
+
+    @Test
+    void agreesWithASlotBySlotScan() {
+        Random random = new Random(42);
+        for (int day = 0; day < 500; day++) {
+            long[] busy = SlotBitmap.empty();
+            // A few meetings of random length, so free runs of every size turn up
+            int meetings = random.nextInt(6);
+            for (int i = 0; i < meetings; i++) {
+                int from = random.nextInt(SlotBitmap.SLOTS_PER_DAY);
+                SlotBitmap.set(busy, from, Math.min(SlotBitmap.SLOTS_PER_DAY, from + 1 + random.nextInt(24)));
+            }
+            for (int length = 1; length <= SlotBitmap.SLOTS_PER_DAY; length++) {
+                Assertions.assertEquals(scan(busy, length), SlotBitmap.firstFreeRun(busy, length),
+                        "day " + day + ", length " + length);
+            }
+        }
+    }
+
+    private static long[] busyExcept(int from, int to) {
+        long[] busy = SlotBitmap.empty();
+        SlotBitmap.set(busy, 0, from);
+        SlotBitmap.set(busy, to, SlotBitmap.SLOTS_PER_DAY);
+        return busy;
+    }
+
+    private static int scan(long[] busy, int length) {
+        int run = 0;
+        for (int slot = 0; slot < SlotBitmap.SLOTS_PER_DAY; slot++) {
+            boolean isBusy = (busy[slot / 64] >>> (slot % 64) & 1) != 0;
+            run = isBusy ? 0 : run + 1;
+            if (run == length) {
+                return slot - length + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,41 @@
+package net.javaguides.springboot_backend.config;
+
+import net.javaguides.springboot_backend.session.Session;
+import net.javaguides.springboot_backend.session.SessionStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Health stays public for load balancers; metrics, which describe sessions and traffic, need a session.
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+class ActuatorAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Test
+    void onlyHealthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void metricsAreReadableWithASession() throws Exception {
+        Session session = sessionStore.create(1L, "admin");
+
+        mockMvc.perform(get("/actuator/metrics").header(AppConstants.SESSION_HEADER, session.getId()))
+                .andExpect(status().isOk());
+    }
+}
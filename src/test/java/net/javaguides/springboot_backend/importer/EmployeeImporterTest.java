@@ -0,0 +1,63 @@
+package net.javaguides.springboot_backend.importer;
+
+import net.javaguides.springboot_backend.payload.EmployeeImportResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A file that breaks off part way through, after some batches have already been committed: the import
+ * reports what it did instead of failing, so a retry with the whole file can pick up where it stopped.
+ */
+@SpringBootTest(properties = "app.employees.import.batch-size=2")
+class EmployeeImporterTest {
+
+    @Autowired
+    private EmployeeImporter employeeImporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aTruncatedFileReportsTheRowsImportedBeforeIt() throws IOException {
+        String domain = UUID.randomUUID() + ".example.com";
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            rows.append(i == 0 ? "" : ",").append("{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada")
+                    .append(i).append('@').append(domain).append("\"}");
+        }
+        String complete = "[" + rows + "]";
+        String truncated = complete.substring(0, complete.indexOf("ada3@"));
+
+        EmployeeImportResult partial = importJson(truncated);
+
+        Assertions.assertEquals(3, partial.getTotalRows());
+        Assertions.assertEquals(3, partial.getImported());
+        Assertions.assertTrue(partial.getFileError().startsWith("Reading stopped after row 3: Malformed JSON"),
+                partial.getFileError());
+        Assertions.assertEquals(3, employeesIn(domain));
+
+        EmployeeImportResult retried = importJson(complete);
+
+        Assertions.assertNull(retried.getFileError());
+        Assertions.assertEquals(2, retried.getImported());
+        Assertions.assertEquals(3, retried.getFailed());
+        Assertions.assertEquals(5, employeesIn(domain));
+    }
+
+    private EmployeeImportResult importJson(String json) throws IOException {
+        return employeeImporter.importEmployees(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                EmployeeImportReader.Format.JSON, "admin");
+    }
+
+    private int employeesIn(String domain) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE email LIKE ?", Integer.class, "%@" + domain);
+    }
+}
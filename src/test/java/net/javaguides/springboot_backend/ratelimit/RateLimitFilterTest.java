@@ -0,0 +1,72 @@
+package net.javaguides.springboot_backend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot_backend.ratelimit.RateLimitProperties.KeyType;
+import net.javaguides.springboot_backend.ratelimit.RateLimitProperties.Route;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Limiting that made-up keys cannot switch off: a refused client creates no further buckets, and a full
+ * limiter refuses new keys instead of letting them through untracked.
+ */
+class RateLimitFilterTest {
+
+    private static final long HOUR = Duration.ofHours(1).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void aFullLimiterRefusesNewKeys() {
+        RateLimiter rateLimiter = new RateLimiter("test", 2, meterRegistry);
+
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("a", 2, HOUR));
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("b", 2, HOUR));
+        Assertions.assertTrue(rateLimiter.tryAcquire("c", 2, HOUR) > 0);
+        // Keys already held keep their own allowance
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("a", 2, HOUR));
+        Assertions.assertTrue(rateLimiter.tryAcquire("a", 2, HOUR) > 0);
+
+        rateLimiter.reset("b");
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("c", 2, HOUR));
+    }
+
+    @Test
+    void aClientRefusedOnItsAddressCreatesNoMoreBuckets() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        Route route = new Route();
+        route.setName("writes");
+        route.setPaths(List.of("/api/**"));
+        route.setKeys(List.of(KeyType.USERNAME, KeyType.IP));
+        route.setCapacity(1);
+        route.setPeriod(Duration.ofHours(1));
+        properties.setRoutes(List.of(route));
+        RateLimiter rateLimiter = new RateLimiter("test", 100, meterRegistry);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, properties,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+
+        Assertions.assertEquals(200, send(filter, "first"));
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(429, send(filter, "random-" + i));
+        }
+
+        // Only the first request's username and address
+        Assertions.assertEquals(2, meterRegistry.get("rate.limit.buckets").tag("limiter", "test").gauge().value());
+    }
+
+    private static int send(RateLimitFilter filter, String username) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks");
+        request.setRemoteAddr("203.0.113.7");
+        request.setParameter("username", username);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
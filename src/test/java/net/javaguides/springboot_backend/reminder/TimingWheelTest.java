@@ -0,0 +1,168 @@
+package net.javaguides.springboot_backend.reminder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The wheel driven by a hand-moved clock, with 100 ms ticks on 8 buckets so entries a few ticks apart
+ * already wrap round the wheel. Each test records the tick every entry fired in and fails if one fires twice.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int WHEEL_SIZE = 8;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+    private final Map<String, Long> firedAt = new HashMap<>();
+    private long now;
+    // First tick runUntil has not stepped the clock to yet
+    private long nextTick;
+
+    @Test
+    void firesEachEntryInTheTickItsDeadlineRoundsUpTo() {
+        wheel.schedule("at-start", 0);
+        wheel.schedule("just-after-start", 1);
+        wheel.schedule("on-a-tick", 100);
+        wheel.schedule("just-after-a-tick", 101);
+        wheel.schedule("end-of-first-round", 799);
+        wheel.schedule("start-of-second-round", 800);
+        wheel.schedule("third-round", 2350);
+        Assertions.assertEquals(7, wheel.size());
+
+        runUntil(40);
+
+        Assertions.assertEquals(Map.of("at-start", 0L, "just-after-start", 1L, "on-a-tick", 1L,
+                "just-after-a-tick", 2L, "end-of-first-round", 8L, "start-of-second-round", 8L,
+                "third-round", 24L), firedAt);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entriesSharingABucketWaitForTheirOwnRound() {
+        // All in bucket 3, scheduled latest first
+        for (long tick = 35; tick >= 3; tick -= WHEEL_SIZE) {
+            wheel.schedule("tick-" + tick, tick * TICK);
+        }
+
+        runUntil(40);
+
+        Assertions.assertEquals(Map.of("tick-3", 3L, "tick-11", 11L, "tick-19", 19L, "tick-27", 27L, "tick-35", 35L),
+                firedAt);
+    }
+
+    @Test
+    void entriesDueInTheSameTickFireInTheOrderTheyWereScheduled() {
+        wheel.schedule("first", 250);
+        wheel.schedule("second", 300);
+        wheel.schedule("third", 201);
+
+        Assertions.assertEquals(List.of(), advanceTo(200));
+        Assertions.assertEquals(List.of("first", "second", "third"), advanceTo(300));
+    }
+
+    @Test
+    void aCancelledEntryNeverFires() {
+        TimingWheel.Timeout<String> before = wheel.schedule("before", 500);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 500);
+        wheel.schedule("after", 500);
+        TimingWheel.Timeout<String> nextRound = wheel.schedule("next-round", 1300);
+
+        Assertions.assertTrue(cancelled.cancel());
+        Assertions.assertFalse(cancelled.cancel());
+        Assertions.assertEquals("cancelled", cancelled.value());
+        Assertions.assertEquals(3, wheel.size());
+        runUntil(5);
+        Assertions.assertTrue(nextRound.cancel());
+        runUntil(40);
+
+        Assertions.assertEquals(Map.of("before", 5L, "after", 5L), firedAt);
+        // Too late to cancel once fired, and the count is not touched again
+        Assertions.assertFalse(before.cancel());
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aRescheduledEntryFiresOnlyAtItsNewDeadline() {
+        TimingWheel.Timeout<String> earlier = wheel.schedule("moved-earlier", 2000);
+        TimingWheel.Timeout<String> later = wheel.schedule("moved-later", 400);
+        TimingWheel.Timeout<String> sameBucket = wheel.schedule("moved-a-round", 600);
+        runUntil(2);
+
+        Assertions.assertTrue(earlier.cancel());
+        wheel.schedule(earlier.value(), 350);
+        Assertions.assertTrue(later.cancel());
+        wheel.schedule(later.value(), 1200);
+        Assertions.assertTrue(sameBucket.cancel());
+        wheel.schedule(sameBucket.value(), 1400);
+        runUntil(40);
+
+        Assertions.assertEquals(Map.of("moved-earlier", 4L, "moved-later", 12L, "moved-a-round", 14L), firedAt);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aDeadlineAlreadyPassedFiresOnTheNextAdvance() {
+        runUntil(10);
+
+        wheel.schedule("late", 500);
+        wheel.schedule("now", now);
+
+        Assertions.assertEquals(List.of("late", "now"), advanceTo(now + TICK));
+    }
+
+    @Test
+    void aLongPauseFiresEverythingDueOnceAndKeepsTheRest() {
+        wheel.schedule("tick-5", 500);
+        wheel.schedule("tick-13", 1300);
+        wheel.schedule("tick-40", 4000);
+        wheel.schedule("tick-46", 4600);
+        wheel.schedule("tick-100", 10000);
+
+        // Several revolutions in one step
+        Assertions.assertEquals(3, advanceTo(4550).size());
+        Assertions.assertEquals(2, wheel.size());
+        runUntil(120);
+
+        Assertions.assertEquals(Map.of("tick-5", 45L, "tick-13", 45L, "tick-40", 45L, "tick-46", 46L, "tick-100", 100L),
+                firedAt);
+    }
+
+    @Test
+    void theClockNotReachingANewTickFiresNothing() {
+        wheel.schedule("tick-2", 200);
+        Assertions.assertEquals(List.of(), advanceTo(150));
+        Assertions.assertEquals(List.of(), advanceTo(199));
+        // A clock stepping back is ignored
+        Assertions.assertEquals(List.of(), advanceTo(50));
+        Assertions.assertEquals(List.of("tick-2"), advanceTo(200));
+    }
+
+    @Test
+    void rejectsInvalidGeometry() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 8, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(100, 12, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(100, 0, 0));
+    }
+
+    // Moves the clock one tick at a time up to the start of the given tick
+    private void runUntil(long tick) {
+        while (nextTick <= tick) {
+            advanceTo(nextTick * TICK);
+        }
+    }
+
+    private List<String> advanceTo(long millis) {
+        now = millis;
+        nextTick = Math.max(nextTick, Math.floorDiv(millis, TICK) + 1);
+        List<String> fired = wheel.advance(millis);
+        for (String value : fired) {
+            Long previous = firedAt.put(value, Math.floorDiv(millis, TICK));
+            Assertions.assertNull(previous, value + " fired twice");
+        }
+        return fired;
+    }
+}
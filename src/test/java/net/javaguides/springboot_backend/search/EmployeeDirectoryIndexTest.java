@@ -0,0 +1,135 @@
+package net.javaguides.springboot_backend.search;
+
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
+import net.javaguides.springboot_backend.repositories.EmployeeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * The index on its own, fed from a stubbed repository: token and prefix matching, typo tolerance, ranking,
+ * incremental updates, and changes that land while a reload is reading the table.
+ */
+class EmployeeDirectoryIndexTest {
+
+    private static final EmployeeSearchResult JOHN =
+            entry(1, "John", "Smith-Jones", "j.doe@acme.com", "Engineering", "Backend Developer");
+    private static final EmployeeSearchResult JOHANNA =
+            entry(2, "Johanna", "Berg", "jberg@acme.com", "Sales", "Account Manager");
+    private static final EmployeeSearchResult MARK =
+            entry(3, "Mark", "Johnson", "mark.johnson@acme.com", "Engineering", "Frontend Developer");
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeDirectoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = Mockito.mock(EmployeeRepository.class);
+        Mockito.when(employeeRepository.findDirectoryEntries()).thenReturn(List.of(JOHN, JOHANNA, MARK));
+        index = new EmployeeDirectoryIndex(employeeRepository);
+        index.load();
+    }
+
+    @Test
+    void matchesWholeTokensOfEveryField() {
+        Assertions.assertEquals(List.of(1L), ids("smith"));
+        Assertions.assertEquals(List.of(2L), ids("jberg"));
+        Assertions.assertEquals(List.of(2L), ids("sales"));
+        Assertions.assertEquals(List.of(3L, 1L), ids("developer"));
+        // Every term must match, in any order and case
+        Assertions.assertEquals(List.of(1L), ids("DEVELOPER backend"));
+        Assertions.assertEquals(List.of(), ids("backend sales"));
+        Assertions.assertEquals(List.of(), ids("  ,. "));
+    }
+
+    @Test
+    void prefixesMatchAndRankBelowExactTokens() {
+        Assertions.assertEquals(List.of(3L, 1L), ids("eng"));
+        // Exact "john" first, then the prefix of "johnson", then "johanna" one typo away
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids("john"));
+        // Equal scores fall back to last name, then first name
+        Assertions.assertEquals(List.of(2L, 3L, 1L), ids("acme"));
+    }
+
+    @Test
+    void toleratesTyposOnLongerTerms() {
+        Assertions.assertEquals(List.of(1L), ids("smiht"));
+        Assertions.assertEquals(List.of(3L, 1L), ids("enginering"));
+        Assertions.assertEquals(List.of(2L), ids("berq"));
+        // Too short for fuzzy matching, and too far off for five letters
+        Assertions.assertEquals(List.of(), ids("bx"));
+        Assertions.assertEquals(List.of(), ids("smxyz"));
+    }
+
+    @Test
+    void putReplacesAnEntryAndRemoveDropsIt() {
+        index.put(entry(1, "John", "Carter", "john.carter@acme.com", "Engineering", "Backend Developer"));
+        Assertions.assertEquals(List.of(), ids("smith"));
+        Assertions.assertEquals(List.of(1L), ids("carter"));
+        Assertions.assertEquals(3, index.size());
+
+        index.remove(List.of(2L, 99L));
+        Assertions.assertEquals(List.of(), ids("berg"));
+        Assertions.assertEquals(List.of(), ids("sales"));
+        Assertions.assertEquals(List.of(1L, 3L), ids("acme"));
+        Assertions.assertEquals(2, index.size());
+
+        // The admin account never shows up in the directory
+        index.put(entry(4, "admin", "Admin", "admin@acme.com", null, null));
+        Assertions.assertEquals(List.of(), ids("admin"));
+    }
+
+    @Test
+    void changesMadeDuringAReloadSurviveIt() {
+        EmployeeSearchResult newcomer = entry(4, "Priya", "Natarajan", "priya@acme.com", "Finance", "Analyst");
+        EmployeeSearchResult renamed = entry(3, "Mark", "Okafor", "mark.okafor@acme.com", "Engineering", "Frontend Developer");
+        EmployeeSearchResult missed = entry(5, "Lena", "Vogel", "lena@acme.com", "Legal", "Counsel");
+        // The table as read before the concurrent changes committed, plus a row written behind the index's back
+        Mockito.when(employeeRepository.findDirectoryEntries()).thenAnswer(invocation -> {
+            index.put(newcomer);
+            index.put(renamed);
+            index.remove(List.of(2L));
+            return List.of(JOHN, JOHANNA, MARK, missed);
+        });
+
+        index.reload();
+
+        Assertions.assertEquals(List.of(4L), ids("natarajan"));
+        Assertions.assertEquals(List.of(3L), ids("okafor"));
+        Assertions.assertEquals(List.of(), ids("johnson"));
+        Assertions.assertEquals(List.of(), ids("berg"));
+        Assertions.assertEquals(List.of(5L), ids("vogel"));
+        Assertions.assertEquals(4, index.size());
+
+        // Once the reload is over, changes are no longer queued for replay
+        Mockito.when(employeeRepository.findDirectoryEntries()).thenReturn(List.of(JOHN));
+        index.reload();
+        Assertions.assertEquals(List.of(1L), ids("acme"));
+    }
+
+    @Test
+    void aFailedReloadKeepsTheCurrentIndex() {
+        Mockito.when(employeeRepository.findDirectoryEntries()).thenAnswer(invocation -> {
+            index.remove(List.of(1L));
+            throw new IllegalStateException("Connection refused");
+        });
+
+        index.reload();
+
+        Assertions.assertEquals(List.of(2L, 3L), ids("acme"));
+        index.put(JOHN);
+        Assertions.assertEquals(List.of(2L, 3L, 1L), ids("acme"));
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query).stream().map(EmployeeSearchResult::getId).toList();
+    }
+
+    private static EmployeeSearchResult entry(long id, String firstName, String lastName, String email,
+                                              String department, String position) {
+        return new EmployeeSearchResult(id, firstName, lastName, email, department, position);
+    }
+}
@@ -0,0 +1,78 @@
+package net.javaguides.springboot_backend.search;
+
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.importer.EmployeeImportReader;
+import net.javaguides.springboot_backend.importer.EmployeeImporter;
+import net.javaguides.springboot_backend.payload.EmployeeSearchResult;
+import net.javaguides.springboot_backend.service.EmployeeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Every path that writes employees keeps the directory current: entity saves through the listener, and the
+ * bulk import and delete, which bypass entity callbacks and update the index themselves.
+ */
+@SpringBootTest
+class EmployeeDirectorySyncTest {
+
+    @Autowired
+    private EmployeeDirectoryIndex directoryIndex;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeImporter employeeImporter;
+
+    @Test
+    void savedEmployeesAreSearchableOnceCommitted() {
+        String lastName = uniqueName();
+        Employee employee = new Employee();
+        employee.setFirstName("Ingrid");
+        employee.setLastName(lastName);
+        employee.setEmail(UUID.randomUUID() + "@example.com");
+        employee = employeeService.createEmployee(employee, "admin");
+
+        Assertions.assertEquals(List.of(employee.getId()), ids(lastName));
+    }
+
+    @Test
+    void importedEmployeesAreSearchableAndBulkDeletesDropThem() throws IOException {
+        String lastName = uniqueName();
+        String csv = "firstName,lastName,email,department\r\n"
+                + "Ada," + lastName + "," + UUID.randomUUID() + "@example.com,Research\r\n"
+                + "Grace," + lastName + "," + UUID.randomUUID() + "@example.com,Research\r\n";
+
+        employeeImporter.importEmployees(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                EmployeeImportReader.Format.CSV, "admin");
+
+        List<EmployeeSearchResult> imported = directoryIndex.search(lastName);
+        Assertions.assertEquals(2, imported.size());
+        Assertions.assertEquals(1, directoryIndex.search("grace " + lastName).size());
+
+        employeeService.deleteEmployees(imported.stream().map(EmployeeSearchResult::getId).toList(), "admin");
+
+        Assertions.assertEquals(List.of(), ids(lastName));
+    }
+
+    private List<Long> ids(String query) {
+        return directoryIndex.search(query).stream().map(EmployeeSearchResult::getId).toList();
+    }
+
+    // Letters only, far enough from any other name that fuzzy matching cannot mix them up
+    private static String uniqueName() {
+        StringBuilder name = new StringBuilder("Zq");
+        for (char c : UUID.randomUUID().toString().replace("-", "").substring(0, 10).toCharArray()) {
+            name.append((char) ('a' + Character.digit(c, 16)));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package net.javaguides.springboot_backend.service;
+
+import net.javaguides.springboot_backend.entity.AuditTrail;
+import net.javaguides.springboot_backend.entity.Employee;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Structured events store no message, so a keyword search has to see the text they are shown with:
+ * the words of the message and the names it mentions, not only the payload.
+ */
+@SpringBootTest
+class AuditKeywordSearchTest {
+
+    private static final long WRITE_TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void keywordsMatchTheRenderedMessageOfStructuredEvents() throws InterruptedException {
+        String user = UUID.randomUUID().toString();
+        String lastName = "Quixley" + UUID.randomUUID().toString().substring(0, 8);
+        Employee employee = new Employee();
+        employee.setFirstName("Nora");
+        employee.setLastName(lastName);
+        employee.setEmail(UUID.randomUUID() + "@example.com");
+        employee = employeeService.createEmployee(employee, "admin");
+
+        // No payload at all, like the task post events
+        auditService.record(AuditTrail.Action.DELETED, AuditTrail.EntityType.DOCUMENT, 7L, employee.getId(), null, user);
+        auditService.record(AuditTrail.Action.UPLOADED, AuditTrail.EntityType.DOCUMENT, 8L, employee.getId(), "contract.pdf", user);
+
+        List<AuditTrail> byName = awaitRows(user, lastName, 2);
+        Assertions.assertEquals(2, byName.size());
+        Assertions.assertTrue(byName.get(0).getActionMessage().contains(lastName));
+
+        List<AuditTrail> byWording = awaitRows(user, "uploaded document", 1);
+        Assertions.assertEquals(1, byWording.size());
+        Assertions.assertEquals("contract.pdf", byWording.get(0).getPayload());
+
+        Assertions.assertEquals(1, auditService.searchAuditLogs(user, null, null, "contract", null, 10).getItems().size());
+        Assertions.assertTrue(auditService.searchAuditLogs(user, null, null, "meeting", null, 10).getItems().isEmpty());
+    }
+
+    // Events are written by the background writer shortly after they are recorded
+    private List<AuditTrail> awaitRows(String user, String keyword, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MILLIS;
+        List<AuditTrail> rows = auditService.searchAuditLogs(user, null, null, keyword, null, 10).getItems();
+        while (rows.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            rows = auditService.searchAuditLogs(user, null, null, keyword, null, 10).getItems();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,151 @@
+package net.javaguides.springboot_backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot_backend.entity.Document;
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.entity.Project;
+import net.javaguides.springboot_backend.exception.ResourceNotFoundException;
+import net.javaguides.springboot_backend.repositories.DocumentRepository;
+import net.javaguides.springboot_backend.repositories.EmployeeRepository;
+import net.javaguides.springboot_backend.repositories.MeetingRepository;
+import net.javaguides.springboot_backend.repositories.ProjectRepository;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Employee deletion must cost the same number of statements whatever the employee is attached to:
+ * one lookup plus one delete per dependent table, never a scan of projects or meetings.
+ */
+@SpringBootTest
+class EmployeeDeletionQueryCountTest {
+
+    // Lookup, project_employees, meeting_invitees, documents, profile_renditions, profile, employees, account
+    private static final long DELETE_STATEMENTS = 8;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void deletingOneEmployeeUsesAFixedNumberOfStatements() {
+        Employee employee = seedEmployee(20, 20);
+
+        long statements = countStatements(() -> employeeService.deleteEmployee(employee.getId(), "admin"));
+
+        Assertions.assertEquals(DELETE_STATEMENTS, statements);
+        assertNothingReferences(List.of(employee.getId()));
+    }
+
+    @Test
+    void bulkDeleteCostsTheSameAsASingleDelete() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(seedEmployee(10, 10).getId());
+        }
+
+        long statements = countStatements(() -> Assertions.assertEquals(5, employeeService.deleteEmployees(ids, "admin")));
+
+        Assertions.assertEquals(DELETE_STATEMENTS, statements);
+        assertNothingReferences(ids);
+    }
+
+    @Test
+    void bulkDeleteWithAnUnknownIdDeletesNothing() {
+        Employee employee = seedEmployee(2, 2);
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.deleteEmployees(List.of(employee.getId(), -1L), "admin"));
+
+        Assertions.assertTrue(employeeRepository.existsById(employee.getId()));
+        Assertions.assertEquals(2, count("project_employees", List.of(employee.getId())));
+    }
+
+    private Employee seedEmployee(int projects, int meetings) {
+        Employee employee = new Employee();
+        employee.setFirstName("Test");
+        employee.setLastName("Employee");
+        employee.setEmail(UUID.randomUUID() + "@example.com");
+        employee = employeeService.createEmployee(employee, "admin");
+
+        for (int i = 0; i < projects; i++) {
+            Project project = new Project();
+            project.setName("Project " + UUID.randomUUID());
+            project.setManager("admin");
+            Long projectId = projectRepository.save(project).getId();
+            jdbcTemplate.update("INSERT INTO project_employees (project_id, employee_id) VALUES (?, ?)", projectId, employee.getId());
+        }
+        for (int i = 0; i < meetings; i++) {
+            meetingRepository.save(Meeting.builder()
+                    .title("Meeting " + i)
+                    .meetingDate(LocalDate.now())
+                    .meetingTime(LocalTime.NOON)
+                    .createdAt(LocalDateTime.now())
+                    .createdBy("admin")
+                    .status(MeetingStatus.SCHEDULED)
+                    .invitees(List.of(employee))
+                    .build());
+        }
+        documentRepository.save(Document.builder()
+                .fileName("contract.pdf")
+                .fileType("application/pdf")
+                .createdAt(LocalDateTime.now())
+                .employee(employee)
+                .build());
+        jdbcTemplate.update("INSERT INTO profile_renditions (profile_id, size, content_hash) " +
+                "SELECT id, 48, 'hash' FROM profile WHERE employee_id = ?", employee.getId());
+        return employee;
+    }
+
+    private long countStatements(Runnable operation) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertNothingReferences(List<Long> ids) {
+        for (String table : List.of("project_employees", "meeting_invitees", "documents", "profile", "employees")) {
+            Assertions.assertEquals(0, count(table, ids), table);
+        }
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM profile_renditions r " +
+                "LEFT JOIN profile p ON p.id = r.profile_id WHERE p.id IS NULL", Long.class));
+    }
+
+    private long count(String table, List<Long> ids) {
+        String column = table.equals("employees") ? "id" : "employee_id";
+        String placeholders = String.join(", ", ids.stream().map(id -> "?").toList());
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " IN (" + placeholders + ")",
+                Long.class, ids.toArray());
+    }
+}
@@ -0,0 +1,115 @@
+package net.javaguides.springboot_backend.service;
+
+import net.javaguides.springboot_backend.entity.Account;
+import net.javaguides.springboot_backend.exception.AuthenticationException;
+import net.javaguides.springboot_backend.exception.TooManyRequestsException;
+import net.javaguides.springboot_backend.repositories.AccountRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failed logins are limited per username, however many addresses they come from: once an account has used up
+ * its allowance even the right password is refused until it refills, while other accounts are unaffected.
+ */
+@SpringBootTest(properties = {
+        "app.rate-limit.enabled=true",
+        "app.rate-limit.login-failures.capacity=3",
+        "app.rate-limit.login-failures.period=15m"
+})
+class LoginFailureLimitTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void anAccountIsLockedOutAfterTooManyFailures() {
+        String username = seedAccount("right-password");
+        String bystander = seedAccount("other-password");
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(AuthenticationException.class, () -> accountService.login(username, "wrong"));
+        }
+        TooManyRequestsException refused = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> accountService.login(username, "right-password"));
+        Assertions.assertTrue(refused.getRetryAfterSeconds() > 0);
+        // The username is matched however it is spelled
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> accountService.login(" " + username.toUpperCase() + " ", "right-password"));
+
+        Assertions.assertNotNull(accountService.login(bystander, "other-password").getSessionId());
+    }
+
+    @Test
+    void aSuccessfulLoginClearsEarlierFailures() {
+        String username = seedAccount("right-password");
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(AuthenticationException.class, () -> accountService.login(username, "wrong"));
+        }
+        accountService.login(username, "right-password");
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(AuthenticationException.class, () -> accountService.login(username, "wrong"));
+        }
+        Assertions.assertThrows(TooManyRequestsException.class, () -> accountService.login(username, "wrong"));
+    }
+
+    @Test
+    void parallelGuessesCannotOutrunTheLimit() throws Exception {
+        String username = seedAccount("right-password");
+        int attempts = 20;
+        ExecutorService clients = Executors.newFixedThreadPool(attempts);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Class<?>>> outcomes = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                outcomes.add(clients.submit(() -> {
+                    start.await();
+                    try {
+                        accountService.login(username, "wrong");
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e.getClass();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int guessed = 0;
+            int refused = 0;
+            for (Future<Class<?>> outcome : outcomes) {
+                Class<?> result = outcome.get(30, TimeUnit.SECONDS);
+                if (result == AuthenticationException.class) {
+                    guessed++;
+                } else if (result == TooManyRequestsException.class) {
+                    refused++;
+                }
+            }
+            // Only the allowance gets as far as a password check, however many arrive at once
+            Assertions.assertEquals(3, guessed);
+            Assertions.assertEquals(attempts - 3, refused);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private String seedAccount(String password) {
+        Account account = new Account();
+        account.setUsername("user-" + UUID.randomUUID());
+        account.setPassword(password);
+        return accountRepository.save(account).getUsername();
+    }
+}
@@ -0,0 +1,188 @@
+package net.javaguides.springboot_backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.payload.CursorPage;
+import net.javaguides.springboot_backend.payload.MeetingInvitee;
+import net.javaguides.springboot_backend.payload.MeetingSummary;
+import net.javaguides.springboot_backend.repositories.MeetingRepository;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A page of meetings must cost the same number of statements however many meetings and invitees it
+ * holds: the page of single meetings, the recurring series in the window, and one batched invitee query.
+ */
+@SpringBootTest
+class MeetingListingQueryCountTest {
+
+    // Single meetings after the cursor, series overlapping the window, invitees of the page
+    private static final long PAGE_STATEMENTS = 3;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void aPageCostsTheSameWhateverItHolds() {
+        List<Employee> crowd = seedEmployees(8);
+        Employee loner = seedEmployees(1).get(0);
+        LocalDate day = LocalDate.of(2090, 3, 1);
+        for (int i = 0; i < 30; i++) {
+            seedMeeting(day, LocalTime.of(8, 0).plusMinutes(i), null, crowd);
+        }
+        seedMeeting(day.plusDays(1), LocalTime.NOON, null, List.of(loner));
+
+        long bigPage = countStatements(() -> meetingService.getMeetings(day, day, crowd.get(0).getId(), null, 25));
+        long smallPage = countStatements(() -> meetingService.getMeetings(day.plusDays(1), day.plusDays(1), loner.getId(), null, 25));
+
+        Assertions.assertEquals(PAGE_STATEMENTS, bigPage);
+        Assertions.assertEquals(PAGE_STATEMENTS, smallPage);
+    }
+
+    @Test
+    void pagesMergeSeriesOccurrencesInStartOrderWithCompactInvitees() {
+        List<Employee> invitees = seedEmployees(2);
+        Long employeeId = invitees.get(0).getId();
+        jdbcTemplate.update("UPDATE profile SET content_hash = 'abc' WHERE employee_id = ?", employeeId);
+        LocalDate from = LocalDate.of(2091, 5, 1);
+        LocalDate to = from.plusDays(9);
+        for (int i = 0; i < 10; i++) {
+            seedMeeting(from.plusDays(i), LocalTime.of(9, 0), null, invitees);
+        }
+        // Starts before the window and runs through it, between the singles each morning
+        Meeting series = seedMeeting(from.minusDays(3), LocalTime.of(8, 30), "FREQ=DAILY", invitees);
+
+        List<MeetingSummary> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MeetingSummary> page = meetingService.getMeetings(from, to, employeeId, cursor, 3);
+            listed.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(20, listed.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < listed.size(); i++) {
+            MeetingSummary meeting = listed.get(i);
+            Assertions.assertEquals(from.plusDays(i / 2), meeting.getMeetingDate());
+            Assertions.assertEquals(i % 2 == 0, series.getId().equals(meeting.getId()));
+            Assertions.assertTrue(seen.add(meeting.getId() + "@" + meeting.getMeetingDate()));
+        }
+        MeetingInvitee invitee = listed.get(0).getInvitees().stream()
+                .filter(candidate -> candidate.getId().equals(employeeId)).findFirst().orElseThrow();
+        Assertions.assertEquals("Test Invitee", invitee.getName());
+        Assertions.assertEquals("/api/employees/" + employeeId + "/profile-image/48?v=abc", invitee.getAvatarUrl());
+        Assertions.assertEquals(2, listed.get(1).getInvitees().size());
+    }
+
+    @Test
+    void creatorAndStatusListingsArePagedTheSameWay() {
+        List<Employee> invitees = seedEmployees(2);
+        String creator = "planner-" + UUID.randomUUID();
+        LocalDate from = LocalDate.of(2094, 6, 1);
+        LocalDate to = from.plusDays(6);
+        Meeting single = seedMeeting(from.plusDays(1), LocalTime.of(9, 0), null, invitees, creator, MeetingStatus.SCHEDULED);
+        Meeting series = seedMeeting(from.minusDays(7), LocalTime.of(8, 0), "FREQ=WEEKLY", invitees, creator, MeetingStatus.SCHEDULED);
+        Meeting cancelled = seedMeeting(from.plusDays(2), LocalTime.of(9, 0), null, invitees, creator, MeetingStatus.CANCELLED);
+        Meeting cancelledSeries = seedMeeting(from, LocalTime.of(7, 0), "FREQ=DAILY;COUNT=2", invitees, "admin", MeetingStatus.CANCELLED);
+        cancelledSeries.setRecurrenceEnd(from.plusDays(1));
+        meetingRepository.save(cancelledSeries);
+        seedMeeting(from.plusDays(3), LocalTime.of(9, 0), null, invitees, "admin", MeetingStatus.SCHEDULED);
+
+        List<String> byCreator = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MeetingSummary> page = meetingService.getMeetingsByCreator(creator, from, to, cursor, 2);
+            page.getItems().forEach(meeting -> byCreator.add(meeting.getId() + "@" + meeting.getMeetingDate()));
+            Assertions.assertTrue(page.getItems().stream().allMatch(meeting -> meeting.getInvitees().size() == 2));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<String> byStatus = meetingService.getMeetingsByStatus(MeetingStatus.CANCELLED, from, to, null, 25).getItems()
+                .stream().map(meeting -> meeting.getId() + "@" + meeting.getMeetingDate()).toList();
+
+        Assertions.assertEquals(List.of(series.getId() + "@" + from, single.getId() + "@" + from.plusDays(1),
+                cancelled.getId() + "@" + from.plusDays(2)), byCreator);
+        Assertions.assertEquals(List.of(cancelledSeries.getId() + "@" + from, cancelledSeries.getId() + "@" + from.plusDays(1),
+                cancelled.getId() + "@" + from.plusDays(2)), byStatus);
+        Assertions.assertEquals(PAGE_STATEMENTS,
+                countStatements(() -> meetingService.getMeetingsByCreator(creator, from, to, null, 25)));
+        Assertions.assertEquals(PAGE_STATEMENTS,
+                countStatements(() -> meetingService.getMeetingsByStatus(MeetingStatus.CANCELLED, from, to, null, 25)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> meetingService.getMeetingsByStatus(MeetingStatus.SCHEDULED, to, from, null, 25));
+    }
+
+    @Test
+    void aWindowIsRequired() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> meetingService.getMeetings(LocalDate.of(2090, 1, 2), LocalDate.of(2090, 1, 1), null, null, 10));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> meetingService.getMeetings(LocalDate.of(2090, 1, 1), LocalDate.of(2092, 1, 1), null, null, 10));
+    }
+
+    private List<Employee> seedEmployees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Test");
+            employee.setLastName("Invitee");
+            employee.setEmail(UUID.randomUUID() + "@example.com");
+            employees.add(employeeService.createEmployee(employee, "admin"));
+        }
+        return employees;
+    }
+
+    private Meeting seedMeeting(LocalDate date, LocalTime time, String recurrenceRule, List<Employee> invitees) {
+        return seedMeeting(date, time, recurrenceRule, invitees, "admin", MeetingStatus.SCHEDULED);
+    }
+
+    private Meeting seedMeeting(LocalDate date, LocalTime time, String recurrenceRule, List<Employee> invitees,
+                                String createdBy, MeetingStatus status) {
+        return meetingRepository.save(Meeting.builder()
+                .title("Meeting")
+                .meetingDate(date)
+                .meetingTime(time)
+                .durationMinutes(15)
+                .recurrenceRule(recurrenceRule)
+                .createdAt(LocalDateTime.now())
+                .createdBy(createdBy)
+                .status(status)
+                .invitees(new ArrayList<>(invitees))
+                .build());
+    }
+
+    private long countStatements(Runnable operation) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,73 @@
+package net.javaguides.springboot_backend.service;
+
+import net.javaguides.springboot_backend.entity.Employee;
+import net.javaguides.springboot_backend.entity.Meeting;
+import net.javaguides.springboot_backend.exception.MeetingConflictException;
+import net.javaguides.springboot_backend.payload.MeetingRequest;
+import net.javaguides.springboot_backend.status.MeetingStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A status change only re-checks conflicts when a cancelled meeting takes its time back; a meeting saved over
+ * a conflict on purpose keeps that allowance for every other status update.
+ */
+@SpringBootTest
+class MeetingStatusConflictTest {
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void aMeetingSavedDespiteAConflictCanStillChangeStatus() {
+        Employee invitee = seedEmployee();
+        LocalDate date = LocalDate.of(2093, 4, 7);
+        meetingService.createMeeting(request(date, invitee, false), "admin");
+        Meeting overlapping = meetingService.createMeeting(request(date, invitee, true), "admin");
+
+        Meeting updated = meetingService.updateMeetingStatus(overlapping.getId(), MeetingStatus.SCHEDULED, "admin");
+
+        Assertions.assertEquals(MeetingStatus.SCHEDULED, updated.getStatus());
+    }
+
+    @Test
+    void reactivatingACancelledMeetingChecksItsTimeIsStillFree() {
+        Employee invitee = seedEmployee();
+        LocalDate date = LocalDate.of(2093, 4, 8);
+        Meeting cancelled = meetingService.createMeeting(request(date, invitee, false), "admin");
+        meetingService.updateMeetingStatus(cancelled.getId(), MeetingStatus.CANCELLED, "admin");
+        Meeting taken = meetingService.createMeeting(request(date, invitee, false), "admin");
+
+        Assertions.assertThrows(MeetingConflictException.class,
+                () -> meetingService.updateMeetingStatus(cancelled.getId(), MeetingStatus.SCHEDULED, "admin"));
+
+        meetingService.updateMeetingStatus(taken.getId(), MeetingStatus.CANCELLED, "admin");
+        Assertions.assertEquals(MeetingStatus.SCHEDULED,
+                meetingService.updateMeetingStatus(cancelled.getId(), MeetingStatus.SCHEDULED, "admin").getStatus());
+    }
+
+    private Employee seedEmployee() {
+        Employee employee = new Employee();
+        employee.setFirstName("Test");
+        employee.setLastName("Invitee");
+        employee.setEmail(UUID.randomUUID() + "@example.com");
+        return employeeService.createEmployee(employee, "admin");
+    }
+
+    private static MeetingRequest request(LocalDate date, Employee invitee, boolean allowConflicts) {
+        MeetingRequest request = new MeetingRequest("Planning", date, LocalTime.of(10, 0), null, List.of(invitee.getId()));
+        request.setDurationMinutes(60);
+        request.setAllowConflicts(allowConflicts);
+        return request;
+    }
+}
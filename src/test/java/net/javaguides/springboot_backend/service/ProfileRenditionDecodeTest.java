@@ -0,0 +1,61 @@
+package net.javaguides.springboot_backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Decoding looks at the declared size first: a tiny PNG claiming a huge canvas is turned away before any
+ * pixels are allocated, while ordinary photos and non-images behave as before.
+ */
+class ProfileRenditionDecodeTest {
+
+    @Test
+    void decodesImagesWithinTheLimit() throws IOException {
+        BufferedImage image = ProfileRenditionService.decode(new ByteArrayInputStream(png(640, 480)), 1L);
+
+        Assertions.assertNotNull(image);
+        Assertions.assertEquals(640, image.getWidth());
+        Assertions.assertEquals(480, image.getHeight());
+    }
+
+    @Test
+    void refusesACanvasOverThePixelLimitWithoutDecodingIt() throws IOException {
+        // 100000 x 100000 would need 40 GB once decoded, yet the file is a few dozen bytes
+        byte[] bomb = withDeclaredSize(png(1, 1), 100_000, 100_000);
+
+        Assertions.assertNull(ProfileRenditionService.decode(new ByteArrayInputStream(bomb), 1L));
+    }
+
+    @Test
+    void returnsNothingForContentThatIsNotAnImage() throws IOException {
+        byte[] text = "not an image".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertNull(ProfileRenditionService.decode(new ByteArrayInputStream(text), 1L));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    // Rewrites the width and height in the IHDR chunk, which follows the 8 byte signature, and its CRC
+    private static byte[] withDeclaredSize(byte[] png, int width, int height) {
+        ByteBuffer buffer = ByteBuffer.wrap(png);
+        buffer.putInt(16, width);
+        buffer.putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(png, 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        return png;
+    }
+}
@@ -0,0 +1,88 @@
+package net.javaguides.springboot_backend.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot_backend.config.AppConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Which requests the session filter lets through, with an in-memory store that never touches the database.
+ */
+class SessionAuthenticationFilterTest {
+
+    private final SessionStore sessionStore = new SessionStore(null, new SimpleMeterRegistry(), 4, 30, false, 1000, 60000);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aStaleSessionIdStillReachesLoginAndLogout() throws Exception {
+        for (String path : new String[] {"/api/login", "/api/logout"}) {
+            Outcome outcome = send(filter(false), "POST", path, "no-such-session");
+            Assertions.assertTrue(outcome.passed(), path);
+            Assertions.assertNull(outcome.principal(), path);
+        }
+        // Also when every other path requires a session
+        Assertions.assertTrue(send(filter(true), "POST", "/api/login", "no-such-session").passed());
+    }
+
+    @Test
+    void aStaleSessionIdIsRejectedOnProtectedPaths() throws Exception {
+        Outcome outcome = send(filter(false), "GET", "/api/employees", "no-such-session");
+
+        Assertions.assertFalse(outcome.passed());
+        Assertions.assertEquals(401, outcome.status());
+    }
+
+    @Test
+    void aLiveSessionAuthenticatesTheRequest() throws Exception {
+        Session session = sessionStore.create(1L, "jdoe");
+
+        Outcome protectedPath = send(filter(true), "GET", "/api/employees", session.getId());
+        Outcome openPath = send(filter(true), "POST", "/api/logout", session.getId());
+
+        Assertions.assertTrue(protectedPath.passed());
+        Assertions.assertEquals("jdoe", protectedPath.principal());
+        Assertions.assertEquals("jdoe", openPath.principal());
+    }
+
+    @Test
+    void withoutAHeaderOnlyOpenPathsPassWhenSessionsAreRequired() throws Exception {
+        Assertions.assertEquals(401, send(filter(true), "GET", "/api/employees", null).status());
+        Assertions.assertTrue(send(filter(true), "POST", "/api/login", null).passed());
+        Assertions.assertTrue(send(filter(false), "GET", "/api/employees", null).passed());
+    }
+
+    private SessionAuthenticationFilter filter(boolean sessionRequired) {
+        return new SessionAuthenticationFilter(sessionStore, new ObjectMapper().findAndRegisterModules(), sessionRequired);
+    }
+
+    private static Outcome send(SessionAuthenticationFilter filter, String method, String path, String sessionId)
+            throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (sessionId != null) {
+            request.addHeader(AppConstants.SESSION_HEADER, sessionId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return new Outcome(chain.getRequest() != null, response.getStatus(),
+                authentication != null ? authentication.getName() : null);
+    }
+
+    private record Outcome(boolean passed, int status, String principal) {
+    }
+}